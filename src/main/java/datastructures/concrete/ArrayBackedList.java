@@ -0,0 +1,218 @@
+package datastructures.concrete;
+
+import datastructures.interfaces.IList;
+import misc.exceptions.EmptyContainerException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * An IList stored in a resizable array, like java.util.ArrayList.
+ *
+ * Unlike DoubleLinkedList, 'get' and 'set' take O(1) time, and adding to the
+ * end takes amortized O(1) time without allocating a node per element.
+ * Inserting or deleting anywhere except the end takes O(n) time, since every
+ * later element has to shift over.
+ *
+ * Note: for more info on the expected behavior of the IList methods, see
+ * the source code for IList.
+ */
+public class ArrayBackedList<T> implements IList<T> {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private T[] array;
+    private int size;
+
+    public ArrayBackedList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty list with room for 'initialCapacity' elements before it
+     * needs to resize.
+     *
+     * @throws IllegalArgumentException  if initialCapacity is negative
+     */
+    public ArrayBackedList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        this.array = this.makeArrayOfT(initialCapacity);
+        this.size = 0;
+    }
+
+    /**
+     * This method will return a new, empty array of the given size
+     * that can contain elements of type T.
+     */
+    @SuppressWarnings("unchecked")
+    private T[] makeArrayOfT(int size) {
+        return (T[]) (new Object[size]);
+    }
+
+    @Override
+    public void add(T item) {
+        this.ensureCapacity(this.size + 1);
+        this.array[this.size] = item;
+        this.size++;
+    }
+
+    /**
+     * Adds every item in the given list to the end of this one, in order.
+     */
+    public void addAll(IList<? extends T> items) {
+        this.ensureCapacity(this.size + items.size());
+        if (items instanceof ArrayBackedList) {
+            ArrayBackedList<? extends T> other = (ArrayBackedList<? extends T>) items;
+            System.arraycopy(other.array, 0, this.array, this.size, other.size);
+            this.size += other.size;
+        } else {
+            for (T item : items) {
+                this.array[this.size] = item;
+                this.size++;
+            }
+        }
+    }
+
+    @Override
+    public T remove() {
+        if (this.size == 0) {
+            throw new EmptyContainerException();
+        }
+        this.size--;
+        T result = this.array[this.size];
+        // Let the removed item be garbage collected
+        this.array[this.size] = null;
+        return result;
+    }
+
+    @Override
+    public T get(int index) {
+        this.checkIndex(index, this.size);
+        return this.array[index];
+    }
+
+    @Override
+    public void set(int index, T item) {
+        this.checkIndex(index, this.size);
+        this.array[index] = item;
+    }
+
+    @Override
+    public void insert(int index, T item) {
+        this.checkIndex(index, this.size + 1);
+        this.ensureCapacity(this.size + 1);
+        System.arraycopy(this.array, index, this.array, index + 1, this.size - index);
+        this.array[index] = item;
+        this.size++;
+    }
+
+    @Override
+    public T delete(int index) {
+        this.checkIndex(index, this.size);
+        T result = this.array[index];
+        System.arraycopy(this.array, index + 1, this.array, index, this.size - index - 1);
+        this.size--;
+        this.array[this.size] = null;
+        return result;
+    }
+
+    @Override
+    public int indexOf(T item) {
+        for (int i = 0; i < this.size; i++) {
+            T current = this.array[i];
+            if (current == item || (current != null && current.equals(item))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean contains(T other) {
+        return this.indexOf(other) != -1;
+    }
+
+    /**
+     * Makes sure the list can hold at least 'capacity' elements without resizing.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > this.array.length) {
+            // Grow by at least half again, so a long run of adds only copies
+            // the array O(log n) times.
+            int newCapacity = Math.max(capacity, this.array.length + (this.array.length >> 1) + 1);
+            T[] newArray = this.makeArrayOfT(newCapacity);
+            System.arraycopy(this.array, 0, newArray, 0, this.size);
+            this.array = newArray;
+        }
+    }
+
+    /**
+     * Shrinks the underlying array so it holds exactly 'size()' elements,
+     * freeing up whatever extra room was left over from resizing.
+     */
+    public void trimToSize() {
+        if (this.array.length > this.size) {
+            T[] newArray = this.makeArrayOfT(this.size);
+            System.arraycopy(this.array, 0, newArray, 0, this.size);
+            this.array = newArray;
+        }
+    }
+
+    private void checkIndex(int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + this.size);
+        }
+    }
+
+    /**
+     * Returns an iterator over the contents of this list.
+     *
+     * The iterator does not check whether the list was modified while it was
+     * in use: changing the list partway through iterating is not supported,
+     * and will give unpredictable results rather then an exception.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new ArrayBackedListIterator();
+    }
+
+    /**
+     * Returns a Spliterator that splits the backing array by index. Like the
+     * iterator, it does not check for modification.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(this.array, 0, this.size, Spliterator.ORDERED);
+    }
+
+    private class ArrayBackedListIterator implements Iterator<T> {
+        private int index;
+
+        public ArrayBackedListIterator() {
+            this.index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.index < ArrayBackedList.this.size;
+        }
+
+        @Override
+        public T next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T item = ArrayBackedList.this.array[this.index];
+            this.index++;
+            return item;
+        }
+    }
+}
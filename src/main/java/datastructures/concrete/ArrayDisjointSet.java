@@ -1,7 +1,6 @@
 package datastructures.concrete;
 
-import datastructures.concrete.dictionaries.ChainedHashDictionary;
-import datastructures.interfaces.IDictionary;
+import datastructures.concrete.dictionaries.ObjectIntMap;
 import datastructures.interfaces.IDisjointSet;
 
 /**
@@ -12,7 +11,7 @@ public class ArrayDisjointSet<T> implements IDisjointSet<T> {
     // directly within our private tests.
     private int[] pointers;
     private int setIndex;
-    private IDictionary<T, Integer> setItems;
+    private ObjectIntMap<T> setItems;
 
     // However, feel free to add more methods and private helper methods.
     // You will probably need to add one or two more fields in order to
@@ -21,7 +20,7 @@ public class ArrayDisjointSet<T> implements IDisjointSet<T> {
     public ArrayDisjointSet() {
         pointers = new int[100];
         setIndex = 0;
-        setItems = new ChainedHashDictionary<T, Integer>();
+        setItems = new ObjectIntMap<T>();
     }
 
     @Override
@@ -45,18 +44,27 @@ public class ArrayDisjointSet<T> implements IDisjointSet<T> {
 
     @Override
     public int findSet(T item) {
-        if (!this.setItems.containsKey(item)) {
+        int index = this.setItems.getOrDefault(item, -1);
+        if (index == -1) {
             throw new IllegalArgumentException();
         }
         
-        return findSetHelper(this.setItems.get(item));
+        return findSetHelper(index);
     }
     
     private int findSetHelper(int index) {
-        if (this.pointers[index] < 0) {
-            return index;
-        } 
-        return findSetHelper(this.pointers[index]);
+        int root = index;
+        while (this.pointers[root] >= 0) {
+            root = this.pointers[root];
+        }
+        
+        // Point everything we passed straight at the root, so the next lookup is quicker.
+        while (this.pointers[index] >= 0) {
+            int next = this.pointers[index];
+            this.pointers[index] = root;
+            index = next;
+        }
+        return root;
     }
 
     @Override
@@ -72,9 +80,13 @@ public class ArrayDisjointSet<T> implements IDisjointSet<T> {
             throw new IllegalArgumentException();
         }
         
+        // Roots store -1 - rank, so a more negative pointer means a taller tree.
         int rootRank1 = this.pointers[item1RootID];
         int rootRank2 = this.pointers[item2RootID];
         if (rootRank1 <= rootRank2) {
+            if (rootRank1 == rootRank2) {
+                this.pointers[item1RootID]--;
+            }
             this.pointers[item2RootID] = item1RootID;
         } else {
             this.pointers[item1RootID] = item2RootID;
@@ -9,7 +9,7 @@ import misc.exceptions.EmptyContainerException;
 public class ArrayHeap<T extends Comparable<T>> implements IPriorityQueue<T> {
     // See spec: you must implement a implement a 4-heap.
     private static final int NUM_CHILDREN = 4;
-    private static final int INIT_ARRAY_SIZING = 100000;
+    private static final int DEFAULT_CAPACITY = 16;
 
     // You MUST use this field to store the contents of your heap.
     // You may NOT rename this field: we will be inspecting it within
@@ -20,7 +20,20 @@ public class ArrayHeap<T extends Comparable<T>> implements IPriorityQueue<T> {
     // Feel free to add more fields and constants.
 
     public ArrayHeap() {
-        this.heap = makeArrayOfT(INIT_ARRAY_SIZING);
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty heap with room for 'initialCapacity' items before it needs
+     * to resize.
+     *
+     * @throws IllegalArgumentException  if initialCapacity is negative
+     */
+    public ArrayHeap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        this.heap = makeArrayOfT(initialCapacity);
         length = 0;
     }
 
@@ -48,12 +61,14 @@ public class ArrayHeap<T extends Comparable<T>> implements IPriorityQueue<T> {
         
         T min = this.heap[0];
         
+        this.heap[0] = this.heap[this.length - 1];
+        // Let the removed item be garbage collected
+        this.heap[this.length - 1] = null;
+        this.length--;
         if (this.length > 1) {
-            this.heap[0] = this.heap[this.length - 1];
             this.heap = removeMinHelper(0);
         }
         
-        this.length--;
         return min;
     }
     
@@ -96,16 +111,13 @@ public class ArrayHeap<T extends Comparable<T>> implements IPriorityQueue<T> {
             throw new IllegalArgumentException("IllegalArgumentException: null item");
         }
         
-        this.length++;
-        
-        if (this.length % INIT_ARRAY_SIZING == 0) {
-            T[] newHeap = makeArrayOfT(this.length * 2);
-            for (int i = 0; i < this.length; i++) {
-                newHeap[i] = this.heap[i];
-            }
+        if (this.length == this.heap.length) {
+            T[] newHeap = makeArrayOfT(this.heap.length * 2 + 1);
+            System.arraycopy(this.heap, 0, newHeap, 0, this.length);
             this.heap = newHeap;
         }
         
+        this.length++;
         this.heap[this.length - 1] = item;
         
         if (this.length > 1) {
@@ -1,24 +1,44 @@
 package datastructures.concrete;
 
 import datastructures.concrete.dictionaries.ChainedHashDictionary;
-import datastructures.interfaces.IDictionary;
 import datastructures.interfaces.ISet;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
 
 /**
  * See ISet for more details on what each method is supposed to do.
  */
 public class ChainedHashSet<T> implements ISet<T> {
     // This should be the only field you need
-    private IDictionary<T, Boolean> map;
+    private ChainedHashDictionary<T, Boolean> map;
 
     public ChainedHashSet() {
         // No need to change this method
         this.map = new ChainedHashDictionary<>();
     }
 
+    /**
+     * Creates an empty set with room for 'expectedSize' items before it needs
+     * to resize.
+     *
+     * @throws IllegalArgumentException  if expectedSize is negative
+     */
+    public ChainedHashSet(int expectedSize) {
+        this.map = new ChainedHashDictionary<>(expectedSize);
+    }
+
+    /**
+     * Creates a new set containing every item in the given one.
+     */
+    public ChainedHashSet(ISet<? extends T> items) {
+        this(items.size());
+        this.addAll(items);
+    }
+
     @Override
     public void add(T item) {
         this.map.put(item, false);
@@ -43,27 +63,41 @@ public class ChainedHashSet<T> implements ISet<T> {
     }
 
     @Override
-    public Iterator<T> iterator() {
-        return new SetIterator<>(this.map.iterator());
+    public void addAll(ISet<? extends T> other) {
+        // Grow once up front, instead of rehashing every time the set doubles.
+        this.map.ensureCapacity(this.size() + other.size());
+        other.forEach(this::add);
     }
 
-    private static class SetIterator<T> implements Iterator<T> {
-        // This should be the only field you need
-        private Iterator<KVPair<T, Boolean>> iter;
+    @Override
+    public Iterator<T> iterator() {
+        return this.map.keyIterator();
+    }
 
-        public SetIterator(Iterator<KVPair<T, Boolean>> iter) {
-            // No need to change this method.
-            this.iter = iter;
-        }
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        this.map.forEach((item, unused) -> action.accept(item));
+    }
 
-        @Override
-        public boolean hasNext() {
-            return iter.hasNext();
-        }
+    @Override
+    public Spliterator<T> spliterator() {
+        return this.map.keySpliterator();
+    }
 
-        @Override
-        public T next() {
-            return iter.next().getKey();
-        }
+    /**
+     * Returns a Collector that gathers the items of a stream into a new
+     * ChainedHashSet. It works with parallel streams: each thread fills its own
+     * set, and the sets are merged at the end.
+     */
+    public static <T> Collector<T, ?, ISet<T>> toSet() {
+        return Collector.of(ChainedHashSet<T>::new, ISet::add, (first, second) -> {
+            if (first.size() < second.size()) {
+                ISet<T> temp = first;
+                first = second;
+                second = temp;
+            }
+            second.forEach(first::add);
+            return first;
+        }, Collector.Characteristics.UNORDERED);
     }
-}
\ No newline at end of file
+}
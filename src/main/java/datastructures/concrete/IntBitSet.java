@@ -0,0 +1,170 @@
+package datastructures.concrete;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * A set of non-negative ints, stored as one bit per possible item.
+ *
+ * This is meant for sets of small ids, like the vertex ids Graph hands out.
+ * Membership checks are a single array lookup, and the bulk operations work on
+ * 64 items at a time.
+ */
+public class IntBitSet {
+    private static final int BITS_PER_WORD = 64;
+
+    private long[] words;
+    private int size;
+
+    public IntBitSet() {
+        this(BITS_PER_WORD);
+    }
+
+    /**
+     * Creates an empty set with room for the items 0 through capacity - 1 before
+     * it needs to resize.
+     *
+     * @throws IllegalArgumentException  if capacity is negative
+     */
+    public IntBitSet(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + capacity);
+        }
+        this.words = new long[wordsFor(capacity)];
+        this.size = 0;
+    }
+
+    /**
+     * Adds the given item to the set. If it is already there, does nothing.
+     *
+     * @throws IllegalArgumentException  if the item is negative
+     */
+    public void add(int item) {
+        if (item < 0) {
+            throw new IllegalArgumentException("Item cannot be negative: " + item);
+        }
+        int word = item / BITS_PER_WORD;
+        if (word >= this.words.length) {
+            this.words = Arrays.copyOf(this.words, Math.max(word + 1, 2 * this.words.length));
+        }
+        long mask = 1L << item;
+        if ((this.words[word] & mask) == 0) {
+            this.words[word] |= mask;
+            this.size++;
+        }
+    }
+
+    /**
+     * Removes the given item from the set.
+     *
+     * @throws NoSuchElementException  if the set does not contain the given item
+     */
+    public void remove(int item) {
+        if (!this.contains(item)) {
+            throw new NoSuchElementException();
+        }
+        this.words[item / BITS_PER_WORD] &= ~(1L << item);
+        this.size--;
+    }
+
+    public boolean contains(int item) {
+        int word = item / BITS_PER_WORD;
+        return item >= 0 && word < this.words.length && (this.words[word] & (1L << item)) != 0;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Adds every item in the given set to this one.
+     */
+    public void addAll(IntBitSet other) {
+        if (other.words.length > this.words.length) {
+            this.words = Arrays.copyOf(this.words, other.words.length);
+        }
+        for (int i = 0; i < other.words.length; i++) {
+            this.words[i] |= other.words[i];
+        }
+        this.recount();
+    }
+
+    /**
+     * Removes every item in the given set from this one.
+     */
+    public void removeAll(IntBitSet other) {
+        int shared = Math.min(this.words.length, other.words.length);
+        for (int i = 0; i < shared; i++) {
+            this.words[i] &= ~other.words[i];
+        }
+        this.recount();
+    }
+
+    /**
+     * Removes every item from this set that is not also in the given one.
+     */
+    public void retainAll(IntBitSet other) {
+        int shared = Math.min(this.words.length, other.words.length);
+        for (int i = 0; i < shared; i++) {
+            this.words[i] &= other.words[i];
+        }
+        Arrays.fill(this.words, shared, this.words.length, 0L);
+        this.recount();
+    }
+
+    /**
+     * Returns a new set holding every item in this set that is not in the given one.
+     */
+    public IntBitSet difference(IntBitSet other) {
+        IntBitSet output = this.copy();
+        output.removeAll(other);
+        return output;
+    }
+
+    /**
+     * Returns a new set holding every item in either this set or the given one.
+     */
+    public IntBitSet union(IntBitSet other) {
+        IntBitSet output = this.copy();
+        output.addAll(other);
+        return output;
+    }
+
+    /**
+     * Calls the given action on every item in the set, from smallest to largest.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < this.words.length; i++) {
+            long word = this.words[i];
+            while (word != 0) {
+                action.accept(i * BITS_PER_WORD + Long.numberOfTrailingZeros(word));
+                // Clear the lowest set bit
+                word &= word - 1;
+            }
+        }
+    }
+
+    private IntBitSet copy() {
+        IntBitSet output = new IntBitSet(0);
+        output.words = this.words.clone();
+        output.size = this.size;
+        return output;
+    }
+
+    private void recount() {
+        int count = 0;
+        for (long word : this.words) {
+            count += Long.bitCount(word);
+        }
+        this.size = count;
+    }
+
+    private static int wordsFor(int capacity) {
+        return (capacity + BITS_PER_WORD - 1) / BITS_PER_WORD;
+    }
+}
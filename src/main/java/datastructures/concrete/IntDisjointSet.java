@@ -0,0 +1,97 @@
+package datastructures.concrete;
+
+import java.util.Arrays;
+
+/**
+ * A disjoint set over the ints 0 through size - 1, each of which starts out in
+ * a set of its own.
+ *
+ * This does the same job as an ArrayDisjointSet<Integer>, but without boxing
+ * or hashing: an item's parent is just pointers[item]. It's meant for sets of
+ * small ids, like the vertex ids Graph hands out.
+ */
+public class IntDisjointSet {
+    // Same layout as ArrayDisjointSet: a root stores -1 - rank, and every other
+    // item stores the index of its parent.
+    private int[] pointers;
+    private int numSets;
+
+    /**
+     * @throws IllegalArgumentException  if size is negative
+     */
+    public IntDisjointSet(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be negative: " + size);
+        }
+        this.pointers = new int[size];
+        Arrays.fill(this.pointers, -1);
+        this.numSets = size;
+    }
+
+    /**
+     * Returns the representative of the set containing the given item.
+     *
+     * @throws IllegalArgumentException  if the item is not between 0 and size - 1
+     */
+    public int findSet(int item) {
+        this.checkItem(item);
+        int root = item;
+        while (this.pointers[root] >= 0) {
+            root = this.pointers[root];
+        }
+
+        // Point everything we passed straight at the root, so the next lookup is quicker.
+        while (this.pointers[item] >= 0) {
+            int next = this.pointers[item];
+            this.pointers[item] = root;
+            item = next;
+        }
+        return root;
+    }
+
+    /**
+     * Combines the sets containing the two given items.
+     *
+     * @throws IllegalArgumentException  if either item is not between 0 and size - 1
+     * @throws IllegalArgumentException  if item1 and item2 are already a part of the same set
+     */
+    public void union(int item1, int item2) {
+        int root1 = this.findSet(item1);
+        int root2 = this.findSet(item2);
+        if (root1 == root2) {
+            throw new IllegalArgumentException();
+        }
+
+        int rank1 = this.pointers[root1];
+        int rank2 = this.pointers[root2];
+        if (rank1 <= rank2) {
+            if (rank1 == rank2) {
+                this.pointers[root1]--;
+            }
+            this.pointers[root2] = root1;
+        } else {
+            this.pointers[root1] = root2;
+        }
+        this.numSets--;
+    }
+
+    /**
+     * Returns how many items there are, in all sets combined.
+     */
+    public int size() {
+        return this.pointers.length;
+    }
+
+    /**
+     * Returns how many separate sets there currently are.
+     */
+    public int numSets() {
+        return this.numSets;
+    }
+
+    private void checkItem(int item) {
+        if (item < 0 || item >= this.pointers.length) {
+            throw new IllegalArgumentException("No such item: " + item);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package datastructures.concrete;
+
+import misc.exceptions.EmptyContainerException;
+
+import java.util.Arrays;
+
+/**
+ * A min-heap of int items in the range [0, capacity), each with a double priority.
+ *
+ * Because the items are small ints, the heap can remember where each item
+ * currently sits. That lets it lower the priority of an item already in the
+ * heap in O(log n) time, instead of inserting a duplicate -- which is exactly
+ * what Dijkstra's algorithm needs. Like ArrayHeap, this is a 4-heap.
+ */
+public class IntHeap {
+    private static final int NUM_CHILDREN = 4;
+    private static final int ABSENT = -1;
+
+    private int[] heap;
+    private int size;
+    private double[] priorities;  // Indexed by item
+    private int[] positions;      // Indexed by item; ABSENT if not in the heap
+
+    /**
+     * Creates an empty heap that can hold the items 0 through capacity - 1.
+     *
+     * @throws IllegalArgumentException  if capacity is negative
+     */
+    public IntHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + capacity);
+        }
+        this.heap = new int[capacity];
+        this.size = 0;
+        this.priorities = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(this.positions, ABSENT);
+    }
+
+    /**
+     * Creates a heap holding every item 0 through priorities.length - 1, where
+     * item i has priority priorities[i].
+     *
+     * This builds the heap bottom-up in O(n) time, rather then the O(n log n) it
+     * would take to insert the items one at a time, so it's the better choice when
+     * only some of the items will ever be removed.
+     */
+    public IntHeap(double[] priorities) {
+        int capacity = priorities.length;
+        this.heap = new int[capacity];
+        this.size = capacity;
+        this.priorities = priorities.clone();
+        this.positions = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            this.place(i, i);
+        }
+        // Sift down every item that has children, starting from the last of them.
+        int lastParent = capacity > 1 ? (capacity - 2) / NUM_CHILDREN : -1;
+        for (int i = lastParent; i >= 0; i--) {
+            this.percolateDown(i);
+        }
+    }
+
+    /**
+     * Adds the given item with the given priority.
+     *
+     * @throws IllegalArgumentException  if the item is out of range or already in the heap
+     */
+    public void insert(int item, double priority) {
+        this.checkItem(item);
+        if (this.positions[item] != ABSENT) {
+            throw new IllegalArgumentException("Item already in heap: " + item);
+        }
+        this.priorities[item] = priority;
+        this.heap[this.size] = item;
+        this.positions[item] = this.size;
+        this.size++;
+        this.percolateUp(this.size - 1);
+    }
+
+    /**
+     * Lowers the priority of an item already in the heap.
+     *
+     * @throws IllegalArgumentException  if the item is not in the heap, or the new
+     *                                   priority is higher then the current one
+     */
+    public void decreasePriority(int item, double priority) {
+        if (!this.contains(item)) {
+            throw new IllegalArgumentException("Item not in heap: " + item);
+        }
+        if (priority > this.priorities[item]) {
+            throw new IllegalArgumentException("Priority can only decrease");
+        }
+        this.priorities[item] = priority;
+        this.percolateUp(this.positions[item]);
+    }
+
+    /**
+     * Inserts the item if it isn't in the heap yet, or lowers its priority if the
+     * given one is lower. Returns 'true' if the heap changed.
+     *
+     * @throws IllegalArgumentException  if the item is out of range
+     */
+    public boolean insertOrDecrease(int item, double priority) {
+        this.checkItem(item);
+        if (this.positions[item] == ABSENT) {
+            this.insert(item, priority);
+            return true;
+        } else if (priority < this.priorities[item]) {
+            this.decreasePriority(item, priority);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the item with the smallest priority without removing it.
+     *
+     * @throws EmptyContainerException  if the heap is empty
+     */
+    public int peekMin() {
+        if (this.size == 0) {
+            throw new EmptyContainerException();
+        }
+        return this.heap[0];
+    }
+
+    /**
+     * Removes and returns the item with the smallest priority.
+     *
+     * @throws EmptyContainerException  if the heap is empty
+     */
+    public int removeMin() {
+        int min = this.peekMin();
+        this.size--;
+        this.positions[min] = ABSENT;
+        if (this.size > 0) {
+            this.place(this.heap[this.size], 0);
+            this.percolateDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the priority the given item was last given. This is only meaningful
+     * if the item is, or once was, in the heap.
+     *
+     * @throws IllegalArgumentException  if the item is out of range
+     */
+    public double getPriority(int item) {
+        this.checkItem(item);
+        return this.priorities[item];
+    }
+
+    /**
+     * Returns 'true' if the given item is currently in the heap.
+     */
+    public boolean contains(int item) {
+        return item >= 0 && item < this.positions.length && this.positions[item] != ABSENT;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    private void percolateUp(int index) {
+        int item = this.heap[index];
+        double priority = this.priorities[item];
+        while (index > 0) {
+            int parent = (index - 1) / NUM_CHILDREN;
+            int parentItem = this.heap[parent];
+            if (this.priorities[parentItem] <= priority) {
+                break;
+            }
+            this.place(parentItem, index);
+            index = parent;
+        }
+        this.place(item, index);
+    }
+
+    private void percolateDown(int index) {
+        int item = this.heap[index];
+        double priority = this.priorities[item];
+        while (true) {
+            int first = NUM_CHILDREN * index + 1;
+            if (first >= this.size) {
+                break;
+            }
+            int last = Math.min(first + NUM_CHILDREN, this.size);
+            int minChild = first;
+            for (int child = first + 1; child < last; child++) {
+                if (this.priorities[this.heap[child]] < this.priorities[this.heap[minChild]]) {
+                    minChild = child;
+                }
+            }
+            int childItem = this.heap[minChild];
+            if (this.priorities[childItem] >= priority) {
+                break;
+            }
+            this.place(childItem, index);
+            index = minChild;
+        }
+        this.place(item, index);
+    }
+
+    private void place(int item, int index) {
+        this.heap[index] = item;
+        this.positions[item] = index;
+    }
+
+    private void checkItem(int item) {
+        if (item < 0 || item >= this.positions.length) {
+            throw new IllegalArgumentException("Item out of range: " + item);
+        }
+    }
+}
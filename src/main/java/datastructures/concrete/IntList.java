@@ -0,0 +1,101 @@
+package datastructures.concrete;
+
+import misc.exceptions.EmptyContainerException;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of ints, stored in a plain int[].
+ *
+ * This does the same job as an ArrayBackedList<Integer>, but without boxing
+ * every element into its own object.
+ */
+public class IntList {
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private int[] array;
+    private int size;
+
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @throws IllegalArgumentException  if initialCapacity is negative
+     */
+    public IntList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative: " + initialCapacity);
+        }
+        this.array = new int[initialCapacity];
+        this.size = 0;
+    }
+
+    /**
+     * Adds the given value to the end of this list.
+     */
+    public void add(int value) {
+        if (this.size == this.array.length) {
+            this.array = Arrays.copyOf(this.array, this.array.length + (this.array.length >> 1) + 1);
+        }
+        this.array[this.size] = value;
+        this.size++;
+    }
+
+    /**
+     * Removes and returns the value at the end of this list.
+     *
+     * @throws EmptyContainerException  if the list is empty
+     */
+    public int remove() {
+        if (this.size == 0) {
+            throw new EmptyContainerException();
+        }
+        this.size--;
+        return this.array[this.size];
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException  if the index < 0 or index >= this.size()
+     */
+    public int get(int index) {
+        this.checkIndex(index);
+        return this.array[index];
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException  if the index < 0 or index >= this.size()
+     */
+    public void set(int index, int value) {
+        this.checkIndex(index);
+        this.array[index] = value;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Removes every value, keeping the underlying array for reuse.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Returns a new array containing exactly the values in this list.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(this.array, this.size);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + this.size);
+        }
+    }
+}
@@ -4,8 +4,10 @@ import datastructures.concrete.KVPair;
 import datastructures.interfaces.IDictionary;
 import misc.exceptions.NoSuchKeyException;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
 
 
 /**
@@ -19,6 +21,10 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
     private int size;
     private int space;
 
+    // Bumped whenever a pair is added or removed, so iterators can tell
+    // if the dictionary changed underneath them.
+    private int modCount;
+
     // You're encouraged to add extra fields (and helper methods) though!
 
     public ArrayDictionary() {
@@ -51,29 +57,19 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
 
     @Override
     public V get(K key) {
-        if (!containsKey(key)) {
+        int index = this.indexOf(key);
+        if (index == -1) {
             throw new NoSuchKeyException();
         }
-        
-        for (int i = 0; i < this.size; i++) {
-            if (this.pairs[i].key == key || this.pairs[i].key.equals(key)) {
-                return this.pairs[i].value;
-            }
-        }
-        return null;
+        return this.pairs[index].value;
     }
 
     @Override
     public void put(K key, V value) {
-        boolean exists = false;
-        for (int i = 0; i < this.size; i++) {
-            if (this.pairs[i].key == key || (key != null && key.equals(this.pairs[i].key))) {
-                this.pairs[i].value = value;
-                exists = !exists;
-                i = this.size;
-            }
-        }
-        if (!exists) {
+        int index = this.indexOf(key);
+        if (index != -1) {
+            this.pairs[index].value = value;
+        } else {
             if (this.size >= space) {
                 Pair<K, V>[] temp = this.pairs;
                 this.space = this.space * 2;
@@ -84,42 +80,39 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
             }
             this.pairs[size] = new Pair<K, V>(key, value);
             this.size++;
+            this.modCount++;
         }
     }
 
     @Override
     public V remove(K key) {
-        if (!containsKey(key)) {
+        int index = this.indexOf(key);
+        if (index == -1) {
             throw new NoSuchKeyException();
         }
         
-        V temp = null;
-        boolean found = false;
-        for (int i = 0; i < this.size; i++) {
-            if (!found) {
-                if (this.pairs[i].key == key || (key != null && key.equals(this.pairs[i].key))) {
-                    temp = this.pairs[i].value;
-                    this.pairs[i] = this.pairs[i + 1];
-                    found = !found;
-                }
-            } else {
-                if (i != this.size - 1) {
-                    this.pairs[i] = this.pairs[i + 1];
-                }
-            }
+        V temp = this.pairs[index].value;
+        for (int i = index; i < this.size - 1; i++) {
+            this.pairs[i] = this.pairs[i + 1];
         }
+        this.pairs[this.size - 1] = null;
         this.size--;
+        this.modCount++;
         return temp;
     }
 
     @Override
     public boolean containsKey(K key) {
+        return this.indexOf(key) != -1;
+    }
+    
+    private int indexOf(K key) {
         for (int i = 0; i < this.size; i++) {
-            if (this.pairs[i].key == key || this.pairs[i].key.equals(key)) {
-                return true;
+            if (this.pairs[i].key == key || (key != null && key.equals(this.pairs[i].key))) {
+                return i;
             }
         }
-        return false;
+        return -1;
     }
 
     @Override
@@ -127,9 +120,38 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
         return this.size;
     }
     
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        int expectedModCount = this.modCount;
+        for (int i = 0; i < this.size; i++) {
+            action.accept(this.pairs[i].key, this.pairs[i].value);
+            if (this.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
     @Override
     public Iterator<KVPair<K, V>> iterator() {
-        return new ArrayDictionaryIterator<>(this.pairs);
+        return new ArrayDictionaryIterator();
+    }
+
+    @Override
+    public Iterator<K> keyIterator() {
+        return new KeyIterator();
+    }
+
+    /*
+     * The methods below let ChainedHashDictionary walk its chains with a plain
+     * index, instead of asking each chain for an iterator.
+     */
+
+    K keyAt(int index) {
+        return this.pairs[index].key;
+    }
+
+    V valueAt(int index) {
+        return this.pairs[index].value;
     }
 
     private static class Pair<K, V> {
@@ -148,28 +170,49 @@ public class ArrayDictionary<K, V> implements IDictionary<K, V> {
         }
     }
     
-    private static class ArrayDictionaryIterator<K, V> implements Iterator<KVPair<K, V>> {
-        private Pair<K, V>[] pairs;
+    /**
+     * Walks the first 'size' slots of the array. Throws a
+     * ConcurrentModificationException if a pair is added or removed while
+     * the iterator is in use.
+     */
+    private abstract class BaseIterator {
         private int index;
+        private int expectedModCount;
         
-        public ArrayDictionaryIterator(Pair<K, V>[] pairs) {
-            this.pairs = pairs;
-            index = 0;
+        public BaseIterator() {
+            this.index = 0;
+            this.expectedModCount = ArrayDictionary.this.modCount;
         }
 
-        @Override
         public boolean hasNext() {
-            return this.index < pairs.length && this.pairs[index] != null;
+            return this.index < ArrayDictionary.this.size;
         }
 
-        @Override
-        public KVPair<K, V> next() {
+        protected Pair<K, V> nextPair() {
+            if (ArrayDictionary.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
-            KVPair<K, V> temp = new KVPair<K, V>(this.pairs[index].key, this.pairs[index].value);
-            index++;
-            return temp;
+            Pair<K, V> pair = ArrayDictionary.this.pairs[this.index];
+            this.index++;
+            return pair;
+        }
+    }
+    
+    private class ArrayDictionaryIterator extends BaseIterator implements Iterator<KVPair<K, V>> {
+        @Override
+        public KVPair<K, V> next() {
+            Pair<K, V> pair = this.nextPair();
+            return new KVPair<K, V>(pair.key, pair.value);
+        }
+    }
+    
+    private class KeyIterator extends BaseIterator implements Iterator<K> {
+        @Override
+        public K next() {
+            return this.nextPair().key;
         }
     }
-}
\ No newline at end of file
+}
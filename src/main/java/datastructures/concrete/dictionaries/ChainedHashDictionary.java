@@ -4,8 +4,12 @@ import datastructures.concrete.KVPair;
 import datastructures.interfaces.IDictionary;
 import misc.exceptions.NoSuchKeyException;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * See the spec and IDictionary for more details on what each method should do
@@ -16,10 +20,30 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
     private IDictionary<K, V>[] chains;
     private int numPairs;
 
+    private static final int DEFAULT_CHAINS = 31;
+
+    // Bumped whenever a pair is added or removed, so iterators can tell
+    // if the dictionary changed underneath them.
+    private int modCount;
+
     // You're encouraged to add extra fields (and helper methods) though!
 
     public ChainedHashDictionary() {
-        this.chains = makeArrayOfChains(31);
+        this.chains = makeArrayOfChains(DEFAULT_CHAINS);
+        this.numPairs = 0;
+    }
+
+    /**
+     * Creates an empty dictionary with room for 'expectedSize' pairs before it
+     * needs to resize.
+     *
+     * @throws IllegalArgumentException  if expectedSize is negative
+     */
+    public ChainedHashDictionary(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Size cannot be negative: " + expectedSize);
+        }
+        this.chains = makeArrayOfChains(Math.max(DEFAULT_CHAINS, expectedSize + 1));
         this.numPairs = 0;
     }
 
@@ -39,73 +63,83 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
 
     @Override
     public V get(K key) {
-        if (!containsKey(key)) {
+        IDictionary<K, V> chain = this.chains[getHashMod(key)];
+        if (chain == null) {
             throw new NoSuchKeyException();
         }
-        for (KVPair<K, V> pair : this.chains[getHashMod(key)]) {
-            if (pair.getKey() == key || (pair.getKey() != null && pair.getKey().equals(key))) {
-                return pair.getValue();
-            }
+        return chain.get(key);
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        IDictionary<K, V> chain = this.chains[getHashMod(key)];
+        if (chain == null) {
+            return defaultValue;
         }
-        return null;
+        return chain.getOrDefault(key, defaultValue);
     }
 
     @Override
     public void put(K key, V value) {
-        boolean exists = false;
         int hashed = getHashMod(key);
         if (this.chains[hashed] == null) {
             this.chains[hashed] = new ArrayDictionary<K, V>();
         }
-        for (KVPair<K, V> pair : this.chains[getHashMod(key)]) {
-            if (pair.getKey() == key || (pair.getKey() != null && pair.getKey().equals(key))) {
-                this.chains[getHashMod(key)].put(key, value);
-                exists = !exists;
-            }
-        }
-        if (!exists) {
+        IDictionary<K, V> chain = this.chains[hashed];
+        int oldSize = chain.size();
+        chain.put(key, value);
+        if (chain.size() != oldSize) {
             this.numPairs++;
+            this.modCount++;
             if (this.numPairs / this.chains.length >= 1) {
-                IDictionary<K, V>[] temp = this.chains;
-                this.chains = makeArrayOfChains(this.chains.length * 2);
-                for (int i = 0; i < temp.length; i++) {
-                    if (temp[i] != null) {
-                        for (KVPair<K, V> pair : temp[i]) {
-                            int newHashed = getHashMod(pair.getKey());
-                            if (this.chains[newHashed] == null) {
-                                this.chains[newHashed] = new ArrayDictionary<K, V>();
-                            }
-                            this.chains[getHashMod(pair.getKey())].put(pair.getKey(), pair.getValue());
-                        }
-                    }
-                }
+                this.resize(this.chains.length * 2);
             }
-            if (this.chains[getHashMod(key)] == null) {
-                this.chains[getHashMod(key)] = new ArrayDictionary<K, V>();
+        }
+    }
+    
+    /**
+     * Makes sure the dictionary can hold 'expectedSize' pairs without resizing
+     * again, so adding many pairs at once rehashes everything at most one time.
+     */
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize >= this.chains.length) {
+            this.resize(Math.max(this.chains.length * 2, expectedSize + 1));
+            this.modCount++;
+        }
+    }
+
+    private void resize(int newSize) {
+        IDictionary<K, V>[] temp = this.chains;
+        this.chains = makeArrayOfChains(newSize);
+        for (int i = 0; i < temp.length; i++) {
+            if (temp[i] != null) {
+                temp[i].forEach((key, value) -> {
+                    int newHashed = getHashMod(key);
+                    if (this.chains[newHashed] == null) {
+                        this.chains[newHashed] = new ArrayDictionary<K, V>();
+                    }
+                    this.chains[newHashed].put(key, value);
+                });
             }
-            this.chains[getHashMod(key)].put(key, value);
         }
     }
 
     @Override
     public V remove(K key) {
-        if (!containsKey(key)) {
+        IDictionary<K, V> chain = this.chains[getHashMod(key)];
+        if (chain == null) {
             throw new NoSuchKeyException();
         }
+        V value = chain.remove(key);
         this.numPairs--;
-        return this.chains[getHashMod(key)].remove(key);
+        this.modCount++;
+        return value;
     }
 
     @Override
     public boolean containsKey(K key) {
-        if (this.chains[getHashMod(key)] != null) {
-            for (KVPair<K, V> pair : this.chains[getHashMod(key)]) {
-                if (pair.getKey() == key || (pair.getKey() != null && pair.getKey().equals(key))) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        IDictionary<K, V> chain = this.chains[getHashMod(key)];
+        return chain != null && chain.containsKey(key);
     }
 
     @Override
@@ -113,10 +147,40 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
         return this.numPairs;
     }
 
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        int expectedModCount = this.modCount;
+        for (IDictionary<K, V> chain : this.chains) {
+            if (chain != null) {
+                ArrayDictionary<K, V> pairs = (ArrayDictionary<K, V>) chain;
+                for (int i = 0; i < pairs.size(); i++) {
+                    action.accept(pairs.keyAt(i), pairs.valueAt(i));
+                    if (this.modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public Iterator<KVPair<K, V>> iterator() {
-        // Note: you do not need to change this method
-        return new ChainedIterator<>(this.chains);
+        return new ChainedIterator();
+    }
+
+    @Override
+    public Iterator<K> keyIterator() {
+        return new KeyIterator();
+    }
+
+    @Override
+    public Spliterator<KVPair<K, V>> spliterator() {
+        return new PairSpliterator(this.chains, 0, this.chains.length, this.numPairs, true);
+    }
+
+    @Override
+    public Spliterator<K> keySpliterator() {
+        return new KeySpliterator(this.chains, 0, this.chains.length, this.numPairs, true);
     }
     
     private int getHashMod(K key) {
@@ -173,51 +237,212 @@ public class ChainedHashDictionary<K, V> implements IDictionary<K, V> {
      * 2. You **MAY** call the `.iterator()` method on each IDictionary
      *    instance inside your 'chains' array, however.
      */
-    private static class ChainedIterator<K, V> implements Iterator<KVPair<K, V>> {
+    private abstract class BaseIterator {
+        // Invariants:
+        //
+        // - If there are pairs left, 'chainsIndex' is the index of a non-empty
+        //   chain and 'pairIndex' is a valid index into that chain. Otherwise
+        //   'chainsIndex' is chains.length.
+        // - 'chains' is the array the dictionary had when this iterator was
+        //   made; if the dictionary resizes, modCount tells us so.
         private IDictionary<K, V>[] chains;
         private int chainsIndex;
-        private Iterator<KVPair<K, V>> bucketIter;
+        private int pairIndex;
+        private int expectedModCount;
 
-        public ChainedIterator(IDictionary<K, V>[] chains) {
-            this.chains = chains;
-            for (int i = 0; i < this.chains.length; i++) {
-                if (this.chains[i] != null && this.chains[i].iterator().hasNext()) {
-                    this.chainsIndex = i;
-                    this.bucketIter = this.chains[this.chainsIndex].iterator();
-                    i = this.chains.length;
-                }                
+        // The pair most recently passed over by 'advance'
+        protected ArrayDictionary<K, V> currentChain;
+        protected int currentIndex;
+
+        public BaseIterator() {
+            this.chains = ChainedHashDictionary.this.chains;
+            this.chainsIndex = -1;
+            this.pairIndex = 0;
+            this.expectedModCount = ChainedHashDictionary.this.modCount;
+            this.advanceChain();
+        }
+
+        private void advanceChain() {
+            this.chainsIndex++;
+            while (this.chainsIndex < this.chains.length
+                    && (this.chains[this.chainsIndex] == null || this.chains[this.chainsIndex].isEmpty())) {
+                this.chainsIndex++;
+            }
+            this.pairIndex = 0;
+        }
+
+        public boolean hasNext() {
+            return this.chainsIndex < this.chains.length;
+        }
+
+        /**
+         * Moves the cursor forward one pair, leaving that pair in 'currentChain'
+         * at 'currentIndex'.
+         *
+         * @throws ConcurrentModificationException  if the dictionary changed since
+         *                                          this iterator was created
+         * @throws NoSuchElementException  if there are no pairs left
+         */
+        protected void advance() {
+            if (ChainedHashDictionary.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
+            this.currentChain = (ArrayDictionary<K, V>) this.chains[this.chainsIndex];
+            this.currentIndex = this.pairIndex;
+            this.pairIndex++;
+            if (this.pairIndex >= this.currentChain.size()) {
+                this.advanceChain();
+            }
+        }
+    }
+
+    private class ChainedIterator extends BaseIterator implements Iterator<KVPair<K, V>> {
+        @Override
+        public KVPair<K, V> next() {
+            this.advance();
+            return new KVPair<K, V>(this.currentChain.keyAt(this.currentIndex),
+                    this.currentChain.valueAt(this.currentIndex));
         }
+    }
 
+    private class KeyIterator extends BaseIterator implements Iterator<K> {
         @Override
-        public boolean hasNext() {     
-            if (this.bucketIter == null || !this.bucketIter.hasNext()) {
-                for (int i = this.chainsIndex + 1; i < this.chains.length; i++) {
-                    if (this.chains[i] != null && this.chains[i].iterator().hasNext()) {
-                        return true;
+        public K next() {
+            this.advance();
+            return this.currentChain.keyAt(this.currentIndex);
+        }
+    }
+
+    /**
+     * Walks the chains from 'chainsIndex' up to (but not including) 'fence'.
+     * Splitting hands the upper half of that range to a new spliterator, so
+     * each half can be walked on its own thread.
+     *
+     * Only an unsplit spliterator knows exactly how many pairs it covers; after
+     * a split, both halves just guess that they got half each.
+     */
+    private abstract class ChainedSpliterator<T> implements Spliterator<T> {
+        private IDictionary<K, V>[] chains;
+        private int chainsIndex;
+        private int pairIndex;
+        private int fence;
+        private long estimate;
+        private boolean exact;
+        private int expectedModCount;
+
+        public ChainedSpliterator(IDictionary<K, V>[] chains, int from, int to, long estimate, boolean exact) {
+            this.chains = chains;
+            this.chainsIndex = from;
+            this.pairIndex = 0;
+            this.fence = to;
+            this.estimate = estimate;
+            this.exact = exact;
+            this.expectedModCount = ChainedHashDictionary.this.modCount;
+        }
+
+        protected abstract T item(ArrayDictionary<K, V> chain, int index);
+
+        protected abstract Spliterator<T> makeSplit(IDictionary<K, V>[] chains, int from, int to, long estimate);
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (this.chainsIndex < this.fence) {
+                ArrayDictionary<K, V> chain = (ArrayDictionary<K, V>) this.chains[this.chainsIndex];
+                if (chain != null && this.pairIndex < chain.size()) {
+                    T next = this.item(chain, this.pairIndex);
+                    this.pairIndex++;
+                    if (this.exact) {
+                        this.estimate--;
                     }
+                    action.accept(next);
+                    this.checkForModification();
+                    return true;
                 }
-                return false;
+                this.chainsIndex++;
+                this.pairIndex = 0;
             }
-            return true;
+            return false;
         }
 
         @Override
-        public KVPair<K, V> next() {
-            if (!hasNext()) {
-                throw new NoSuchElementException();
-            }
-            if (!this.bucketIter.hasNext()) {
-                for (int i = this.chainsIndex + 1; i < this.chains.length; i++) {
-                    if (this.chains[i] != null && this.chains[i].iterator().hasNext()) {
-                        this.chainsIndex = i;
-                        i = this.chains.length;
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (; this.chainsIndex < this.fence; this.chainsIndex++) {
+                ArrayDictionary<K, V> chain = (ArrayDictionary<K, V>) this.chains[this.chainsIndex];
+                if (chain != null) {
+                    for (; this.pairIndex < chain.size(); this.pairIndex++) {
+                        action.accept(this.item(chain, this.pairIndex));
                     }
                 }
-                this.bucketIter = this.chains[this.chainsIndex].iterator();
+                this.pairIndex = 0;
+            }
+            this.estimate = 0;
+            this.checkForModification();
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            // Don't split off the chain we're partway through.
+            int from = this.pairIndex == 0 ? this.chainsIndex : this.chainsIndex + 1;
+            int middle = (from + this.fence) >>> 1;
+            if (middle <= from) {
+                return null;
             }
-            return this.bucketIter.next();
-            
+            this.estimate >>>= 1;
+            this.exact = false;
+            Spliterator<T> upper = this.makeSplit(this.chains, middle, this.fence, this.estimate);
+            this.fence = middle;
+            return upper;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | (this.exact ? Spliterator.SIZED : 0);
+        }
+
+        private void checkForModification() {
+            if (ChainedHashDictionary.this.modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    private class PairSpliterator extends ChainedSpliterator<KVPair<K, V>> {
+        public PairSpliterator(IDictionary<K, V>[] chains, int from, int to, long estimate, boolean exact) {
+            super(chains, from, to, estimate, exact);
+        }
+
+        @Override
+        protected KVPair<K, V> item(ArrayDictionary<K, V> chain, int index) {
+            return new KVPair<K, V>(chain.keyAt(index), chain.valueAt(index));
+        }
+
+        @Override
+        protected Spliterator<KVPair<K, V>> makeSplit(IDictionary<K, V>[] chains, int from, int to, long estimate) {
+            return new PairSpliterator(chains, from, to, estimate, false);
+        }
+    }
+
+    private class KeySpliterator extends ChainedSpliterator<K> {
+        public KeySpliterator(IDictionary<K, V>[] chains, int from, int to, long estimate, boolean exact) {
+            super(chains, from, to, estimate, exact);
+        }
+
+        @Override
+        protected K item(ArrayDictionary<K, V> chain, int index) {
+            return chain.keyAt(index);
+        }
+
+        @Override
+        protected Spliterator<K> makeSplit(IDictionary<K, V>[] chains, int from, int to, long estimate) {
+            return new KeySpliterator(chains, from, to, estimate, false);
         }
     }
 }
@@ -0,0 +1,151 @@
+package datastructures.concrete.dictionaries;
+
+import misc.exceptions.NoSuchKeyException;
+
+/**
+ * A map from objects to primitive ints, using open addressing with linear probing.
+ *
+ * This does the same job as an IDictionary<K, Integer>, but stores the values in
+ * a plain int[] so nothing gets boxed, and keeps the keys in one flat array
+ * instead of a chain per bucket. It's meant for assigning ids to objects, so
+ * entries can be added and updated but not removed.
+ */
+public class ObjectIntMap<K> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] keys;
+    private int[] values;
+    private int size;
+
+    // Null can't go in 'keys' since null marks an empty slot, so it lives here.
+    private boolean hasNullKey;
+    private int nullValue;
+
+    public ObjectIntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map with room for 'expectedSize' entries before it needs to resize.
+     *
+     * @throws IllegalArgumentException  if expectedSize is negative
+     */
+    public ObjectIntMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Size cannot be negative: " + expectedSize);
+        }
+        // Keep the table at most half full so probe sequences stay short.
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < 2 * expectedSize) {
+            capacity *= 2;
+        }
+        this.keys = new Object[capacity];
+        this.values = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Returns the value for the given key.
+     *
+     * @throws NoSuchKeyException  if the map does not contain the given key
+     */
+    public int get(K key) {
+        if (key == null) {
+            if (!this.hasNullKey) {
+                throw new NoSuchKeyException();
+            }
+            return this.nullValue;
+        }
+        int slot = this.findSlot(key);
+        if (this.keys[slot] == null) {
+            throw new NoSuchKeyException();
+        }
+        return this.values[slot];
+    }
+
+    /**
+     * Returns the value for the given key, or 'defaultValue' if there is none.
+     */
+    public int getOrDefault(K key, int defaultValue) {
+        if (key == null) {
+            return this.hasNullKey ? this.nullValue : defaultValue;
+        }
+        int slot = this.findSlot(key);
+        return this.keys[slot] == null ? defaultValue : this.values[slot];
+    }
+
+    /**
+     * Maps the given key to the given value, replacing any old value.
+     */
+    public void put(K key, int value) {
+        if (key == null) {
+            if (!this.hasNullKey) {
+                this.hasNullKey = true;
+                this.size++;
+            }
+            this.nullValue = value;
+            return;
+        }
+        int slot = this.findSlot(key);
+        if (this.keys[slot] == null) {
+            this.keys[slot] = key;
+            this.size++;
+            if (2 * this.size > this.keys.length) {
+                this.values[slot] = value;
+                this.resize();
+                return;
+            }
+        }
+        this.values[slot] = value;
+    }
+
+    public boolean containsKey(K key) {
+        if (key == null) {
+            return this.hasNullKey;
+        }
+        return this.keys[this.findSlot(key)] != null;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the slot holding the given key, or the empty slot where it would go.
+     */
+    private int findSlot(Object key) {
+        int mask = this.keys.length - 1;
+        int slot = spread(key.hashCode()) & mask;
+        while (this.keys[slot] != null && !this.keys[slot].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        Object[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        this.keys = new Object[oldKeys.length * 2];
+        this.values = new int[oldValues.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = this.findSlot(oldKeys[i]);
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Mixes the bits of a hash code, since linear probing behaves badly when
+     * many keys have hash codes that differ only in their high bits.
+     */
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,264 @@
+package datastructures.concrete.dictionaries;
+
+import datastructures.concrete.KVPair;
+import datastructures.interfaces.IDictionary;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * A dictionary that many threads can use at once.
+ *
+ * Keys are divided between a fixed number of stripes, each of which is a
+ * ChainedHashDictionary with its own lock. Threads working with keys in
+ * different stripes never wait on each other, and each stripe resizes on its
+ * own without blocking the others. Lookups only take a read lock, so any
+ * number of threads can read the same stripe at once.
+ *
+ * Iteration is weakly consistent: the iterator never throws a
+ * ConcurrentModificationException, and sees every pair that was present for
+ * the whole time it was running, but may or may not see pairs added or removed
+ * partway through.
+ */
+public class StripedHashDictionary<K, V> implements IDictionary<K, V> {
+    private static final int DEFAULT_STRIPES = 16;
+
+    private Stripe<K, V>[] stripes;
+    private int stripeShift;
+    private AtomicInteger size;
+
+    public StripedHashDictionary() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a dictionary with at least the given number of stripes. More stripes
+     * let more threads write at once, at the cost of a little memory.
+     *
+     * @throws IllegalArgumentException  if numStripes is not positive
+     */
+    public StripedHashDictionary(int numStripes) {
+        if (numStripes <= 0) {
+            throw new IllegalArgumentException("Number of stripes must be positive: " + numStripes);
+        }
+        int bits = 32 - Integer.numberOfLeadingZeros(numStripes - 1);
+        this.stripes = makeArrayOfStripes(1 << bits);
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe<>();
+        }
+        this.stripeShift = 32 - bits;
+        this.size = new AtomicInteger(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Stripe<K, V>[] makeArrayOfStripes(int size) {
+        return (Stripe<K, V>[]) new Stripe[size];
+    }
+
+    @Override
+    public V get(K key) {
+        Stripe<K, V> stripe = this.stripeFor(key);
+        stripe.lock.readLock().lock();
+        try {
+            return stripe.pairs.get(key);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        Stripe<K, V> stripe = this.stripeFor(key);
+        stripe.lock.readLock().lock();
+        try {
+            return stripe.pairs.getOrDefault(key, defaultValue);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Stripe<K, V> stripe = this.stripeFor(key);
+        stripe.lock.writeLock().lock();
+        try {
+            int oldSize = stripe.pairs.size();
+            stripe.pairs.put(key, value);
+            if (stripe.pairs.size() != oldSize) {
+                this.size.incrementAndGet();
+            }
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Stripe<K, V> stripe = this.stripeFor(key);
+        stripe.lock.writeLock().lock();
+        try {
+            if (stripe.pairs.containsKey(key)) {
+                return stripe.pairs.get(key);
+            }
+            stripe.pairs.put(key, value);
+            this.size.incrementAndGet();
+            return null;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Does the same thing as IDictionary.computeIfAbsent, but atomically: if several
+     * threads race to add the same key, 'mappingFunction' runs for only one of them
+     * and the rest get its result.
+     *
+     * The function runs while the key's stripe is locked, so it should be quick,
+     * and must not use this dictionary itself.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Stripe<K, V> stripe = this.stripeFor(key);
+
+        // Most calls find the key is already there, so try that under the read lock first.
+        stripe.lock.readLock().lock();
+        try {
+            if (stripe.pairs.containsKey(key)) {
+                return stripe.pairs.get(key);
+            }
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+
+        stripe.lock.writeLock().lock();
+        try {
+            if (stripe.pairs.containsKey(key)) {
+                return stripe.pairs.get(key);
+            }
+            V value = mappingFunction.apply(key);
+            if (value != null) {
+                stripe.pairs.put(key, value);
+                this.size.incrementAndGet();
+            }
+            return value;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        Stripe<K, V> stripe = this.stripeFor(key);
+        stripe.lock.writeLock().lock();
+        try {
+            V value = stripe.pairs.remove(key);
+            this.size.decrementAndGet();
+            return value;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        Stripe<K, V> stripe = this.stripeFor(key);
+        stripe.lock.readLock().lock();
+        try {
+            return stripe.pairs.containsKey(key);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of pairs in this dictionary. If other threads are adding or
+     * removing keys at the same time, this may be out of date by the time it returns.
+     */
+    @Override
+    public int size() {
+        return this.size.get();
+    }
+
+    @Override
+    public Iterator<KVPair<K, V>> iterator() {
+        return new StripedIterator<>(this.stripes);
+    }
+
+    private Stripe<K, V> stripeFor(K key) {
+        // Pick the stripe using the top bits of the mixed hash, since each stripe's
+        // own ChainedHashDictionary already uses the bottom ones.
+        int hash = key == null ? 0 : key.hashCode() * 0x9E3779B9;
+        return this.stripes[this.stripeShift == 32 ? 0 : hash >>> this.stripeShift];
+    }
+
+    private static class Stripe<K, V> {
+        public final ReadWriteLock lock = new ReentrantReadWriteLock();
+        public final IDictionary<K, V> pairs = new ChainedHashDictionary<>();
+    }
+
+    /**
+     * Copies out one stripe at a time, under that stripe's read lock, and hands out
+     * pairs from the copy. Only a single stripe is ever copied at once.
+     */
+    private static class StripedIterator<K, V> implements Iterator<KVPair<K, V>> {
+        private Stripe<K, V>[] stripes;
+        private int stripeIndex;
+        private KVPair<K, V>[] current;
+        private int currentIndex;
+        private int currentSize;
+
+        public StripedIterator(Stripe<K, V>[] stripes) {
+            this.stripes = stripes;
+            this.stripeIndex = 0;
+            this.current = makeArrayOfPairs(0);
+            this.currentIndex = 0;
+            this.currentSize = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <K, V> KVPair<K, V>[] makeArrayOfPairs(int size) {
+            return (KVPair<K, V>[]) new KVPair[size];
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.currentIndex >= this.currentSize && this.stripeIndex < this.stripes.length) {
+                this.copyStripe(this.stripes[this.stripeIndex]);
+                this.stripeIndex++;
+            }
+            return this.currentIndex < this.currentSize;
+        }
+
+        @Override
+        public KVPair<K, V> next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            KVPair<K, V> pair = this.current[this.currentIndex];
+            this.current[this.currentIndex] = null;
+            this.currentIndex++;
+            return pair;
+        }
+
+        private void copyStripe(Stripe<K, V> stripe) {
+            stripe.lock.readLock().lock();
+            try {
+                if (this.current.length < stripe.pairs.size()) {
+                    this.current = makeArrayOfPairs(stripe.pairs.size());
+                }
+                this.currentSize = 0;
+                for (KVPair<K, V> pair : stripe.pairs) {
+                    this.current[this.currentSize] = pair;
+                    this.currentSize++;
+                }
+                this.currentIndex = 0;
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+    }
+}
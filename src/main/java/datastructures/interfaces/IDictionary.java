@@ -4,6 +4,12 @@ import datastructures.concrete.KVPair;
 import misc.exceptions.NoSuchKeyException;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a data structure that contains a bunch of key-value mappings. Each key must be unique.
@@ -39,6 +45,42 @@ public interface IDictionary<K, V> extends Iterable<KVPair<K, V>> {
      */
     public void put(K key, V value);
 
+    /**
+     * Adds the key-value pair only if the key is not already in the dictionary.
+     *
+     * Returns the value already stored for the key, or null if there was none (and
+     * so the given value was added).
+     *
+     * Note: The default implementation is not atomic. Dictionaries meant to be
+     *       shared between threads should override it so two threads can't both
+     *       decide the key is missing.
+     */
+    public default V putIfAbsent(K key, V value) {
+        if (this.containsKey(key)) {
+            return this.get(key);
+        }
+        this.put(key, value);
+        return null;
+    }
+
+    /**
+     * Returns the value for the given key. If there isn't one yet, calls
+     * 'mappingFunction' on the key, stores the result (unless it is null), and
+     * returns it.
+     *
+     * Note: Like putIfAbsent, the default implementation is not atomic.
+     */
+    public default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (this.containsKey(key)) {
+            return this.get(key);
+        }
+        V value = mappingFunction.apply(key);
+        if (value != null) {
+            this.put(key, value);
+        }
+        return value;
+    }
+
     /**
      * Remove the key-value pair corresponding to the given key from the dictionary.
      *
@@ -65,6 +107,85 @@ public interface IDictionary<K, V> extends Iterable<KVPair<K, V>> {
 
     /**
      * Returns a list of all key-value pairs contained within this dict.
+     *
+     * Implementations should throw a ConcurrentModificationException from 'next'
+     * if a key was added or removed since the iterator was created.
      */
     public Iterator<KVPair<K, V>> iterator();
+
+    /**
+     * Returns an iterator over just the keys of this dictionary, in the same
+     * order 'iterator' visits the pairs.
+     *
+     * Note: The interface provides a default implementation, but implementations
+     *       may override it with one that doesn't create a KVPair for every key.
+     */
+    public default Iterator<K> keyIterator() {
+        Iterator<KVPair<K, V>> pairs = this.iterator();
+        return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+                return pairs.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return pairs.next().getKey();
+            }
+        };
+    }
+
+    /**
+     * Calls the given action once on every key and value in this dictionary.
+     *
+     * The action must not add or remove keys. Implementations should throw a
+     * ConcurrentModificationException if it does.
+     *
+     * Note: The interface provides a default implementation, but implementations
+     *       may override it with one that doesn't create a KVPair for every key.
+     */
+    public default void forEach(BiConsumer<? super K, ? super V> action) {
+        for (KVPair<K, V> pair : this) {
+            action.accept(pair.getKey(), pair.getValue());
+        }
+    }
+
+    /**
+     * Returns a Spliterator over the key-value pairs in this dictionary.
+     *
+     * Note: The interface provides a default implementation, but it can only hand
+     *       out pairs one at a time from 'iterator', so parallel streams get little
+     *       out of it. Implementations should override it if they can split their
+     *       pairs into independent ranges.
+     */
+    @Override
+    public default Spliterator<KVPair<K, V>> spliterator() {
+        return Spliterators.spliterator(this.iterator(), this.size(), Spliterator.DISTINCT);
+    }
+
+    /**
+     * Returns a sequential stream over the key-value pairs in this dictionary.
+     */
+    public default Stream<KVPair<K, V>> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel stream over the key-value pairs in this dictionary.
+     *
+     * The dictionary must not be modified while the stream is in use.
+     */
+    public default Stream<KVPair<K, V>> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    /**
+     * Returns a Spliterator over just the keys of this dictionary.
+     *
+     * Note: The interface provides a default implementation that wraps 'keyIterator',
+     *       but implementations may override it with one that splits better.
+     */
+    public default Spliterator<K> keySpliterator() {
+        return Spliterators.spliterator(this.keyIterator(), this.size(), Spliterator.DISTINCT);
+    }
 }
@@ -3,6 +3,10 @@ package datastructures.interfaces;
 import misc.exceptions.EmptyContainerException;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a data structure that contains an ordered and indexable sequence of elements.
@@ -80,4 +84,32 @@ public interface IList<T> extends Iterable<T> {
      * Returns an iterator over the contents of this list.
      */
     public Iterator<T> iterator();
+
+    /**
+     * Returns a Spliterator over the contents of this list, in order.
+     *
+     * Note: The interface provides a default implementation built on 'iterator'.
+     *       Lists that support fast 'get' should override it with one that splits
+     *       by index, so parallel streams can actually divide up the work.
+     */
+    @Override
+    public default Spliterator<T> spliterator() {
+        return Spliterators.spliterator(this.iterator(), this.size(), Spliterator.ORDERED);
+    }
+
+    /**
+     * Returns a sequential stream over the contents of this list, in order.
+     */
+    public default Stream<T> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel stream over the contents of this list, in order.
+     *
+     * The list must not be modified while the stream is in use.
+     */
+    public default Stream<T> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
 }
@@ -1,7 +1,14 @@
 package datastructures.interfaces;
 
+import datastructures.concrete.ArrayBackedList;
+import datastructures.concrete.ChainedHashSet;
+
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a data structure that contains a unique collection of items.
@@ -42,4 +49,99 @@ public interface ISet<T> extends Iterable<T> {
      * Returns all items contained within this set.
      */
     public Iterator<T> iterator();
+
+    /**
+     * Adds every item in the given set to this one.
+     */
+    public default void addAll(ISet<? extends T> other) {
+        other.forEach(this::add);
+    }
+
+    /**
+     * Removes every item in the given set from this one. Items in 'other' that
+     * aren't in this set are ignored.
+     */
+    public default void removeAll(ISet<T> other) {
+        if (other.size() < this.size()) {
+            for (T item : other) {
+                if (this.contains(item)) {
+                    this.remove(item);
+                }
+            }
+        } else {
+            // We can't remove items while iterating over them, so gather them first.
+            IList<T> doomed = new ArrayBackedList<>();
+            for (T item : this) {
+                if (other.contains(item)) {
+                    doomed.add(item);
+                }
+            }
+            doomed.forEach(this::remove);
+        }
+    }
+
+    /**
+     * Removes every item from this set that is not also in the given one.
+     */
+    public default void retainAll(ISet<T> other) {
+        IList<T> doomed = new ArrayBackedList<>();
+        for (T item : this) {
+            if (!other.contains(item)) {
+                doomed.add(item);
+            }
+        }
+        doomed.forEach(this::remove);
+    }
+
+    /**
+     * Returns a new set holding every item in this set that is not in the given one.
+     * Neither set is changed.
+     */
+    public default ISet<T> difference(ISet<T> other) {
+        ISet<T> output = new ChainedHashSet<>(this.size());
+        for (T item : this) {
+            if (!other.contains(item)) {
+                output.add(item);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Returns a new set holding every item in either this set or the given one.
+     * Neither set is changed.
+     */
+    public default ISet<T> union(ISet<? extends T> other) {
+        ISet<T> output = new ChainedHashSet<>(this.size() + other.size());
+        output.addAll(this);
+        output.addAll(other);
+        return output;
+    }
+
+    /**
+     * Returns a Spliterator over the items in this set.
+     *
+     * Note: The interface provides a default implementation built on 'iterator',
+     *       which knows the set's size but splits poorly.
+     */
+    @Override
+    public default Spliterator<T> spliterator() {
+        return Spliterators.spliterator(this.iterator(), this.size(), Spliterator.DISTINCT);
+    }
+
+    /**
+     * Returns a sequential stream over the items in this set.
+     */
+    public default Stream<T> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel stream over the items in this set.
+     *
+     * The set must not be modified while the stream is in use.
+     */
+    public default Stream<T> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
 }
@@ -0,0 +1,440 @@
+package mazes.cli;
+
+import datastructures.concrete.DoubleLinkedList;
+import datastructures.interfaces.IList;
+import datastructures.interfaces.ISet;
+import mazes.entities.Maze;
+import mazes.entities.Room;
+import mazes.entities.Wall;
+import mazes.generators.base.BaseMazeGenerator;
+import mazes.generators.base.GridGenerator;
+import mazes.generators.base.VoronoiGenerator;
+import mazes.generators.batch.GeneratedMaze;
+import mazes.generators.batch.GenerationMetrics;
+import mazes.generators.batch.MazeGenerationService;
+import mazes.generators.batch.MazeJob;
+import mazes.generators.maze.KruskalMazeCarver;
+import mazes.generators.maze.MazeCarver;
+import mazes.generators.maze.RandomMazeCarver;
+import mazes.io.MazeFileWriter;
+import mazes.io.PngMazeExporter;
+import mazes.io.SvgMazeExporter;
+import misc.graphs.Graph;
+
+import java.awt.*;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+/**
+ * A headless entry point that generates, carves, solves, and optionally exports
+ * a batch of mazes without ever touching Swing.
+ *
+ * Example:
+ *
+ *     java mazes.cli.MazeBatchRunner --generator voronoi:5000 --carver kruskal \
+ *         --seed 42 --count 100 --threads 8 --format png --output out/
+ *
+ * Every maze is built from its own seed (the base seed plus the maze's index),
+ * so a batch is reproducible no matter how many threads are used. Mazes are
+ * generated by a MazeGenerationService, and solved and exported on its worker
+ * threads as they finish, so results are printed in completion order.
+ */
+public class MazeBatchRunner {
+    private static final String USAGE = String.join("\n",
+            "Usage: MazeBatchRunner [options]",
+            "  --generator grid:ROWSxCOLS | voronoi:ROOMS[,SAMPLES,MIN_WALL,MIN_SPACE]   (default grid:40x40)",
+            "  --carver kruskal | random:KEEP_PROBABILITY | none                          (default kruskal)",
+            "  --seed N            base random seed                                        (default: current time)",
+            "  --count N           number of mazes to generate                             (default 1)",
+            "  --threads N         size of the worker pool                                 (default: #cpus)",
+            "  --format none | maze | svg | png                                            (default none)",
+            "  --output DIR        directory to write exported mazes to                    (default .)",
+            "  --size WxH          canvas size, in pixels                                  (default 800x600)",
+            "  --padding N         space between the canvas and the maze                   (default 5)",
+            "  --scale X           scale factor for svg/png output                         (default 1.0)",
+            "  --no-solve          skip finding the shortest path");
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int status = execute(args);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Parses the arguments and runs the batch, like 'main', but returns the exit
+     * status instead of exiting: 0 on success, 1 if the batch could not be run or
+     * any maze in it failed, and 2 if the arguments are malformed.
+     */
+    public static int execute(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        try {
+            long failed = new MazeBatchRunner(options).run();
+            return failed == 0 ? 0 : 1;
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            return 1;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    private Options options;
+    private JobResult totals;
+
+    public MazeBatchRunner(Options options) {
+        this.options = options;
+        this.totals = new JobResult(-1);
+    }
+
+    /**
+     * Runs every job in the batch and prints a line of timings per maze as each
+     * one finishes, followed by totals.
+     *
+     * Returns the number of mazes that failed to generate, solve, or export.
+     */
+    public long run() throws IOException, InterruptedException {
+        File outputDir = new File(this.options.outputDir);
+        if (!"none".equals(this.options.format) && !outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("Could not create output directory " + outputDir);
+        }
+
+        Rectangle bound = new Rectangle(
+                this.options.padding,
+                this.options.padding,
+                this.options.width - 2 * this.options.padding,
+                this.options.height - 2 * this.options.padding);
+
+        MazeGenerationService service = new MazeGenerationService(
+                this.options.threads,
+                2 * this.options.threads,
+                this::finishJob);
+        try {
+            for (int i = 0; i < this.options.count; i++) {
+                Random rand = new Random(this.options.seed + i);
+                service.submit(new MazeJob(
+                        i, this.options.makeGenerator(rand), this.options.makeCarver(rand), bound));
+            }
+            service.shutdownAndWait();
+        } finally {
+            service.shutdownNow();
+        }
+
+        GenerationMetrics metrics = service.getMetrics();
+        System.out.printf(
+                "total: mazes=%d failed=%d unsolvable=%d generate=%.1fms carve=%.1fms solve=%.1fms export=%.1fms%n",
+                metrics.getCompleted(),
+                metrics.getFailed(),
+                this.totals.unsolvable,
+                this.totals.generateNanos / 1e6,
+                this.totals.carveNanos / 1e6,
+                this.totals.solveNanos / 1e6,
+                this.totals.exportNanos / 1e6);
+        System.out.println("service: " + metrics);
+        return metrics.getFailed();
+    }
+
+    /**
+     * Solves and exports a freshly generated maze. Runs on the service's worker threads.
+     */
+    private void finishJob(GeneratedMaze generated) {
+        int index = (int) generated.getJob().getId();
+        Rectangle bound = generated.getJob().getBoundingBox();
+        Maze baseMaze = generated.getBaseMaze();
+        ISet<Wall> removed = generated.getRemovedWalls();
+        Maze maze = generated.getMaze();
+
+        JobResult result = new JobResult(index);
+        result.generateNanos = generated.getGenerateNanos();
+        result.carveNanos = generated.getCarveNanos();
+        result.rooms = baseMaze.getRooms().size();
+        result.walls = maze.getWalls().size();
+
+        IList<Wall> path = new DoubleLinkedList<>();
+        if (this.options.solve) {
+            long start = System.nanoTime();
+            Room startRoom = maze.getRoom(new Point(bound.x + 5, bound.y + 5));
+            Room endRoom = maze.getRoom(new Point(bound.x + bound.width - 5, bound.y + bound.height - 5));
+            Graph<Room, Wall> graph = new Graph<>(baseMaze.getRooms(), removed);
+            // findShortestPathBetween would reject an unsolvable maze just as quickly,
+            // but checking first means we don't have to catch NoPathExistsException.
+            if (startRoom != null && endRoom != null && graph.isConnected(startRoom, endRoom)) {
+                path = graph.findShortestPathBetween(startRoom, endRoom);
+                result.pathLength = path.size();
+            } else {
+                result.unsolvable = 1;
+            }
+            result.solveNanos = System.nanoTime() - start;
+        }
+
+        if (!"none".equals(this.options.format)) {
+            long start = System.nanoTime();
+            File file = new File(this.options.outputDir, String.format("maze-%05d.%s", index, this.options.format));
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+                this.export(baseMaze, removed, maze, path, out);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            result.exportNanos = System.nanoTime() - start;
+        }
+
+        System.out.println(result);
+        synchronized (this.totals) {
+            this.totals.add(result);
+        }
+    }
+
+    private void export(Maze baseMaze, ISet<Wall> removed, Maze maze, IList<Wall> path, OutputStream out)
+            throws IOException {
+        switch (this.options.format) {
+            case "maze":
+                MazeFileWriter.write(out, baseMaze, removed);
+                break;
+            case "svg":
+                new SvgMazeExporter(this.options.width, this.options.height, this.options.padding, this.options.scale)
+                        .export(maze, path, out);
+                break;
+            default:
+                new PngMazeExporter(
+                        this.options.width, this.options.height, this.options.padding, this.options.scale, 256)
+                        .export(maze, path, out);
+                break;
+        }
+    }
+
+    /**
+     * Timings (in nanoseconds) and statistics for a single maze.
+     */
+    private static class JobResult {
+        public int index;
+        public int rooms;
+        public int walls;
+        public int pathLength;
+        public int unsolvable;
+        public long generateNanos;
+        public long carveNanos;
+        public long solveNanos;
+        public long exportNanos;
+
+        public JobResult(int index) {
+            this.index = index;
+        }
+
+        public void add(JobResult other) {
+            this.unsolvable += other.unsolvable;
+            this.generateNanos += other.generateNanos;
+            this.carveNanos += other.carveNanos;
+            this.solveNanos += other.solveNanos;
+            this.exportNanos += other.exportNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "maze %d: rooms=%d walls=%d path=%s generate=%.1fms carve=%.1fms solve=%.1fms export=%.1fms",
+                    this.index,
+                    this.rooms,
+                    this.walls,
+                    this.unsolvable == 1 ? "none" : Integer.toString(this.pathLength),
+                    this.generateNanos / 1e6,
+                    this.carveNanos / 1e6,
+                    this.solveNanos / 1e6,
+                    this.exportNanos / 1e6);
+        }
+    }
+
+    /**
+     * The parsed command line.
+     */
+    public static class Options {
+        private String generator = "grid:40x40";
+        private String carver = "kruskal";
+        private long seed = System.currentTimeMillis();
+        private int count = 1;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private String format = "none";
+        private String outputDir = ".";
+        private int width = 800;
+        private int height = 600;
+        private int padding = 5;
+        private double scale = 1.0;
+        private boolean solve = true;
+
+        /**
+         * @throws IllegalArgumentException  if the arguments are malformed
+         */
+        public static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String flag = args[i];
+                if ("--no-solve".equals(flag)) {
+                    options.solve = false;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + flag);
+                }
+                String value = args[++i];
+                try {
+                    switch (flag) {
+                        case "--generator":
+                            options.generator = value;
+                            break;
+                        case "--carver":
+                            options.carver = value;
+                            break;
+                        case "--seed":
+                            options.seed = Long.parseLong(value);
+                            break;
+                        case "--count":
+                            options.count = Integer.parseInt(value);
+                            break;
+                        case "--threads":
+                            options.threads = Integer.parseInt(value);
+                            break;
+                        case "--format":
+                            options.format = value;
+                            break;
+                        case "--output":
+                            options.outputDir = value;
+                            break;
+                        case "--size":
+                            String[] size = value.split("x");
+                            options.width = Integer.parseInt(size[0]);
+                            options.height = Integer.parseInt(size[1]);
+                            break;
+                        case "--padding":
+                            options.padding = Integer.parseInt(value);
+                            break;
+                        case "--scale":
+                            options.scale = Double.parseDouble(value);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Unknown option " + flag);
+                    }
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
+                    throw new IllegalArgumentException("Malformed value for " + flag + ": " + value);
+                }
+            }
+
+            if (options.count < 0 || options.threads <= 0) {
+                throw new IllegalArgumentException("--count must be non-negative and --threads positive");
+            }
+            if (!"none".equals(options.format) && !"maze".equals(options.format)
+                    && !"svg".equals(options.format) && !"png".equals(options.format)) {
+                throw new IllegalArgumentException("Unknown format " + options.format);
+            }
+
+            // Fail now, rather then once per job, if the generator or carver is malformed
+            options.makeGenerator(new Random());
+            options.makeCarver(new Random());
+            return options;
+        }
+
+        public String getGenerator() {
+            return this.generator;
+        }
+
+        public String getCarver() {
+            return this.carver;
+        }
+
+        public long getSeed() {
+            return this.seed;
+        }
+
+        public int getCount() {
+            return this.count;
+        }
+
+        public int getThreads() {
+            return this.threads;
+        }
+
+        public String getFormat() {
+            return this.format;
+        }
+
+        public String getOutputDir() {
+            return this.outputDir;
+        }
+
+        public int getWidth() {
+            return this.width;
+        }
+
+        public int getHeight() {
+            return this.height;
+        }
+
+        public int getPadding() {
+            return this.padding;
+        }
+
+        public double getScale() {
+            return this.scale;
+        }
+
+        public boolean shouldSolve() {
+            return this.solve;
+        }
+
+        /**
+         * @throws IllegalArgumentException  if the generator description is malformed
+         */
+        public BaseMazeGenerator makeGenerator(Random rand) {
+            String[] parts = this.generator.split(":", 2);
+            try {
+                if ("grid".equals(parts[0]) && parts.length == 2) {
+                    String[] dims = parts[1].split("x");
+                    return new GridGenerator(Integer.parseInt(dims[0]), Integer.parseInt(dims[1]));
+                } else if ("voronoi".equals(parts[0]) && parts.length == 2) {
+                    String[] params = parts[1].split(",");
+                    return new VoronoiGenerator(
+                            Integer.parseInt(params[0]),
+                            params.length > 1 ? Integer.parseInt(params[1]) : 10,
+                            params.length > 2 ? Integer.parseInt(params[2]) : 10,
+                            params.length > 3 ? Integer.parseInt(params[3]) : 5,
+                            rand);
+                }
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
+                // Fall through
+            }
+            throw new IllegalArgumentException("Malformed generator: " + this.generator);
+        }
+
+        /**
+         * @throws IllegalArgumentException  if the carver description is malformed
+         */
+        public MazeCarver makeCarver(Random rand) {
+            String[] parts = this.carver.split(":", 2);
+            try {
+                if ("kruskal".equals(parts[0])) {
+                    return new KruskalMazeCarver(rand);
+                } else if ("none".equals(parts[0])) {
+                    return new RandomMazeCarver(1.0, rand);
+                } else if ("random".equals(parts[0]) && parts.length == 2) {
+                    return new RandomMazeCarver(Double.parseDouble(parts[1]), rand);
+                }
+            } catch (NumberFormatException ex) {
+                // Fall through
+            }
+            throw new IllegalArgumentException("Malformed carver: " + this.carver);
+        }
+    }
+}
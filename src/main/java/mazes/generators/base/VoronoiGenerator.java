@@ -27,6 +27,7 @@ public class VoronoiGenerator extends BaseMazeGenerator {
     private int sampleRate;
     private int minimumWallLength;
     private int minimumSpaceFromBoundingBox;
+    private Random rand;
 
     /**
      * @param numRooms  the number of rooms the graph should contain
@@ -35,10 +36,20 @@ public class VoronoiGenerator extends BaseMazeGenerator {
      * @param minimumSpaceFromBoundingBox  how far away the center of the room should be from the bounding box
      */
     public VoronoiGenerator(int numRooms, int sampleRate, int minimumWallLength, int minimumSpaceFromBoundingBox) {
+        this(numRooms, sampleRate, minimumWallLength, minimumSpaceFromBoundingBox, new Random());
+    }
+
+    /**
+     * Same as above, but places rooms using the given source of randomness. Pass
+     * in a seeded Random to make the generated mazes reproducible.
+     */
+    public VoronoiGenerator(int numRooms, int sampleRate, int minimumWallLength, int minimumSpaceFromBoundingBox,
+                            Random rand) {
         this.numRooms = numRooms;
         this.sampleRate = sampleRate;
         this.minimumWallLength = minimumWallLength;
         this.minimumSpaceFromBoundingBox = minimumSpaceFromBoundingBox;
+        this.rand = rand;
     }
 
     public Maze generateBaseMaze(Rectangle boundingBox) {
@@ -116,7 +127,7 @@ public class VoronoiGenerator extends BaseMazeGenerator {
         OpenList output = new OpenList();
         IList<Point> points = new DoubleLinkedList<>();
 
-        Random rand = new Random();
+        Random rand = this.rand;
         for (int i = 0; i < this.numRooms; i++) {
             double bestDistance = 0;
             Point bestPoint = null;
@@ -0,0 +1,66 @@
+package mazes.generators.batch;
+
+import datastructures.interfaces.ISet;
+import mazes.entities.Maze;
+import mazes.entities.Wall;
+
+/**
+ * The output of a single MazeJob.
+ */
+public class GeneratedMaze {
+    private MazeJob job;
+    private Maze baseMaze;
+    private ISet<Wall> removedWalls;
+    private Maze maze;
+    private long generateNanos;
+    private long carveNanos;
+
+    public GeneratedMaze(MazeJob job, Maze baseMaze, ISet<Wall> removedWalls, Maze maze,
+                         long generateNanos, long carveNanos) {
+        this.job = job;
+        this.baseMaze = baseMaze;
+        this.removedWalls = removedWalls;
+        this.maze = maze;
+        this.generateNanos = generateNanos;
+        this.carveNanos = carveNanos;
+    }
+
+    public MazeJob getJob() {
+        return this.job;
+    }
+
+    /**
+     * Returns the maze before carving, with a wall between every pair of adjacent rooms.
+     */
+    public Maze getBaseMaze() {
+        return this.baseMaze;
+    }
+
+    /**
+     * Returns the walls the carver removed -- in other words, the passages between rooms.
+     */
+    public ISet<Wall> getRemovedWalls() {
+        return this.removedWalls;
+    }
+
+    /**
+     * Returns the finished, carved maze.
+     */
+    public Maze getMaze() {
+        return this.maze;
+    }
+
+    /**
+     * Returns how long generating the base maze took, in nanoseconds.
+     */
+    public long getGenerateNanos() {
+        return this.generateNanos;
+    }
+
+    /**
+     * Returns how long carving the maze took, in nanoseconds.
+     */
+    public long getCarveNanos() {
+        return this.carveNanos;
+    }
+}
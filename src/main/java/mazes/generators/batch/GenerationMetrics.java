@@ -0,0 +1,92 @@
+package mazes.generators.batch;
+
+/**
+ * A point-in-time snapshot of a MazeGenerationService's statistics.
+ *
+ * Latency is measured from the moment a job is submitted to the moment its
+ * sink returns, so it includes time spent waiting in the queue.
+ */
+public class GenerationMetrics {
+    private int queueDepth;
+    private int running;
+    private long completed;
+    private long failed;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+    private long elapsedNanos;
+
+    public GenerationMetrics(int queueDepth, int running, long completed, long failed,
+                             long totalLatencyNanos, long maxLatencyNanos, long elapsedNanos) {
+        this.queueDepth = queueDepth;
+        this.running = running;
+        this.completed = completed;
+        this.failed = failed;
+        this.totalLatencyNanos = totalLatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns the number of jobs waiting for a worker.
+     */
+    public int getQueueDepth() {
+        return this.queueDepth;
+    }
+
+    /**
+     * Returns the number of jobs a worker is currently generating.
+     */
+    public int getRunning() {
+        return this.running;
+    }
+
+    /**
+     * Returns the number of jobs that finished successfully.
+     */
+    public long getCompleted() {
+        return this.completed;
+    }
+
+    /**
+     * Returns the number of jobs that threw an exception.
+     */
+    public long getFailed() {
+        return this.failed;
+    }
+
+    /**
+     * Returns the average latency of every finished job (successful or not), in milliseconds.
+     */
+    public double getMeanLatencyMillis() {
+        long finished = this.completed + this.failed;
+        return finished == 0 ? 0.0 : this.totalLatencyNanos / 1e6 / finished;
+    }
+
+    /**
+     * Returns the worst latency of any finished job, in milliseconds.
+     */
+    public double getMaxLatencyMillis() {
+        return this.maxLatencyNanos / 1e6;
+    }
+
+    /**
+     * Returns the number of jobs finished successfully per second since the service started.
+     */
+    public double getThroughput() {
+        return this.elapsedNanos == 0 ? 0.0 : this.completed / (this.elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "queued=%d running=%d completed=%d failed=%d meanLatency=%.1fms maxLatency=%.1fms "
+                        + "throughput=%.2f mazes/s",
+                this.queueDepth,
+                this.running,
+                this.completed,
+                this.failed,
+                this.getMeanLatencyMillis(),
+                this.getMaxLatencyMillis(),
+                this.getThroughput());
+    }
+}
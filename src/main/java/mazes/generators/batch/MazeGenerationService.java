@@ -0,0 +1,172 @@
+package mazes.generators.batch;
+
+import datastructures.interfaces.ISet;
+import mazes.entities.Maze;
+import mazes.entities.Wall;
+import mazes.generators.maze.MazeCarver;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates and carves mazes on a fixed-size pool of worker threads, handing
+ * each finished maze to a MazeSink.
+ *
+ * The service holds at most 'queueCapacity' jobs that are waiting for a worker.
+ * Once the queue is full, 'submit' blocks until a worker frees up a slot, so a
+ * producer can never get more then a bounded amount ahead of the workers.
+ *
+ * Typical usage:
+ *
+ *     MazeGenerationService service = new MazeGenerationService(8, 16, sink);
+ *     for (MazeJob job : jobs) {
+ *         service.submit(job);
+ *     }
+ *     service.shutdownAndWait();
+ */
+public class MazeGenerationService {
+    private ThreadPoolExecutor executor;
+    private Semaphore slots;
+    private MazeSink sink;
+
+    private AtomicInteger running;
+    private AtomicLong completed;
+    private AtomicLong failed;
+    private AtomicLong totalLatencyNanos;
+    private AtomicLong maxLatencyNanos;
+    private long startNanos;
+
+    /**
+     * @param threads  the number of worker threads
+     * @param queueCapacity  the number of jobs that may wait for a worker before 'submit' blocks
+     * @param sink  where to send finished mazes
+     * @throws IllegalArgumentException  if threads is not positive or queueCapacity is negative
+     */
+    public MazeGenerationService(int threads, int queueCapacity, MazeSink sink) {
+        if (threads <= 0 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Need at least one thread and a non-negative queue capacity");
+        }
+        // The executor's own queue is sized so it can never reject anything;
+        // the semaphore is what actually enforces the bound.
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads + queueCapacity));
+        this.slots = new Semaphore(threads + queueCapacity);
+        this.sink = sink;
+
+        this.running = new AtomicInteger(0);
+        this.completed = new AtomicLong(0);
+        this.failed = new AtomicLong(0);
+        this.totalLatencyNanos = new AtomicLong(0);
+        this.maxLatencyNanos = new AtomicLong(0);
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Queues the given job, waiting for space in the queue if necessary.
+     *
+     * @throws InterruptedException  if the thread is interrupted while waiting
+     * @throws java.util.concurrent.RejectedExecutionException  if the service was shut down
+     */
+    public void submit(MazeJob job) throws InterruptedException {
+        this.slots.acquire();
+        this.enqueue(job);
+    }
+
+    /**
+     * Queues the given job only if there is space in the queue right now.
+     *
+     * Returns 'true' if the job was queued, and 'false' otherwise.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException  if the service was shut down
+     */
+    public boolean trySubmit(MazeJob job) {
+        if (!this.slots.tryAcquire()) {
+            return false;
+        }
+        this.enqueue(job);
+        return true;
+    }
+
+    private void enqueue(MazeJob job) {
+        long submitted = System.nanoTime();
+        try {
+            this.executor.execute(() -> this.run(job, submitted));
+        } catch (RuntimeException ex) {
+            this.slots.release();
+            throw ex;
+        }
+    }
+
+    private void run(MazeJob job, long submitted) {
+        this.running.incrementAndGet();
+        try {
+            long start = System.nanoTime();
+            Maze baseMaze = job.getGenerator().generateBaseMaze(job.getBoundingBox());
+            long generated = System.nanoTime();
+            ISet<Wall> removed = job.getCarver().returnWallsToRemove(baseMaze);
+            Maze maze = MazeCarver.removeWalls(baseMaze, removed);
+            long carved = System.nanoTime();
+
+            this.sink.accept(new GeneratedMaze(job, baseMaze, removed, maze, generated - start, carved - generated));
+            this.completed.incrementAndGet();
+        } catch (Exception ex) {
+            this.failed.incrementAndGet();
+            this.sink.failed(job, ex);
+        } catch (Throwable ex) {
+            // Errors (running out of memory, say) still count as a failed job,
+            // but we don't try to recover from them.
+            this.failed.incrementAndGet();
+            throw ex;
+        } finally {
+            this.recordLatency(System.nanoTime() - submitted);
+            this.running.decrementAndGet();
+            this.slots.release();
+        }
+    }
+
+    private void recordLatency(long latency) {
+        this.totalLatencyNanos.addAndGet(latency);
+        long max = this.maxLatencyNanos.get();
+        while (latency > max && !this.maxLatencyNanos.compareAndSet(max, latency)) {
+            max = this.maxLatencyNanos.get();
+        }
+    }
+
+    /**
+     * Returns a snapshot of this service's current statistics.
+     */
+    public GenerationMetrics getMetrics() {
+        return new GenerationMetrics(
+                this.executor.getQueue().size(),
+                this.running.get(),
+                this.completed.get(),
+                this.failed.get(),
+                this.totalLatencyNanos.get(),
+                this.maxLatencyNanos.get(),
+                System.nanoTime() - this.startNanos);
+    }
+
+    /**
+     * Stops accepting new jobs and waits for every queued job to finish.
+     *
+     * @throws InterruptedException  if the thread is interrupted while waiting
+     */
+    public void shutdownAndWait() throws InterruptedException {
+        this.executor.shutdown();
+        while (!this.executor.awaitTermination(1, TimeUnit.SECONDS)) {
+            // Keep waiting
+        }
+    }
+
+    /**
+     * Stops accepting new jobs and abandons every job that has not started yet.
+     */
+    public void shutdownNow() {
+        this.executor.shutdownNow();
+    }
+}
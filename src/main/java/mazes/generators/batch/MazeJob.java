@@ -0,0 +1,52 @@
+package mazes.generators.batch;
+
+import mazes.generators.base.BaseMazeGenerator;
+import mazes.generators.maze.MazeCarver;
+
+import java.awt.*;
+
+/**
+ * Describes a single maze for a MazeGenerationService to build: which generator
+ * to create the base maze with, which carver to carve it with, and the bounding
+ * box to generate it in.
+ *
+ * Note: generators and carvers are free to keep internal state (such as a Random),
+ * so if you want jobs to be reproducible, give each job its own instances.
+ */
+public class MazeJob {
+    private long id;
+    private BaseMazeGenerator generator;
+    private MazeCarver carver;
+    private Rectangle boundingBox;
+
+    public MazeJob(long id, BaseMazeGenerator generator, MazeCarver carver, Rectangle boundingBox) {
+        this.id = id;
+        this.generator = generator;
+        this.carver = carver;
+        this.boundingBox = boundingBox;
+    }
+
+    /**
+     * Returns the client-chosen id of this job.
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    public BaseMazeGenerator getGenerator() {
+        return this.generator;
+    }
+
+    public MazeCarver getCarver() {
+        return this.carver;
+    }
+
+    public Rectangle getBoundingBox() {
+        return this.boundingBox;
+    }
+
+    @Override
+    public String toString() {
+        return "MazeJob(" + this.id + ")";
+    }
+}
@@ -0,0 +1,25 @@
+package mazes.generators.batch;
+
+/**
+ * Receives mazes from a MazeGenerationService as they are finished.
+ *
+ * Note: the service calls these methods from its worker threads, possibly
+ * several at once, so implementations must be thread-safe.
+ */
+public interface MazeSink {
+    /**
+     * Called once for every job that finished successfully.
+     */
+    public void accept(GeneratedMaze maze);
+
+    /**
+     * Called once for every job that threw an exception, either while generating
+     * the maze or inside 'accept'.
+     *
+     * By default, this prints the exception to stderr.
+     */
+    public default void failed(MazeJob job, Exception ex) {
+        System.err.println("Failed to generate " + job + ":");
+        ex.printStackTrace();
+    }
+}
@@ -8,6 +8,7 @@ import mazes.entities.Maze;
 import mazes.entities.Room;
 import mazes.entities.Wall;
 import misc.graphs.Graph;
+import misc.graphs.GraphProgressListener;
 
 /**
  * Carves out a maze based on Kruskal's algorithm.
@@ -15,8 +16,30 @@ import misc.graphs.Graph;
  * See the spec for more details.
  */
 public class KruskalMazeCarver implements MazeCarver {
+    private Random rand;
+
+    public KruskalMazeCarver() {
+        this(new Random());
+    }
+
+    /**
+     * Uses the given source of randomness when assigning wall weights. Pass in
+     * a seeded Random to make the carved mazes reproducible.
+     */
+    public KruskalMazeCarver(Random rand) {
+        this.rand = rand;
+    }
+
     @Override
     public ISet<Wall> returnWallsToRemove(Maze maze) {
+        return this.returnWallsToRemove(maze, null);
+    }
+
+    /**
+     * Reports each batch of walls as Kruskal's algorithm adds them to the tree.
+     */
+    @Override
+    public ISet<Wall> returnWallsToRemove(Maze maze, GraphProgressListener<Room, Wall> listener) {
         // Note: make sure that the input maze remains unmodified after this method is over.
         //
         // In particular, if you call 'wall.setDistance()' at any point, make sure to
@@ -26,7 +49,7 @@ public class KruskalMazeCarver implements MazeCarver {
         ISet<Wall> walls = maze.getWalls();
         ISet<Wall> untouchableWalls = maze.getUntouchableWalls();
         
-        Random rand = new Random();
+        Random rand = this.rand;
         ISet<Wall> randomWalls = new ChainedHashSet<Wall>();
         for (Wall wall : walls) {
             if (!untouchableWalls.contains(wall)) {
@@ -37,6 +60,7 @@ public class KruskalMazeCarver implements MazeCarver {
         }
         
         Graph<Room, Wall> graph = new Graph<Room, Wall>(rooms, randomWalls);
+        graph.setProgressListener(listener);
         ISet<Wall> mstWalls = graph.findMinimumSpanningTree();
         
         for (Wall wall : randomWalls) {
@@ -1,9 +1,11 @@
 package mazes.generators.maze;
 
-import datastructures.concrete.ChainedHashSet;
 import datastructures.interfaces.ISet;
 import mazes.entities.Maze;
+import mazes.entities.Room;
 import mazes.entities.Wall;
+import misc.graphs.GraphProgressListener;
+import misc.graphs.ProgressBatch;
 
 /**
  * Represents a class that accepts some initial maze created by a BaseMazeGenerator,
@@ -18,6 +20,26 @@ public interface MazeCarver {
      */
     public ISet<Wall> returnWallsToRemove(Maze maze);
 
+    /**
+     * Does the same thing as 'returnWallsToRemove(maze)', but also reports the
+     * walls it decides to remove to the given listener (via 'edgesAccepted').
+     * The listener may be null, in which case nothing is reported.
+     *
+     * By default, this reports every wall once carving is done. Carvers that
+     * can report their progress as they go should override this.
+     */
+    public default ISet<Wall> returnWallsToRemove(Maze maze, GraphProgressListener<Room, Wall> listener) {
+        ISet<Wall> toRemove = this.returnWallsToRemove(maze);
+        if (listener != null) {
+            ProgressBatch<Wall> removed = new ProgressBatch<>(listener::edgesAccepted, ProgressBatch.DEFAULT_SIZE);
+            for (Wall wall : toRemove) {
+                removed.add(wall);
+            }
+            removed.flush();
+        }
+        return toRemove;
+    }
+
     /**
      * Exists a "maze" where there exists a wall between every single room,
      * and returns a new maze that's actually solvable/contains paths
@@ -28,15 +50,19 @@ public interface MazeCarver {
         // need to modify it (though you should make sure you understand
         // what it's doing).
 
-        ISet<Wall> toRemove = this.returnWallsToRemove(initialMaze);
-
-        ISet<Wall> newWalls = new ChainedHashSet<>();
-        for (Wall wall : initialMaze.getWalls()) {
-            if (!toRemove.contains(wall)) {
-                newWalls.add(wall);
-            }
-        }
+        return removeWalls(initialMaze, this.returnWallsToRemove(initialMaze));
+    }
 
-        return new Maze(initialMaze.getRooms(), newWalls, initialMaze.getUntouchableWalls());
+    /**
+     * Returns a new maze containing every wall from the initial maze except
+     * the ones in 'toRemove'.
+     *
+     * This is useful for clients that need to hang on to the set of removed
+     * walls (for example, to build a graph of the passages) in addition to
+     * the carved maze itself.
+     */
+    public static Maze removeWalls(Maze initialMaze, ISet<Wall> toRemove) {
+        return new Maze(initialMaze.getRooms(), initialMaze.getWalls().difference(toRemove),
+                initialMaze.getUntouchableWalls());
     }
 }
@@ -3,7 +3,10 @@ package mazes.generators.maze;
 import datastructures.concrete.ChainedHashSet;
 import datastructures.interfaces.ISet;
 import mazes.entities.Maze;
+import mazes.entities.Room;
 import mazes.entities.Wall;
+import misc.graphs.GraphProgressListener;
+import misc.graphs.ProgressBatch;
 
 import java.util.Random;
 
@@ -12,21 +15,46 @@ import java.util.Random;
  */
 public class RandomMazeCarver implements MazeCarver {
     private double probabilityOfKeepingEdge;
+    private Random rand;
 
     public RandomMazeCarver(double probabilityOfKeepingEdge) {
+        this(probabilityOfKeepingEdge, new Random());
+    }
+
+    /**
+     * Uses the given source of randomness when deciding which walls to keep. Pass
+     * in a seeded Random to make the carved mazes reproducible.
+     */
+    public RandomMazeCarver(double probabilityOfKeepingEdge, Random rand) {
         this.probabilityOfKeepingEdge = probabilityOfKeepingEdge;
+        this.rand = rand;
     }
 
     @Override
     public ISet<Wall> returnWallsToRemove(Maze maze) {
-        Random rand = new Random();
+        return this.returnWallsToRemove(maze, null);
+    }
+
+    @Override
+    public ISet<Wall> returnWallsToRemove(Maze maze, GraphProgressListener<Room, Wall> listener) {
+        Random rand = this.rand;
+        ProgressBatch<Wall> removed = null;
+        if (listener != null) {
+            removed = new ProgressBatch<>(listener::edgesAccepted, ProgressBatch.DEFAULT_SIZE);
+        }
 
         ISet<Wall> toRemove = new ChainedHashSet<>();
         for (Wall wall : maze.getWalls()) {
             if (rand.nextDouble() >= this.probabilityOfKeepingEdge) {
                 toRemove.add(wall);
+                if (removed != null) {
+                    removed.add(wall);
+                }
             }
         }
+        if (removed != null) {
+            removed.flush();
+        }
         return toRemove;
     }
 }
@@ -0,0 +1,80 @@
+package mazes.gui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Plays back drawing steps a few at a time, so the user can watch an algorithm
+ * make progress.
+ *
+ * Any thread may queue up steps. They are run on the event dispatch thread,
+ * at most 'stepsPerFrame' per frame, and the panel is repainted once per
+ * frame -- never faster then the display can actually show.
+ */
+class Animator {
+    private static final int DEFAULT_FRAME_RATE = 60;
+
+    private ImagePanel panel;
+    private int stepsPerFrame;
+    private ConcurrentLinkedQueue<Runnable> steps;
+    private Timer timer;
+
+    public Animator(ImagePanel panel, int stepsPerFrame) {
+        this.panel = panel;
+        this.stepsPerFrame = stepsPerFrame;
+        this.steps = new ConcurrentLinkedQueue<>();
+        this.timer = new Timer(1000 / getFrameRate(), e -> this.playFrame());
+        this.timer.setCoalesce(true);
+    }
+
+    /**
+     * Queues the given step to run after every step queued before it.
+     */
+    public void enqueue(Runnable step) {
+        this.steps.add(step);
+        if (!this.timer.isRunning()) {
+            // Timer.start is safe to call from any thread.
+            this.timer.start();
+        }
+    }
+
+    /**
+     * Throws away every step that has not run yet.
+     */
+    public void cancel() {
+        this.steps.clear();
+    }
+
+    private void playFrame() {
+        for (int i = 0; i < this.stepsPerFrame; i++) {
+            Runnable step = this.steps.poll();
+            if (step == null) {
+                this.timer.stop();
+                // Another thread may have queued a step after we looked but
+                // before we stopped, while the timer still seemed to be running.
+                if (!this.steps.isEmpty()) {
+                    this.timer.start();
+                }
+                break;
+            }
+            step.run();
+        }
+        this.panel.repaintDirtyRegions();
+    }
+
+    /**
+     * Returns the refresh rate of the main display, or a sensible guess if we
+     * can't find out.
+     */
+    private static int getFrameRate() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return DEFAULT_FRAME_RATE;
+        }
+        int rate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice()
+                .getDisplayMode()
+                .getRefreshRate();
+        return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_FRAME_RATE : rate;
+    }
+}
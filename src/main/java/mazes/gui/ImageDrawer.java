@@ -7,7 +7,10 @@ import mazes.entities.Wall;
 import mazes.entities.LineSegment;
 
 import java.awt.*;
-import java.awt.geom.Path2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
 import java.awt.image.ImageObserver;
 
 /**
@@ -15,16 +18,58 @@ import java.awt.image.ImageObserver;
  *
  * You do not need to understand how this class works: you should just stick with
  * reading the method header comments.
+ *
+ * The drawer remembers what it has drawn (the maze, any paths, and any points)
+ * so that it can redraw just one part of the image after a small change, and it
+ * keeps a list of "dirty" regions that have changed since the last time a
+ * client called 'drainDirtyRegions'. ImagePanel uses that list to repaint only
+ * the parts of the screen that actually changed.
+ *
+ * The walls are rendered once into a transparent "wall layer" image, which is
+ * only touched again when a wall is added or removed. Redrawing the maze is then
+ * just a copy of that layer, which is far cheaper then stroking every wall again.
  */
 public class ImageDrawer implements ImageObserver {
     private static final int UNKNOWN_DIMENSION = -1;
 
+    // How far past its own coordinates a wall, path, or point may draw, in pixels.
+    private static final int WALL_BLEED = 3;
+    private static final int PATH_BLEED = 5;
+    private static final int POINT_RADIUS = 4;
+    private static final int MARKER_RADIUS = 2;
+
+    // Past this many dirty regions, we just merge them all into one.
+    private static final int MAX_DIRTY_REGIONS = 32;
+
+    private static final Color BACKGROUND_COLOR = Color.WHITE;
+    private static final Color WALL_COLOR = Color.BLACK;
+    private static final Color PATH_COLOR = Color.RED;
+    private static final Color MARKER_COLOR = new Color(120, 160, 220);
+    private static final BasicStroke WALL_STROKE = new BasicStroke(4);
+    // Round joins keep the corners of a path inside PATH_BLEED, however sharply it turns.
+    private static final BasicStroke PATH_STROKE = new BasicStroke(2, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_ROUND);
+
     private Graphics2D graphics;
     private int width = UNKNOWN_DIMENSION;
     private int height = UNKNOWN_DIMENSION;
 
     private int padding;
 
+    private Maze maze;
+    private boolean showEdges;
+    private WallIndex wallIndex;
+    private BufferedImage wallLayer;
+    private IList<DrawnPath> paths = new DoubleLinkedList<>();
+    private IList<Point> points = new DoubleLinkedList<>();
+    private IList<Point> markers = new DoubleLinkedList<>();
+    private IList<Rectangle> dirtyRegions = new DoubleLinkedList<>();
+
+    // The strokes for the last scale other than 1 we drew at, so that drawing tile
+    // after tile at the same zoom level doesn't make new strokes every time.
+    private double strokeScale = Double.NaN;
+    private BasicStroke scaledWallStroke;
+    private BasicStroke scaledPathStroke;
+
     /**
      * Creates a new ImageDrawer object based on the given panel.
      */
@@ -121,26 +166,201 @@ public class ImageDrawer implements ImageObserver {
         this.drawMaze(maze, false);
     }
 
+    /**
+     * Draws the given maze, and remembers it so that later calls to 'redrawRegion',
+     * 'wallAdded', and 'wallRemoved' can redraw parts of it.
+     */
     public void drawMaze(Maze maze, boolean showEdges) {
+        this.maze = maze;
+        this.showEdges = showEdges;
+        this.wallIndex = new WallIndex(
+                new Rectangle(0, 0, this.getWidth(), this.getHeight()),
+                maze.getWalls().size() + maze.getUntouchableWalls().size(),
+                WALL_BLEED);
+        for (Wall wall : maze.getWalls()) {
+            this.wallIndex.add(wall);
+        }
+        for (Wall wall : maze.getUntouchableWalls()) {
+            this.wallIndex.add(wall);
+        }
+        this.wallLayer = null;
+
         Color originalColor = this.graphics.getColor();
         Stroke originalStroke = this.graphics.getStroke();
 
-        this.graphics.setColor(Color.BLACK);
-        this.graphics.setStroke(new BasicStroke(4));
-
-        this.graphics.draw(this.getBoundingBox());
-        for (Wall wall : maze.getWalls()) {
-            this.drawLineSegment(wall.getDividingLine());
-            if (showEdges) {
-                this.drawPath(wall);
-            }
+        this.graphics.drawImage(this.getWallLayer(), 0, 0, null);
+        if (showEdges) {
+            this.drawEdges(maze.getWalls());
         }
-        for (Wall wall : maze.getUntouchableWalls()) {
-            this.drawLineSegment(wall.getDividingLine());
+
+        this.graphics.setColor(originalColor);
+        this.graphics.setStroke(originalStroke);
+
+        this.markDirty(new Rectangle(0, 0, this.getWidth(), this.getHeight()));
+    }
+
+    /**
+     * Tells the drawer that the given wall was just added to the maze passed to
+     * 'drawMaze', and redraws the area around it.
+     */
+    public void wallAdded(Wall wall) {
+        Rectangle region = this.wallIndex.boundsOf(wall);
+        this.wallIndex.add(wall);
+        this.redrawWallLayer(region);
+        this.redrawRegion(region);
+    }
+
+    /**
+     * Tells the drawer that the given wall was just removed from the maze passed
+     * to 'drawMaze', and redraws the area around it.
+     */
+    public void wallRemoved(Wall wall) {
+        Rectangle region = this.wallIndex.boundsOf(wall);
+        this.wallIndex.remove(wall);
+        this.redrawWallLayer(region);
+        this.redrawRegion(region);
+    }
+
+    /**
+     * Erases the whole image and redraws everything the drawer remembers.
+     */
+    public void redraw() {
+        this.redrawRegion(new Rectangle(0, 0, this.getWidth(), this.getHeight()));
+    }
+
+    /**
+     * Erases the given region and redraws only the walls, paths, and points
+     * that overlap it.
+     */
+    public void redrawRegion(Rectangle region) {
+        Shape originalClip = this.graphics.getClip();
+        Color originalColor = this.graphics.getColor();
+        Stroke originalStroke = this.graphics.getStroke();
+
+        this.graphics.clip(region);
+        this.graphics.setColor(BACKGROUND_COLOR);
+        this.graphics.fill(region);
+
+        if (this.maze != null) {
+            this.graphics.drawImage(this.getWallLayer(), 0, 0, null);
         }
+        this.drawOverlays(this.graphics, region, 1.0);
 
+        this.graphics.setClip(originalClip);
         this.graphics.setColor(originalColor);
         this.graphics.setStroke(originalStroke);
+
+        this.markDirty(region);
+    }
+
+    /**
+     * Draws everything overlapping the given region of the image onto some other
+     * graphics object, which should already be transformed so that one pixel of
+     * the image covers 'scale' pixels of the target.
+     *
+     * Lines and points keep the same on-screen size whatever the scale, so
+     * zooming in on a dense maze spreads the walls apart instead of just making
+     * them fatter. This does not touch the image itself or the dirty regions.
+     */
+    public void drawRegion(Graphics2D target, Rectangle region, double scale) {
+        target.setColor(BACKGROUND_COLOR);
+        target.fill(region);
+
+        if (this.maze != null) {
+            target.setColor(WALL_COLOR);
+            target.setStroke(this.wallStroke(scale));
+            target.draw(this.getBoundingBox());
+            this.drawWalls(target, this.wallIndex.query(region));
+        }
+        this.drawOverlays(target, region, scale);
+    }
+
+    /**
+     * Draws the edges (if we are showing them), paths, and points that overlap
+     * the given region.
+     */
+    private void drawOverlays(Graphics2D target, Rectangle region, double scale) {
+        if (this.maze != null && this.showEdges) {
+            IList<Wall> edges = new DoubleLinkedList<>();
+            for (Wall wall : this.wallIndex.query(this.grow(region, PATH_BLEED))) {
+                if (!this.maze.getUntouchableWalls().contains(wall)) {
+                    edges.add(wall);
+                }
+            }
+            this.drawPathShape(target, this.makePathShape(edges, false), edges, scale);
+        }
+        for (Point marker : this.markers) {
+            if (this.pointBounds(marker).intersects(region)) {
+                this.fillCircle(target, marker, MARKER_RADIUS, MARKER_COLOR, scale);
+            }
+        }
+        for (DrawnPath path : this.paths) {
+            if (path.bounds.intersects(region)) {
+                IList<Wall> visible = new DoubleLinkedList<>();
+                for (Wall wall : path.walls) {
+                    if (this.pathBounds(wall).intersects(region)) {
+                        visible.add(wall);
+                    }
+                }
+                this.drawPathShape(target, this.makePathShape(visible, true), visible, scale);
+            }
+        }
+        for (Point point : this.points) {
+            if (this.pointBounds(point).intersects(region)) {
+                this.fillPoint(target, point, scale);
+            }
+        }
+    }
+
+    /**
+     * Returns the wall layer, rendering it first if necessary.
+     */
+    private BufferedImage getWallLayer() {
+        if (this.wallLayer == null) {
+            this.wallLayer = new BufferedImage(this.getWidth(), this.getHeight(), BufferedImage.TYPE_INT_ARGB);
+            this.redrawWallLayer(new Rectangle(0, 0, this.getWidth(), this.getHeight()));
+        }
+        return this.wallLayer;
+    }
+
+    /**
+     * Makes the given region of the wall layer transparent again, then redraws
+     * the walls that overlap it.
+     */
+    private void redrawWallLayer(Rectangle region) {
+        if (this.wallLayer == null) {
+            return;
+        }
+        Graphics2D layer = this.wallLayer.createGraphics();
+        layer.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        layer.clip(region);
+        layer.setComposite(AlphaComposite.Clear);
+        layer.fill(region);
+        layer.setComposite(AlphaComposite.SrcOver);
+
+        layer.setColor(WALL_COLOR);
+        layer.setStroke(WALL_STROKE);
+        layer.draw(this.getBoundingBox());
+        // Stroking one short line at a time is faster in Java2D's software
+        // renderer then stroking a single path made of every wall.
+        if (region.contains(0, 0, this.getWidth(), this.getHeight())) {
+            this.drawWalls(layer, this.maze.getWalls());
+            this.drawWalls(layer, this.maze.getUntouchableWalls());
+        } else {
+            this.drawWalls(layer, this.wallIndex.query(region));
+        }
+        layer.dispose();
+    }
+
+    private void drawWalls(Graphics2D layer, Iterable<Wall> walls) {
+        for (Wall wall : walls) {
+            LineSegment line = wall.getDividingLine();
+            layer.drawLine(line.start.x, line.start.y, line.end.x, line.end.y);
+        }
+    }
+
+    private void drawEdges(Iterable<Wall> walls) {
+        this.drawPathShape(this.graphics, this.makePathShape(walls, false), walls, 1.0);
     }
 
     public void drawLineSegment(LineSegment segment) {
@@ -157,45 +377,218 @@ public class ImageDrawer implements ImageObserver {
         this.drawPath(walls);
     }
 
+    /**
+     * Draws a path crossing each of the given walls, and remembers it so it
+     * survives later calls to 'redrawRegion'.
+     *
+     * Consecutive walls that share a room are joined into one smooth polyline.
+     */
     public void drawPath(IList<Wall> wallsBypassed) {
+        if (wallsBypassed.isEmpty()) {
+            return;
+        }
+        DrawnPath path = new DrawnPath(wallsBypassed);
+        for (Wall wall : wallsBypassed) {
+            path.bounds = this.union(path.bounds, this.pathBounds(wall));
+        }
+
         Color originalColor = this.graphics.getColor();
         Stroke originalStroke = this.graphics.getStroke();
+        this.drawPathShape(this.graphics, this.makePathShape(wallsBypassed, true), wallsBypassed, 1.0);
+        this.graphics.setColor(originalColor);
+        this.graphics.setStroke(originalStroke);
 
-        this.graphics.setColor(Color.RED);
-        this.graphics.setStroke(new BasicStroke(2));
+        this.paths.add(path);
+        this.markDirty(path.bounds);
+    }
 
-        for (Wall wall : wallsBypassed) {
-            LineSegment segment = wall.getDividingLine();
+    /**
+     * Draws the given path shape, then a dot at both rooms of each wall.
+     */
+    private void drawPathShape(Graphics2D target, Shape shape, Iterable<Wall> walls, double scale) {
+        target.setColor(PATH_COLOR);
+        target.setStroke(this.pathStroke(scale));
+        target.draw(shape);
+        for (Wall wall : walls) {
+            this.fillPoint(target, wall.getRoom1().getCenter(), scale);
+            this.fillPoint(target, wall.getRoom2().getCenter(), scale);
+        }
+    }
 
-            Point center1 = wall.getRoom1().getCenter();
-            Point center2 = wall.getRoom2().getCenter();
-            Point midpoint = segment.midpoint();
+    private GeneralPath makePathShape(Iterable<Wall> walls, boolean connect) {
+        GeneralPath shape = new GeneralPath();
+        for (Wall wall : walls) {
+            this.appendPath(shape, wall, connect);
+        }
+        return shape;
+    }
 
-            this.drawPoint(center1);
-            this.drawPoint(center2);
+    /**
+     * Adds a curve from one room of the given wall to the other, bending through
+     * the middle of the wall. If 'connect' is true and the shape currently ends at
+     * one of the wall's rooms, the curve continues from there instead of starting
+     * a new piece.
+     */
+    private void appendPath(GeneralPath shape, Wall wall, boolean connect) {
+        Point from = wall.getRoom1().getCenter();
+        Point to = wall.getRoom2().getCenter();
+        Point midpoint = wall.getDividingLine().midpoint();
 
-            Path2D.Double path = new Path2D.Double();
-            path.moveTo(center1.x, center1.y);
-            path.curveTo(midpoint.x, midpoint.y, midpoint.x, midpoint.y, center2.x, center2.y);
-            this.graphics.draw(path);
+        Point2D current = connect ? shape.getCurrentPoint() : null;
+        if (current != null && current.getX() == to.x && current.getY() == to.y) {
+            Point temp = from;
+            from = to;
+            to = temp;
         }
-
-        this.graphics.setColor(originalColor);
-        this.graphics.setStroke(originalStroke);
+        if (current == null || current.getX() != from.x || current.getY() != from.y) {
+            shape.moveTo(from.x, from.y);
+        }
+        shape.curveTo(midpoint.x, midpoint.y, midpoint.x, midpoint.y, to.x, to.y);
     }
 
+    /**
+     * Draws a point, and remembers it so it survives later calls to 'redrawRegion'.
+     */
     public void drawPoint(Point point) {
-        Color originalColor = this.graphics.getColor();
-        this.graphics.setColor(Color.RED);
-        int radius = 4;
-        this.graphics.fillOval(point.x - radius, point.y - radius, radius * 2, radius * 2);
-        this.graphics.setColor(originalColor);
+        this.fillPoint(this.graphics, point, 1.0);
+        this.points.add(point);
+        this.markDirty(this.pointBounds(point));
+    }
+
+    /**
+     * Draws a small, faint dot, and remembers it so it survives later calls to
+     * 'redrawRegion'. Markers are drawn underneath paths and points, and are
+     * meant for things like showing which rooms a search has visited.
+     */
+    public void drawMarker(Point point) {
+        this.fillCircle(this.graphics, point, MARKER_RADIUS, MARKER_COLOR, 1.0);
+        this.markers.add(point);
+        this.markDirty(this.pointBounds(point));
+    }
+
+    private void fillPoint(Graphics2D target, Point point, double scale) {
+        this.fillCircle(target, point, POINT_RADIUS, PATH_COLOR, scale);
+    }
+
+    private void fillCircle(Graphics2D target, Point point, int radius, Color color, double scale) {
+        Color originalColor = target.getColor();
+        target.setColor(color);
+        if (scale == 1.0) {
+            target.fillOval(point.x - radius, point.y - radius, radius * 2, radius * 2);
+        } else {
+            double scaledRadius = radius / scale;
+            target.fill(new Ellipse2D.Double(
+                    point.x - scaledRadius, point.y - scaledRadius, scaledRadius * 2, scaledRadius * 2));
+        }
+        target.setColor(originalColor);
     }
 
+    /**
+     * Returns a stroke that looks as thick as WALL_STROKE once it has been magnified
+     * by 'scale'.
+     */
+    private BasicStroke wallStroke(double scale) {
+        if (scale == 1.0) {
+            return WALL_STROKE;
+        }
+        this.updateScaledStrokes(scale);
+        return this.scaledWallStroke;
+    }
+
+    /**
+     * Returns a stroke that looks as thick as PATH_STROKE once it has been magnified
+     * by 'scale'.
+     */
+    private BasicStroke pathStroke(double scale) {
+        if (scale == 1.0) {
+            return PATH_STROKE;
+        }
+        this.updateScaledStrokes(scale);
+        return this.scaledPathStroke;
+    }
+
+    private void updateScaledStrokes(double scale) {
+        if (scale != this.strokeScale) {
+            this.strokeScale = scale;
+            this.scaledWallStroke = scaleStroke(WALL_STROKE, scale);
+            this.scaledPathStroke = scaleStroke(PATH_STROKE, scale);
+        }
+    }
+
+    private static BasicStroke scaleStroke(BasicStroke stroke, double scale) {
+        return new BasicStroke((float) (stroke.getLineWidth() / scale), stroke.getEndCap(), stroke.getLineJoin());
+    }
+
+    /**
+     * Erases the whole image and forgets everything drawn so far.
+     */
     public void clear() {
         Color originalColor = this.graphics.getColor();
-        this.graphics.setColor(Color.WHITE);
+        this.graphics.setColor(BACKGROUND_COLOR);
         this.graphics.fillRect(0, 0, this.getWidth(), this.getHeight());
         this.graphics.setColor(originalColor);
+
+        this.maze = null;
+        this.wallIndex = null;
+        this.wallLayer = null;
+        this.paths = new DoubleLinkedList<>();
+        this.points = new DoubleLinkedList<>();
+        this.markers = new DoubleLinkedList<>();
+        this.markDirty(new Rectangle(0, 0, this.getWidth(), this.getHeight()));
+    }
+
+    /**
+     * Records that the given region of the image has changed and needs to be repainted.
+     */
+    public synchronized void markDirty(Rectangle region) {
+        if (this.dirtyRegions.size() >= MAX_DIRTY_REGIONS) {
+            Rectangle merged = new Rectangle(region);
+            while (!this.dirtyRegions.isEmpty()) {
+                merged.add(this.dirtyRegions.remove());
+            }
+            this.dirtyRegions.add(merged);
+        } else {
+            this.dirtyRegions.add(new Rectangle(region));
+        }
+    }
+
+    /**
+     * Returns every region that changed since the last call to this method,
+     * and resets the list.
+     */
+    public synchronized IList<Rectangle> drainDirtyRegions() {
+        IList<Rectangle> output = this.dirtyRegions;
+        this.dirtyRegions = new DoubleLinkedList<>();
+        return output;
+    }
+
+    private Rectangle pathBounds(Wall wall) {
+        Rectangle bounds = new Rectangle(wall.getRoom1().getCenter());
+        bounds.add(wall.getRoom2().getCenter());
+        bounds.add(wall.getDividingLine().midpoint());
+        return this.grow(bounds, PATH_BLEED);
+    }
+
+    private Rectangle pointBounds(Point point) {
+        return this.grow(new Rectangle(point), POINT_RADIUS + 1);
+    }
+
+    private Rectangle grow(Rectangle rect, int amount) {
+        Rectangle output = new Rectangle(rect);
+        output.grow(amount, amount);
+        return output;
+    }
+
+    private Rectangle union(Rectangle a, Rectangle b) {
+        return a == null ? b : a.union(b);
+    }
+
+    private static class DrawnPath {
+        public final IList<Wall> walls;
+        public Rectangle bounds;
+
+        public DrawnPath(IList<Wall> walls) {
+            this.walls = walls;
+        }
     }
 }
@@ -1,29 +1,131 @@
 package mazes.gui;
 
+import datastructures.interfaces.IList;
+
 import javax.swing.*;
 import javax.swing.event.AncestorEvent;
 import javax.swing.event.AncestorListener;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
 
+/**
+ * Displays an image that an ImageDrawer draws into.
+ *
+ * Rather then repainting the whole image on every tick, the panel asks its
+ * drawer which regions changed since the last tick and repaints only those.
+ *
+ * The user can also zoom in with the mouse wheel and pan around by dragging.
+ * Zoomed-in views are not just the image blown up: they are drawn from tiles
+ * the drawer renders again at the higher resolution (see TilePyramid), so even
+ * very dense mazes become readable.
+ */
 public class ImagePanel extends JPanel {
     private static final int PADDING = 5;
     private static final int DELAY = 100;  // In milliseconds
+    private static final int TILE_CACHE_CAPACITY = 256;
     private Image image;
+    private ImageDrawer drawer;
+    private TilePyramid tiles;
     private Timer timer;
 
+    // The current zoom level, and the point of the image shown in the top-left
+    // corner of the panel.
+    private int level;
+    private double viewX;
+    private double viewY;
+
     public ImagePanel(Image image) {
         super(true);
         this.setImage(image);
         this.setBackground(Color.WHITE);
         this.setPreferredSize(new Dimension(image.getWidth(this), image.getHeight(this)));
         this.setAlignmentX(Component.LEFT_ALIGNMENT);
-        this.timer = new Timer(DELAY, e -> this.repaint());
+        this.timer = new Timer(DELAY, e -> this.repaintDirtyRegions());
         this.timer.start();
         this.addAncestorListener(new Closer());
+
+        Navigator navigator = new Navigator();
+        this.addMouseListener(navigator);
+        this.addMouseMotionListener(navigator);
+        this.addMouseWheelListener(navigator);
     }
 
+    /**
+     * Returns the drawer for this panel's image. Anything drawn through it will
+     * show up on screen by the next tick, or sooner if the client calls
+     * 'repaintDirtyRegions'.
+     */
     public ImageDrawer getImageDrawer() {
-        return new ImageDrawer(this.image, PADDING);
+        return this.drawer;
+    }
+
+    /**
+     * Schedules a repaint of every region the drawer changed since the last call.
+     */
+    public void repaintDirtyRegions() {
+        IList<Rectangle> regions = this.drawer.drainDirtyRegions();
+        for (Rectangle region : regions) {
+            this.tiles.invalidate(region);
+            this.repaint(this.toScreen(region));
+        }
+    }
+
+    /**
+     * Returns the current zoom level: 0 shows the whole image, and every level
+     * after that doubles the magnification.
+     */
+    public int getZoomLevel() {
+        return this.level;
+    }
+
+    /**
+     * Changes the zoom level, keeping whatever part of the image is under the
+     * given point of the panel in place.
+     */
+    public void zoom(int newLevel, Point anchor) {
+        newLevel = Math.max(0, Math.min(TilePyramid.MAX_LEVEL, newLevel));
+        double oldScale = TilePyramid.scaleOf(this.level);
+        double newScale = TilePyramid.scaleOf(newLevel);
+        double anchorX = this.viewX + anchor.x / oldScale;
+        double anchorY = this.viewY + anchor.y / oldScale;
+
+        this.level = newLevel;
+        this.moveView(anchorX - anchor.x / newScale, anchorY - anchor.y / newScale);
+    }
+
+    /**
+     * Zooms all the way back out.
+     */
+    public void resetView() {
+        this.level = 0;
+        this.moveView(0, 0);
+    }
+
+    private void moveView(double x, double y) {
+        double scale = TilePyramid.scaleOf(this.level);
+        double maxX = Math.max(0, this.image.getWidth(this) - this.getWidth() / scale);
+        double maxY = Math.max(0, this.image.getHeight(this) - this.getHeight() / scale);
+        this.viewX = Math.max(0, Math.min(maxX, x));
+        this.viewY = Math.max(0, Math.min(maxY, y));
+        this.repaint();
+    }
+
+    /**
+     * Converts a region of the image into the region of the panel that shows it.
+     */
+    private Rectangle toScreen(Rectangle region) {
+        if (this.level == 0) {
+            return region;
+        }
+        double scale = TilePyramid.scaleOf(this.level);
+        int left = (int) Math.floor((region.x - this.viewX) * scale);
+        int top = (int) Math.floor((region.y - this.viewY) * scale);
+        int right = (int) Math.ceil((region.x + region.width - this.viewX) * scale);
+        int bottom = (int) Math.ceil((region.y + region.height - this.viewY) * scale);
+        return new Rectangle(left, top, right - left, bottom - top);
     }
 
     public Image getImage() {
@@ -33,14 +135,73 @@ public class ImagePanel extends JPanel {
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
         Graphics2D g2 = (Graphics2D) g;
-        g2.drawImage(image, 0, 0, this);
+        if (this.level == 0) {
+            g2.drawImage(image, 0, 0, this);
+            return;
+        }
+
+        // Only fetch the tiles that overlap the area being repainted
+        double scale = TilePyramid.scaleOf(this.level);
+        int left = (int) Math.floor(this.viewX * scale);
+        int top = (int) Math.floor(this.viewY * scale);
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, this.getWidth(), this.getHeight());
+        }
+        int size = TilePyramid.TILE_SIZE;
+        for (int row = (top + clip.y) / size; row <= (top + clip.y + clip.height - 1) / size; row++) {
+            for (int column = (left + clip.x) / size; column <= (left + clip.x + clip.width - 1) / size; column++) {
+                BufferedImage tile = this.tiles.getTile(this.level, column, row);
+                g2.drawImage(tile, column * size - left, row * size - top, this);
+            }
+        }
     }
 
     public void setImage(Image image) {
         this.image = image;
+        this.drawer = new ImageDrawer(image, PADDING);
+        this.tiles = new TilePyramid(this.drawer, TILE_CACHE_CAPACITY);
+        this.level = 0;
+        this.viewX = 0;
+        this.viewY = 0;
         this.repaint();
     }
 
+    /**
+     * Zooms when the user turns the mouse wheel, and pans when they drag.
+     */
+    private class Navigator extends MouseAdapter {
+        private Point lastDrag;
+
+        @Override
+        public void mouseWheelMoved(MouseWheelEvent event) {
+            ImagePanel panel = ImagePanel.this;
+            panel.zoom(panel.level - event.getWheelRotation(), event.getPoint());
+        }
+
+        @Override
+        public void mousePressed(MouseEvent event) {
+            this.lastDrag = event.getPoint();
+        }
+
+        @Override
+        public void mouseDragged(MouseEvent event) {
+            ImagePanel panel = ImagePanel.this;
+            if (this.lastDrag != null && panel.level > 0) {
+                double scale = TilePyramid.scaleOf(panel.level);
+                panel.moveView(
+                        panel.viewX - (event.getX() - this.lastDrag.x) / scale,
+                        panel.viewY - (event.getY() - this.lastDrag.y) / scale);
+            }
+            this.lastDrag = event.getPoint();
+        }
+
+        @Override
+        public void mouseReleased(MouseEvent event) {
+            this.lastDrag = null;
+        }
+    }
+
     private class Closer implements AncestorListener {
         @Override
         public void ancestorAdded(AncestorEvent event) {
@@ -99,7 +99,8 @@ public class MainWindow extends JFrame {
         this.setupMainWindow();
 
         ImagePanel imagePanel = this.makeDrawingPane();
-        OptionsPanel optionsPanel = new OptionsPanel(this.drawer, this.baseGenerators, this.baseCarvers);
+        OptionsPanel optionsPanel = new OptionsPanel(
+                this.drawer, imagePanel, this.baseGenerators, this.baseCarvers);
 
         imagePanel.setAlignmentX(Component.LEFT_ALIGNMENT);
         optionsPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
@@ -138,10 +139,9 @@ public class MainWindow extends JFrame {
         g.setColor(Color.WHITE);
         g.fillRect(0, 0, width + 1, this.height + 1);
 
-        this.drawer = new ImageDrawer(image, 5);
-
         ImagePanel panel = new ImagePanel(image);
         panel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        this.drawer = panel.getImageDrawer();
         return panel;
     }
 }
@@ -12,14 +12,33 @@ import mazes.generators.base.BaseMazeGenerator;
 import mazes.generators.maze.MazeCarver;
 import misc.exceptions.NoPathExistsException;
 import misc.graphs.Graph;
+import misc.graphs.GraphProgressListener;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ItemEvent;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
+/**
+ * The controls underneath the maze.
+ *
+ * Generating and solving mazes can take several seconds for large mazes, so
+ * both run on background SwingWorkers rather then on the event dispatch thread.
+ * Only the most recent request matters: starting a new one cancels whichever
+ * task is still running, and results from a cancelled task are discarded.
+ *
+ * When "Animate" is checked, the panel also shows the carver removing walls and
+ * the solver visiting rooms as they happen, played back through an Animator.
+ */
 public class OptionsPanel extends JPanel {
+    // How many walls to remove or rooms to mark per frame when animating.
+    private static final int ANIMATION_STEPS_PER_FRAME = 20;
+
     private ImageDrawer drawer;
+    private ImagePanel imagePanel;
     private IDictionary<String, BaseMazeGenerator> baseGenerators;
     private IDictionary<String, MazeCarver> baseCarvers;
 
@@ -32,12 +51,22 @@ public class OptionsPanel extends JPanel {
     private Room start;
     private Room end;
 
-    public OptionsPanel(ImageDrawer drawer, 
-                        IDictionary<String, BaseMazeGenerator> baseGenerators, 
+    private JButton findPathButton;
+    private JProgressBar progressBar;
+    private JLabel statusLabel;
+    private JCheckBox animateCheckBox;
+    private BackgroundTask<?> currentTask;
+    private Animator animator;
+
+    public OptionsPanel(ImageDrawer drawer,
+                        ImagePanel imagePanel,
+                        IDictionary<String, BaseMazeGenerator> baseGenerators,
                         IDictionary<String, MazeCarver> baseCarvers) {
         this.drawer = drawer;
+        this.imagePanel = imagePanel;
         this.baseGenerators = baseGenerators;
         this.baseCarvers = baseCarvers;
+        this.animator = new Animator(imagePanel, ANIMATION_STEPS_PER_FRAME);
 
         this.buildLayout();
 
@@ -73,10 +102,19 @@ public class OptionsPanel extends JPanel {
         generateMazeButton.addActionListener(this::generateMaze);
         this.add(generateMazeButton, 3, 0, GridBagConstraints.EAST);
 
-        JButton findPathButton = new JButton();
-        findPathButton.setText("Find shortest path");
-        findPathButton.addActionListener(this::drawShortestPath);
-        this.add(findPathButton, 3, 1, GridBagConstraints.EAST);
+        this.findPathButton = new JButton();
+        this.findPathButton.setText("Find shortest path");
+        this.findPathButton.addActionListener(this::drawShortestPath);
+        this.add(this.findPathButton, 3, 1, GridBagConstraints.EAST);
+
+        this.progressBar = new JProgressBar(0, 100);
+        this.add(this.progressBar, 0, 2, GridBagConstraints.WEST, GridBagConstraints.HORIZONTAL, 0.0);
+
+        this.statusLabel = new JLabel(" ");
+        this.add(this.statusLabel, 1, 2, GridBagConstraints.WEST, GridBagConstraints.HORIZONTAL, 1.0);
+
+        this.animateCheckBox = new JCheckBox("Animate");
+        this.add(this.animateCheckBox, 3, 2, GridBagConstraints.EAST);
     }
 
     private String[] getKeysAsArray(IDictionary<String, ?> dict) {
@@ -102,45 +140,228 @@ public class OptionsPanel extends JPanel {
     }
 
     private void generateMaze(ActionEvent event) {
-        this.drawer.clear();
-
         BaseMazeGenerator generator = this.baseGenerators.get(this.baseGeneratorName);
         MazeCarver carver = this.baseCarvers.get(this.baseCarverName);
-
         Rectangle bound = drawer.getBoundingBox();
-        this.originalMaze = generator.generateBaseMaze(bound);
-        this.currentMaze = carver.generateMaze(this.originalMaze);
+        boolean animate = this.animateCheckBox.isSelected();
+
+        // The old maze is about to be replaced, so there is nothing to solve until the new one arrives.
+        this.findPathButton.setEnabled(false);
+
+        this.startTask(new BackgroundTask<Maze[]>() {
+            private Room newStart;
+            private Room newEnd;
+
+            @Override
+            protected Maze[] doInBackground() {
+                this.stage("Generating base maze...", 0);
+                Maze original = generator.generateBaseMaze(bound);
+
+                this.stage("Carving maze...", 40);
+                GraphProgressListener<Room, Wall> listener = animate ? this.animateCarving(original) : null;
+                Maze current = MazeCarver.removeWalls(original, carver.returnWallsToRemove(original, listener));
 
-        this.start = this.currentMaze.getRoom(new Point(bound.x + 5, bound.y + 5));
-        this.end = this.currentMaze.getRoom(new Point(bound.x + bound.width - 5, bound.y + bound.height - 5));
+                this.stage("Locating start and end...", 80);
+                this.newStart = current.getRoom(new Point(bound.x + 5, bound.y + 5));
+                this.newEnd = current.getRoom(new Point(bound.x + bound.width - 5, bound.y + bound.height - 5));
+                return new Maze[] {original, current};
+            }
+
+            /**
+             * Draws the uncarved maze, then returns a listener that erases
+             * each wall as the carver removes it.
+             */
+            private GraphProgressListener<Room, Wall> animateCarving(Maze original) {
+                ISet<Wall> walls = new ChainedHashSet<>(original.getWalls());
+                Maze shown = new Maze(original.getRooms(), walls, original.getUntouchableWalls());
+                this.animate(() -> {
+                    drawer.clear();
+                    drawer.drawMaze(shown);
+                });
+
+                return new GraphProgressListener<Room, Wall>() {
+                    @Override
+                    public void edgesAccepted(IList<Wall> removed) {
+                        checkCancelled();
+                        for (Wall wall : removed) {
+                            animate(() -> {
+                                shown.getWalls().remove(wall);
+                                drawer.wallRemoved(wall);
+                            });
+                        }
+                    }
+                };
+            }
+
+            @Override
+            protected void succeeded(Maze[] mazes) {
+                OptionsPanel.this.originalMaze = mazes[0];
+                OptionsPanel.this.currentMaze = mazes[1];
+                OptionsPanel.this.start = this.newStart;
+                OptionsPanel.this.end = this.newEnd;
 
-        this.drawer.drawMaze(this.currentMaze);
-        drawer.drawPoint(start.getCenter());
-        drawer.drawPoint(end.getCenter());
+                if (animate) {
+                    // The animation already left the carved maze on screen.
+                    this.animate(this::drawEndpoints);
+                } else {
+                    drawer.clear();
+                    drawer.drawMaze(OptionsPanel.this.currentMaze);
+                    this.drawEndpoints();
+                    OptionsPanel.this.imagePanel.repaintDirtyRegions();
+                }
+            }
+
+            private void drawEndpoints() {
+                drawer.drawPoint(OptionsPanel.this.start.getCenter());
+                drawer.drawPoint(OptionsPanel.this.end.getCenter());
+                OptionsPanel.this.findPathButton.setEnabled(true);
+            }
+        });
     }
 
     private void drawShortestPath(ActionEvent event) {
-        Graph<Room, Wall> graph = new Graph<>(
-                this.originalMaze.getRooms(),
-                this.subtract(this.originalMaze.getWalls(), this.currentMaze.getWalls()));
-        try {
-            IList<Wall> path = graph.findShortestPathBetween(this.start, this.end);
-            this.drawer.drawPath(path);
-        } catch (NoPathExistsException ex) {
-            JOptionPane.showMessageDialog(
-                    null,
-                    "This maze seems to be unsolveable -- no path could be found between the start and the end!");
+        Maze original = this.originalMaze;
+        Maze current = this.currentMaze;
+        Room pathStart = this.start;
+        Room pathEnd = this.end;
+        if (original == null) {
+            return;
+        }
+        boolean animate = this.animateCheckBox.isSelected();
+
+        this.startTask(new BackgroundTask<IList<Wall>>() {
+            @Override
+            protected IList<Wall> doInBackground() {
+                this.stage("Building graph...", 0);
+                Graph<Room, Wall> graph = new Graph<>(
+                        original.getRooms(),
+                        original.getWalls().difference(current.getWalls()));
+
+                this.stage("Finding shortest path...", 50);
+                if (animate) {
+                    graph.setProgressListener(new GraphProgressListener<Room, Wall>() {
+                        @Override
+                        public void verticesSettled(IList<Room> rooms) {
+                            checkCancelled();
+                            for (Room room : rooms) {
+                                animate(() -> drawer.drawMarker(room.getCenter()));
+                            }
+                        }
+                    });
+                }
+                return graph.findShortestPathBetween(pathStart, pathEnd);
+            }
+
+            @Override
+            protected void succeeded(IList<Wall> path) {
+                if (animate) {
+                    this.animate(() -> drawer.drawPath(path));
+                } else {
+                    drawer.drawPath(path);
+                    OptionsPanel.this.imagePanel.repaintDirtyRegions();
+                }
+            }
+
+            @Override
+            protected void failed(Throwable cause) {
+                if (cause instanceof NoPathExistsException) {
+                    JOptionPane.showMessageDialog(
+                            null,
+                            "This maze seems to be unsolveable -- no path could be found between the start and "
+                                    + "the end!");
+                } else {
+                    super.failed(cause);
+                }
+            }
+        });
+    }
+
+    /**
+     * Cancels whatever task is currently running (if any) and starts the given one.
+     */
+    private void startTask(BackgroundTask<?> task) {
+        if (this.currentTask != null) {
+            this.currentTask.cancel(true);
         }
+        this.animator.cancel();
+        this.currentTask = task;
+        task.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName()) && this.currentTask == task) {
+                this.progressBar.setValue((Integer) e.getNewValue());
+            }
+        });
+        task.execute();
     }
 
-    private <T> ISet<T> subtract(ISet<T> bigger, ISet<T> smaller) {
-        ISet<T> output = new ChainedHashSet<>();
-        for (T item : bigger) {
-            if (!smaller.contains(item)) {
-                output.add(item);
+    /**
+     * A SwingWorker that reports its progress to the progress bar and status
+     * label, and silently discards its result if it was cancelled.
+     *
+     * Subclasses do their work in 'doInBackground' (off the event dispatch thread)
+     * and apply the result in 'succeeded' (on the event dispatch thread).
+     */
+    private abstract class BackgroundTask<T> extends SwingWorker<T, String> {
+        /**
+         * Reports that the task has moved on to a new stage.
+         *
+         * @throws CancellationException  if the task was cancelled, to stop doing pointless work
+         */
+        protected void stage(String description, int progress) {
+            this.checkCancelled();
+            this.publish(description);
+            this.setProgress(progress);
+        }
+
+        /**
+         * @throws CancellationException  if the task was cancelled, to stop doing pointless work
+         */
+        protected void checkCancelled() {
+            if (this.isCancelled()) {
+                throw new CancellationException();
+            }
+        }
+
+        /**
+         * Queues up a drawing step on the animator. The step is skipped if this
+         * task has been cancelled or replaced by the time it comes up.
+         */
+        protected void animate(Runnable step) {
+            OptionsPanel.this.animator.enqueue(() -> {
+                if (OptionsPanel.this.currentTask == this && !this.isCancelled()) {
+                    step.run();
+                }
+            });
+        }
+
+        @Override
+        protected void process(List<String> descriptions) {
+            if (OptionsPanel.this.currentTask == this && !this.isCancelled()) {
+                OptionsPanel.this.statusLabel.setText(descriptions.get(descriptions.size() - 1));
             }
         }
-        return output;
+
+        @Override
+        protected final void done() {
+            if (this.isCancelled()) {
+                return;
+            }
+            OptionsPanel.this.progressBar.setValue(100);
+            OptionsPanel.this.statusLabel.setText("Done.");
+            try {
+                this.succeeded(this.get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                this.failed(ex.getCause());
+            }
+        }
+
+        protected abstract void succeeded(T result);
+
+        protected void failed(Throwable cause) {
+            OptionsPanel.this.statusLabel.setText("Error: " + cause);
+            cause.printStackTrace();
+        }
     }
 
     private void add(JComponent component, int x, int y, int anchor, int fill, double weightX) {
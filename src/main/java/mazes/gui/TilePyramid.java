@@ -0,0 +1,172 @@
+package mazes.gui;
+
+import datastructures.concrete.DoubleLinkedList;
+import datastructures.concrete.dictionaries.ChainedHashDictionary;
+import datastructures.interfaces.IDictionary;
+import datastructures.interfaces.IList;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Pre-rendered square tiles of whatever an ImageDrawer has drawn, at several
+ * zoom levels.
+ *
+ * Level 0 is the image itself; each level after that is twice as large in each
+ * direction as the one before. Tiles are rendered the first time someone asks
+ * for them, and the least recently used tiles are thrown away once the cache
+ * holds more then 'capacity' of them.
+ */
+class TilePyramid {
+    public static final int TILE_SIZE = 256;
+    public static final int MAX_LEVEL = 6;
+
+    private ImageDrawer drawer;
+    private int capacity;
+    private IDictionary<Long, Tile> tiles;
+
+    // The most recently used tile sits right after 'head', and the least
+    // recently used one right before 'tail'.
+    private Tile head;
+    private Tile tail;
+
+    /**
+     * @throws IllegalArgumentException  if capacity is not positive
+     */
+    public TilePyramid(ImageDrawer drawer, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.drawer = drawer;
+        this.capacity = capacity;
+        this.clear();
+    }
+
+    /**
+     * Returns how many pixels of the given level one pixel of the image covers.
+     */
+    public static double scaleOf(int level) {
+        return 1 << level;
+    }
+
+    /**
+     * Returns the region of the original image the given tile covers.
+     */
+    public static Rectangle regionOf(int level, int column, int row) {
+        double scale = scaleOf(level);
+        int left = (int) Math.floor(column * TILE_SIZE / scale);
+        int top = (int) Math.floor(row * TILE_SIZE / scale);
+        int right = (int) Math.ceil((column + 1) * TILE_SIZE / scale);
+        int bottom = (int) Math.ceil((row + 1) * TILE_SIZE / scale);
+        return new Rectangle(left, top, right - left, bottom - top);
+    }
+
+    /**
+     * Returns the given tile, rendering it first if it is not in the cache.
+     *
+     * @throws IllegalArgumentException  if the level is not between 0 and MAX_LEVEL
+     */
+    public BufferedImage getTile(int level, int column, int row) {
+        if (level < 0 || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("No such level: " + level);
+        }
+        long key = key(level, column, row);
+        Tile tile = this.tiles.getOrDefault(key, null);
+        if (tile == null) {
+            tile = new Tile(key, level, column, row, this.render(level, column, row));
+            this.tiles.put(key, tile);
+            if (this.tiles.size() > this.capacity) {
+                Tile oldest = this.tail.previous;
+                this.unlink(oldest);
+                this.tiles.remove(oldest.key);
+            }
+        } else {
+            this.unlink(tile);
+        }
+        this.linkFirst(tile);
+        return tile.image;
+    }
+
+    /**
+     * Returns the number of tiles currently cached.
+     */
+    public int size() {
+        return this.tiles.size();
+    }
+
+    /**
+     * Throws away every cached tile that overlaps the given region of the
+     * original image, so it will be rendered again next time it is needed.
+     */
+    public void invalidate(Rectangle region) {
+        IList<Tile> stale = new DoubleLinkedList<>();
+        this.tiles.forEach((key, tile) -> {
+            if (regionOf(tile.level, tile.column, tile.row).intersects(region)) {
+                stale.add(tile);
+            }
+        });
+        for (Tile tile : stale) {
+            this.unlink(tile);
+            this.tiles.remove(tile.key);
+        }
+    }
+
+    /**
+     * Throws away every cached tile.
+     */
+    public void clear() {
+        this.tiles = new ChainedHashDictionary<>();
+        this.head = new Tile(-1, -1, -1, -1, null);
+        this.tail = new Tile(-1, -1, -1, -1, null);
+        this.head.next = this.tail;
+        this.tail.previous = this.head;
+    }
+
+    private BufferedImage render(int level, int column, int row) {
+        double scale = scaleOf(level);
+        BufferedImage image = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.translate(-column * TILE_SIZE, -row * TILE_SIZE);
+        graphics.scale(scale, scale);
+        this.drawer.drawRegion(graphics, regionOf(level, column, row), scale);
+        graphics.dispose();
+        return image;
+    }
+
+    private static long key(int level, int column, int row) {
+        return ((long) level << 56) | ((long) column << 28) | row;
+    }
+
+    private void linkFirst(Tile tile) {
+        tile.previous = this.head;
+        tile.next = this.head.next;
+        this.head.next.previous = tile;
+        this.head.next = tile;
+    }
+
+    private void unlink(Tile tile) {
+        tile.previous.next = tile.next;
+        tile.next.previous = tile.previous;
+        tile.previous = null;
+        tile.next = null;
+    }
+
+    private static class Tile {
+        public final long key;
+        public final int level;
+        public final int column;
+        public final int row;
+        public final BufferedImage image;
+        public Tile previous;
+        public Tile next;
+
+        public Tile(long key, int level, int column, int row, BufferedImage image) {
+            this.key = key;
+            this.level = level;
+            this.column = column;
+            this.row = row;
+            this.image = image;
+        }
+    }
+}
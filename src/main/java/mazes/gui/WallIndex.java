@@ -0,0 +1,122 @@
+package mazes.gui;
+
+import datastructures.concrete.ChainedHashSet;
+import datastructures.concrete.DoubleLinkedList;
+import datastructures.interfaces.IList;
+import datastructures.interfaces.ISet;
+import mazes.entities.LineSegment;
+import mazes.entities.Wall;
+
+import java.awt.*;
+
+/**
+ * A uniform grid over the drawing area that lets us quickly find every wall
+ * whose drawn line overlaps some rectangle.
+ *
+ * Each wall is stored in every cell its (slightly padded) bounding box
+ * touches. Walls lying partly outside the grid are clamped into the edge cells.
+ */
+class WallIndex {
+    private static final int TARGET_WALLS_PER_CELL = 4;
+    private static final int MIN_CELL_SIZE = 8;
+
+    private Rectangle bounds;
+    private int bleed;
+    private int cellSize;
+    private int columns;
+    private int rows;
+    private IList<Wall>[] cells;
+
+    /**
+     * Creates an empty index covering the given area, with cells sized so that
+     * 'expectedWalls' walls would land a handful to each cell.
+     *
+     * @param bleed  how far past its dividing line a wall may draw, in pixels
+     */
+    @SuppressWarnings("unchecked")
+    public WallIndex(Rectangle bounds, int expectedWalls, int bleed) {
+        this.bounds = new Rectangle(bounds);
+        this.bleed = bleed;
+
+        double area = Math.max(1.0, (double) bounds.width * bounds.height);
+        double cells = Math.max(1.0, (double) expectedWalls / TARGET_WALLS_PER_CELL);
+        this.cellSize = Math.max(MIN_CELL_SIZE, (int) Math.ceil(Math.sqrt(area / cells)));
+        this.columns = Math.max(1, (bounds.width + this.cellSize - 1) / this.cellSize);
+        this.rows = Math.max(1, (bounds.height + this.cellSize - 1) / this.cellSize);
+        this.cells = (IList<Wall>[]) new IList[this.columns * this.rows];
+    }
+
+    public void add(Wall wall) {
+        Rectangle box = this.boundsOf(wall);
+        for (int row = this.row(box.y); row <= this.row(box.y + box.height); row++) {
+            for (int column = this.column(box.x); column <= this.column(box.x + box.width); column++) {
+                int cell = row * this.columns + column;
+                if (this.cells[cell] == null) {
+                    this.cells[cell] = new DoubleLinkedList<>();
+                }
+                this.cells[cell].add(wall);
+            }
+        }
+    }
+
+    public void remove(Wall wall) {
+        Rectangle box = this.boundsOf(wall);
+        for (int row = this.row(box.y); row <= this.row(box.y + box.height); row++) {
+            for (int column = this.column(box.x); column <= this.column(box.x + box.width); column++) {
+                int cell = row * this.columns + column;
+                if (this.cells[cell] != null) {
+                    // Cells only hold a handful of walls, so rebuilding is cheap.
+                    IList<Wall> remaining = new DoubleLinkedList<>();
+                    for (Wall other : this.cells[cell]) {
+                        if (!other.equals(wall)) {
+                            remaining.add(other);
+                        }
+                    }
+                    this.cells[cell] = remaining;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns every wall whose drawn line may overlap the given region.
+     */
+    public ISet<Wall> query(Rectangle region) {
+        ISet<Wall> output = new ChainedHashSet<>();
+        for (int row = this.row(region.y); row <= this.row(region.y + region.height); row++) {
+            for (int column = this.column(region.x); column <= this.column(region.x + region.width); column++) {
+                IList<Wall> cell = this.cells[row * this.columns + column];
+                if (cell != null) {
+                    for (Wall wall : cell) {
+                        if (this.boundsOf(wall).intersects(region)) {
+                            output.add(wall);
+                        }
+                    }
+                }
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Returns the area the given wall may draw into.
+     */
+    public Rectangle boundsOf(Wall wall) {
+        LineSegment line = wall.getDividingLine();
+        int minX = Math.min(line.start.x, line.end.x);
+        int minY = Math.min(line.start.y, line.end.y);
+        return new Rectangle(
+                minX - this.bleed,
+                minY - this.bleed,
+                Math.abs(line.end.x - line.start.x) + 2 * this.bleed,
+                Math.abs(line.end.y - line.start.y) + 2 * this.bleed);
+    }
+
+    private int column(int x) {
+        return Math.max(0, Math.min(this.columns - 1, (x - this.bounds.x) / this.cellSize));
+    }
+
+    private int row(int y) {
+        return Math.max(0, Math.min(this.rows - 1, (y - this.bounds.y) / this.cellSize));
+    }
+}
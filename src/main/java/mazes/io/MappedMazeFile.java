@@ -0,0 +1,440 @@
+package mazes.io;
+
+import datastructures.interfaces.ISet;
+import mazes.entities.LineSegment;
+import mazes.entities.Maze;
+import mazes.entities.Room;
+import mazes.entities.Wall;
+
+import java.awt.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only view of a maze file written by MazeFileWriter.
+ *
+ * The file is memory-mapped rather than parsed, so opening even a very large
+ * maze is nearly instant, and several processes mapping the same file will
+ * share the same physical pages. Rooms and walls are identified by integer ids;
+ * Room and Wall objects are only created when a client explicitly asks for one.
+ *
+ * The int-indexed accessors (getNeighbor, isRemoved, etc.) are safe to call
+ * from multiple threads at once.
+ *
+ * Note: a single mapping is limited to 2 GB, so that is also the limit on the
+ * size of a maze file.
+ */
+public class MappedMazeFile {
+    private final int numRooms;
+    private final int numWalls;
+
+    private final IntBuffer roomCenters;
+    private final IntBuffer polygonOffsets;
+    private final IntBuffer polygonPoints;
+    private final IntBuffer wallRoom1;
+    private final IntBuffer wallRoom2;
+    private final IntBuffer wallLineStart;
+    private final IntBuffer wallLineEnd;
+    private final IntBuffer adjacencyOffsets;
+    private final IntBuffer adjacency;
+    private final LongBuffer untouchable;
+    private final LongBuffer removed;
+
+    private final int numUntouchable;
+    private final int numRemoved;
+
+    /**
+     * Maps the given file into memory.
+     *
+     * @throws IOException  if the file cannot be read, or is not a maze file
+     */
+    public static MappedMazeFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping remains valid after the channel is closed.
+            return new MappedMazeFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Wraps a buffer whose contents, starting at index 0, are a maze file.
+     *
+     * @throws IOException  if the buffer does not contain a maze file
+     */
+    public MappedMazeFile(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < MazeFileFormat.HEADER_INTS * 4) {
+            throw new IOException("Truncated maze file");
+        }
+        if (buffer.getInt(0) != MazeFileFormat.MAGIC) {
+            throw new IOException("Not a maze file");
+        }
+        if (buffer.getInt(4) != MazeFileFormat.VERSION) {
+            throw new IOException("Unsupported maze file version: " + buffer.getInt(4));
+        }
+
+        this.numRooms = buffer.getInt(8);
+        int numPolygonPoints = buffer.getInt(12);
+        this.numWalls = buffer.getInt(16);
+        int words = buffer.getInt(20);
+
+        Sections sections = new Sections(buffer, MazeFileFormat.align(MazeFileFormat.HEADER_INTS * 4));
+        this.roomCenters = sections.ints(this.numRooms);
+        this.polygonOffsets = sections.ints(this.numRooms + 1);
+        this.polygonPoints = sections.ints(numPolygonPoints);
+        this.wallRoom1 = sections.ints(this.numWalls);
+        this.wallRoom2 = sections.ints(this.numWalls);
+        this.wallLineStart = sections.ints(this.numWalls);
+        this.wallLineEnd = sections.ints(this.numWalls);
+        this.adjacencyOffsets = sections.ints(this.numRooms + 1);
+        this.adjacency = sections.ints(2 * this.numWalls);
+        this.untouchable = sections.longs(words);
+        this.removed = sections.longs(words);
+
+        this.numUntouchable = bitCount(this.untouchable);
+        this.numRemoved = bitCount(this.removed);
+    }
+
+    /**
+     * Returns the number of rooms in the maze.
+     */
+    public int numRooms() {
+        return this.numRooms;
+    }
+
+    /**
+     * Returns the total number of walls in the maze, including untouchable and removed walls.
+     */
+    public int numWalls() {
+        return this.numWalls;
+    }
+
+    public int getRoomX(int room) {
+        return MazeFileFormat.unpackX(this.roomCenters.get(room));
+    }
+
+    public int getRoomY(int room) {
+        return MazeFileFormat.unpackY(this.roomCenters.get(room));
+    }
+
+    /**
+     * Returns the id of the room whose center is the given point, or -1
+     * if there is no such room.
+     */
+    public int findRoom(Point center) {
+        if (center.x < 0 || center.x > MazeFileFormat.MAX_COORDINATE
+                || center.y < 0 || center.y > MazeFileFormat.MAX_COORDINATE) {
+            return -1;
+        }
+        int target = MazeFileFormat.pack(center);
+        int low = 0;
+        int high = this.numRooms - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = this.roomCenters.get(mid);
+            if (value < target) {
+                low = mid + 1;
+            } else if (value > target) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of walls touching the given room.
+     */
+    public int degree(int room) {
+        return this.adjacencyOffsets.get(room + 1) - this.adjacencyOffsets.get(room);
+    }
+
+    /**
+     * Returns the id of the i-th wall touching the given room.
+     */
+    public int getIncidentWall(int room, int i) {
+        return this.adjacency.get(this.adjacencyOffsets.get(room) + i);
+    }
+
+    /**
+     * Returns the id of the room on the other side of the i-th wall touching the given room.
+     */
+    public int getNeighbor(int room, int i) {
+        int wall = this.getIncidentWall(room, i);
+        int room1 = this.wallRoom1.get(wall);
+        return room1 == room ? this.wallRoom2.get(wall) : room1;
+    }
+
+    public int getWallRoom1(int wall) {
+        return this.wallRoom1.get(wall);
+    }
+
+    public int getWallRoom2(int wall) {
+        return this.wallRoom2.get(wall);
+    }
+
+    /**
+     * Returns 'true' if the given wall may never be removed.
+     */
+    public boolean isUntouchable(int wall) {
+        return testBit(this.untouchable, wall);
+    }
+
+    /**
+     * Returns 'true' if the given wall was carved out of the maze -- in other
+     * words, if it is a passage between its two rooms.
+     */
+    public boolean isRemoved(int wall) {
+        return testBit(this.removed, wall);
+    }
+
+    /**
+     * Returns a new Room object for the given room id.
+     */
+    public Room getRoom(int room) {
+        int start = this.polygonOffsets.get(room);
+        int end = this.polygonOffsets.get(room + 1);
+        int[] xs = new int[end - start];
+        int[] ys = new int[end - start];
+        for (int i = start; i < end; i++) {
+            int packed = this.polygonPoints.get(i);
+            xs[i - start] = MazeFileFormat.unpackX(packed);
+            ys[i - start] = MazeFileFormat.unpackY(packed);
+        }
+        return new Room(MazeFileFormat.unpack(this.roomCenters.get(room)), new Polygon(xs, ys, xs.length));
+    }
+
+    /**
+     * Returns a new Wall object for the given wall id.
+     */
+    public Wall getWall(int wall) {
+        return new Wall(
+                this.getRoom(this.wallRoom1.get(wall)),
+                this.getRoom(this.wallRoom2.get(wall)),
+                this.getDividingLine(wall));
+    }
+
+    private LineSegment getDividingLine(int wall) {
+        return new LineSegment(
+                MazeFileFormat.unpack(this.wallLineStart.get(wall)),
+                MazeFileFormat.unpack(this.wallLineEnd.get(wall)));
+    }
+
+    /**
+     * Returns a read-only view of the maze before it was carved: every wall
+     * that is not untouchable, including removed ones, is part of 'getWalls()'.
+     */
+    public Maze asBaseMaze() {
+        return new Maze(
+                new RoomSetView(),
+                new WallSetView(WallSetView.REMOVABLE, this.numWalls - this.numUntouchable),
+                new WallSetView(WallSetView.UNTOUCHABLE, this.numUntouchable));
+    }
+
+    /**
+     * Returns a read-only view of the carved maze: removed walls are omitted.
+     */
+    public Maze asCarvedMaze() {
+        return new Maze(
+                new RoomSetView(),
+                new WallSetView(WallSetView.STANDING, this.numWalls - this.numUntouchable - this.numRemoved),
+                new WallSetView(WallSetView.UNTOUCHABLE, this.numUntouchable));
+    }
+
+    /**
+     * Returns a read-only set of every wall that was carved out of the maze.
+     *
+     * Together with the rooms, these form the edges of the graph a solver should search.
+     */
+    public ISet<Wall> getRemovedWalls() {
+        return new WallSetView(WallSetView.REMOVED, this.numRemoved);
+    }
+
+    private static boolean testBit(LongBuffer bits, int index) {
+        return ((bits.get(index >>> 6) >>> index) & 1L) != 0;
+    }
+
+    private static int bitCount(LongBuffer bits) {
+        int count = 0;
+        for (int i = 0; i < bits.limit(); i++) {
+            count += Long.bitCount(bits.get(i));
+        }
+        return count;
+    }
+
+    /**
+     * Hands out consecutive, 8-byte-aligned slices of the underlying buffer.
+     */
+    private static class Sections {
+        private ByteBuffer buffer;
+        private long offset;
+
+        public Sections(ByteBuffer buffer, long offset) {
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        public IntBuffer ints(int count) throws IOException {
+            return this.slice(4L * count).asIntBuffer();
+        }
+
+        public LongBuffer longs(int count) throws IOException {
+            return this.slice(8L * count).asLongBuffer();
+        }
+
+        private ByteBuffer slice(long bytes) throws IOException {
+            if (bytes < 0 || this.offset + bytes > this.buffer.limit()) {
+                throw new IOException("Truncated maze file");
+            }
+            ByteBuffer duplicate = this.buffer.duplicate();
+            duplicate.position((int) this.offset);
+            duplicate.limit((int) (this.offset + bytes));
+            this.offset = MazeFileFormat.align(this.offset + bytes);
+            return duplicate.slice();
+        }
+    }
+
+    private class RoomSetView implements ISet<Room> {
+        @Override
+        public void add(Room item) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void remove(Room item) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean contains(Room item) {
+            return item != null && MappedMazeFile.this.findRoom(item.getCenter()) != -1;
+        }
+
+        @Override
+        public int size() {
+            return MappedMazeFile.this.numRooms;
+        }
+
+        @Override
+        public Iterator<Room> iterator() {
+            return new Iterator<Room>() {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return this.next < MappedMazeFile.this.numRooms;
+                }
+
+                @Override
+                public Room next() {
+                    if (!this.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return MappedMazeFile.this.getRoom(this.next++);
+                }
+            };
+        }
+    }
+
+    private class WallSetView implements ISet<Wall> {
+        public static final int REMOVABLE = 0;
+        public static final int STANDING = 1;
+        public static final int UNTOUCHABLE = 2;
+        public static final int REMOVED = 3;
+
+        private int kind;
+        private int size;
+
+        public WallSetView(int kind, int size) {
+            this.kind = kind;
+            this.size = size;
+        }
+
+        private boolean includes(int wall) {
+            boolean isUntouchable = MappedMazeFile.this.isUntouchable(wall);
+            switch (this.kind) {
+                case REMOVABLE:
+                    return !isUntouchable;
+                case STANDING:
+                    return !isUntouchable && !MappedMazeFile.this.isRemoved(wall);
+                case UNTOUCHABLE:
+                    return isUntouchable;
+                default:
+                    return MappedMazeFile.this.isRemoved(wall);
+            }
+        }
+
+        @Override
+        public void add(Wall item) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void remove(Wall item) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean contains(Wall item) {
+            if (item == null) {
+                return false;
+            }
+            int room1 = MappedMazeFile.this.findRoom(item.getRoom1().getCenter());
+            int room2 = MappedMazeFile.this.findRoom(item.getRoom2().getCenter());
+            if (room1 == -1 || room2 == -1) {
+                return false;
+            }
+            int degree = MappedMazeFile.this.degree(room1);
+            for (int i = 0; i < degree; i++) {
+                int wall = MappedMazeFile.this.getIncidentWall(room1, i);
+                if (MappedMazeFile.this.wallRoom1.get(wall) == room1
+                        && MappedMazeFile.this.wallRoom2.get(wall) == room2
+                        && this.includes(wall)
+                        && MappedMazeFile.this.getDividingLine(wall).equals(item.getDividingLine())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public Iterator<Wall> iterator() {
+            return new Iterator<Wall>() {
+                private int next = this.advance(0);
+
+                private int advance(int from) {
+                    while (from < MappedMazeFile.this.numWalls && !WallSetView.this.includes(from)) {
+                        from++;
+                    }
+                    return from;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return this.next < MappedMazeFile.this.numWalls;
+                }
+
+                @Override
+                public Wall next() {
+                    if (!this.hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Wall wall = MappedMazeFile.this.getWall(this.next);
+                    this.next = this.advance(this.next + 1);
+                    return wall;
+                }
+            };
+        }
+    }
+}
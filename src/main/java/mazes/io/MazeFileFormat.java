@@ -0,0 +1,87 @@
+package mazes.io;
+
+import java.awt.*;
+
+/**
+ * Constants and helpers shared by MazeFileWriter and MappedMazeFile.
+ *
+ * A maze file has the following layout. Every value is big-endian, and every
+ * section is padded so that it starts on an 8-byte boundary:
+ *
+ * - header:            MAGIC, VERSION, numRooms, numPolygonPoints, numWalls, numBitsetWords
+ * - roomCenters:       int[numRooms]            packed (x, y), sorted in ascending order
+ * - polygonOffsets:    int[numRooms + 1]        CSR offsets into polygonPoints
+ * - polygonPoints:     int[numPolygonPoints]    packed (x, y)
+ * - wallRoom1:         int[numWalls]            room id
+ * - wallRoom2:         int[numWalls]            room id
+ * - wallLineStart:     int[numWalls]            packed (x, y)
+ * - wallLineEnd:       int[numWalls]            packed (x, y)
+ * - adjacencyOffsets:  int[numRooms + 1]        CSR offsets into adjacency
+ * - adjacency:         int[2 * numWalls]        ids of the walls touching each room
+ * - untouchable:       long[numBitsetWords]     bit i is set if wall i is untouchable
+ * - removed:           long[numBitsetWords]     bit i is set if wall i was carved out
+ *
+ * Room ids are assigned in order of their packed center, which lets readers
+ * find a room by binary search instead of needing a hash table.
+ */
+final class MazeFileFormat {
+    public static final int MAGIC = 0x4D415A45;  // "MAZE"
+    public static final int VERSION = 1;
+    public static final int HEADER_INTS = 6;
+
+    /**
+     * Coordinates are packed into 16 bits each, so they must lie in [0, MAX_COORDINATE].
+     */
+    public static final int MAX_COORDINATE = 0xFFFF;
+
+    private MazeFileFormat() {
+        // Utility class: do not instantiate
+    }
+
+    /**
+     * Packs the given point into a single int.
+     *
+     * @throws IllegalArgumentException  if either coordinate does not fit into 16 bits
+     */
+    public static int pack(Point point) {
+        return pack(point.x, point.y);
+    }
+
+    /**
+     * Packs the given coordinates into a single int.
+     *
+     * @throws IllegalArgumentException  if either coordinate does not fit into 16 bits
+     */
+    public static int pack(int x, int y) {
+        if (x < 0 || x > MAX_COORDINATE || y < 0 || y > MAX_COORDINATE) {
+            throw new IllegalArgumentException("Coordinate out of range for maze file: " + x + ", " + y);
+        }
+        return (x << 16) | y;
+    }
+
+    public static int unpackX(int packed) {
+        return packed >>> 16;
+    }
+
+    public static int unpackY(int packed) {
+        return packed & 0xFFFF;
+    }
+
+    public static Point unpack(int packed) {
+        return new Point(unpackX(packed), unpackY(packed));
+    }
+
+    /**
+     * Returns the number of longs needed to hold one bit per wall.
+     */
+    public static int bitsetWords(int numWalls) {
+        return (numWalls + 63) / 64;
+    }
+
+    /**
+     * Rounds the given byte offset up to the next multiple of 8.
+     */
+    public static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+}
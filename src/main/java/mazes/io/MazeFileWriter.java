@@ -0,0 +1,221 @@
+package mazes.io;
+
+import datastructures.concrete.ChainedHashSet;
+import datastructures.interfaces.ISet;
+import mazes.entities.Maze;
+import mazes.entities.Room;
+import mazes.entities.Wall;
+
+import java.awt.*;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Writes mazes using the compact binary format described in MazeFileFormat.
+ *
+ * Use MappedMazeFile to read the result back.
+ */
+public class MazeFileWriter {
+    private MazeFileWriter() {
+        // Utility class: do not instantiate
+    }
+
+    /**
+     * Writes the given maze, with no walls marked as removed.
+     */
+    public static void write(Path path, Maze maze) throws IOException {
+        write(path, maze, new ChainedHashSet<>());
+    }
+
+    /**
+     * Writes the given base maze (one with a wall between every pair of adjacent rooms)
+     * along with the set of walls a MazeCarver decided to remove from it.
+     *
+     * @throws IllegalArgumentException  if a room or wall has coordinates that do not fit into the format
+     */
+    public static void write(Path path, Maze baseMaze, ISet<Wall> removedWalls) throws IOException {
+        try (OutputStream out = new FileOutputStream(path.toFile())) {
+            write(out, baseMaze, removedWalls);
+        }
+    }
+
+    /**
+     * Writes the given base maze and removed walls to the stream. The stream is
+     * flushed, but not closed.
+     *
+     * @throws IllegalArgumentException  if a room or wall has coordinates that do not fit into the format
+     */
+    public static void write(OutputStream rawOut, Maze baseMaze, ISet<Wall> removedWalls) throws IOException {
+        Room[] rooms = sortedRooms(baseMaze.getRooms());
+        int[] roomCenters = new int[rooms.length];
+        int numPolygonPoints = 0;
+        for (int i = 0; i < rooms.length; i++) {
+            roomCenters[i] = MazeFileFormat.pack(rooms[i].getCenter());
+            numPolygonPoints += rooms[i].getPolygon().npoints;
+        }
+
+        int numWalls = baseMaze.getWalls().size() + baseMaze.getUntouchableWalls().size();
+        int[] wallRoom1 = new int[numWalls];
+        int[] wallRoom2 = new int[numWalls];
+        int[] wallLineStart = new int[numWalls];
+        int[] wallLineEnd = new int[numWalls];
+        int words = MazeFileFormat.bitsetWords(numWalls);
+        long[] untouchable = new long[words];
+        long[] removed = new long[words];
+
+        int wallId = 0;
+        for (Wall wall : baseMaze.getWalls()) {
+            fillWall(wall, wallId, roomCenters, wallRoom1, wallRoom2, wallLineStart, wallLineEnd);
+            if (removedWalls.contains(wall)) {
+                removed[wallId >>> 6] |= 1L << wallId;
+            }
+            wallId++;
+        }
+        for (Wall wall : baseMaze.getUntouchableWalls()) {
+            fillWall(wall, wallId, roomCenters, wallRoom1, wallRoom2, wallLineStart, wallLineEnd);
+            untouchable[wallId >>> 6] |= 1L << wallId;
+            wallId++;
+        }
+
+        // Build the CSR adjacency: count the degree of every room, prefix-sum
+        // the counts into offsets, then drop each wall into both of its rooms.
+        int[] adjacencyOffsets = new int[rooms.length + 1];
+        for (int i = 0; i < numWalls; i++) {
+            adjacencyOffsets[wallRoom1[i] + 1]++;
+            adjacencyOffsets[wallRoom2[i] + 1]++;
+        }
+        for (int i = 0; i < rooms.length; i++) {
+            adjacencyOffsets[i + 1] += adjacencyOffsets[i];
+        }
+        int[] adjacency = new int[2 * numWalls];
+        int[] cursor = Arrays.copyOf(adjacencyOffsets, rooms.length);
+        for (int i = 0; i < numWalls; i++) {
+            adjacency[cursor[wallRoom1[i]]++] = i;
+            adjacency[cursor[wallRoom2[i]]++] = i;
+        }
+
+        SectionOutput out = new SectionOutput(rawOut);
+        out.writeInt(MazeFileFormat.MAGIC);
+        out.writeInt(MazeFileFormat.VERSION);
+        out.writeInt(rooms.length);
+        out.writeInt(numPolygonPoints);
+        out.writeInt(numWalls);
+        out.writeInt(words);
+        out.pad();
+
+        out.writeInts(roomCenters);
+
+        int offset = 0;
+        for (Room room : rooms) {
+            out.writeInt(offset);
+            offset += room.getPolygon().npoints;
+        }
+        out.writeInt(offset);
+        out.pad();
+
+        for (Room room : rooms) {
+            Polygon polygon = room.getPolygon();
+            for (int i = 0; i < polygon.npoints; i++) {
+                out.writeInt(MazeFileFormat.pack(polygon.xpoints[i], polygon.ypoints[i]));
+            }
+        }
+        out.pad();
+
+        out.writeInts(wallRoom1);
+        out.writeInts(wallRoom2);
+        out.writeInts(wallLineStart);
+        out.writeInts(wallLineEnd);
+        out.writeInts(adjacencyOffsets);
+        out.writeInts(adjacency);
+        out.writeLongs(untouchable);
+        out.writeLongs(removed);
+        out.flush();
+    }
+
+    private static Room[] sortedRooms(ISet<Room> rooms) {
+        // Sort by packed center, keeping track of where each room came from in
+        // the low half of each key.
+        Room[] unsorted = new Room[rooms.size()];
+        long[] keys = new long[rooms.size()];
+        int i = 0;
+        for (Room room : rooms) {
+            unsorted[i] = room;
+            keys[i] = ((long) MazeFileFormat.pack(room.getCenter()) << 32) | i;
+            i++;
+        }
+        Arrays.sort(keys);
+
+        Room[] output = new Room[unsorted.length];
+        for (int j = 0; j < keys.length; j++) {
+            output[j] = unsorted[(int) keys[j]];
+        }
+        return output;
+    }
+
+    private static void fillWall(Wall wall, int wallId, int[] roomCenters,
+                                 int[] wallRoom1, int[] wallRoom2, int[] wallLineStart, int[] wallLineEnd) {
+        wallRoom1[wallId] = roomId(roomCenters, wall.getRoom1());
+        wallRoom2[wallId] = roomId(roomCenters, wall.getRoom2());
+        wallLineStart[wallId] = MazeFileFormat.pack(wall.getDividingLine().getStart());
+        wallLineEnd[wallId] = MazeFileFormat.pack(wall.getDividingLine().getEnd());
+    }
+
+    private static int roomId(int[] roomCenters, Room room) {
+        int id = Arrays.binarySearch(roomCenters, MazeFileFormat.pack(room.getCenter()));
+        if (id < 0) {
+            throw new IllegalArgumentException("Wall refers to a room not contained in the maze: " + room);
+        }
+        return id;
+    }
+
+    /**
+     * A DataOutputStream that remembers how many bytes it has written so it
+     * can pad each section out to an 8-byte boundary.
+     */
+    private static class SectionOutput {
+        private DataOutputStream out;
+        private long written;
+
+        public SectionOutput(OutputStream out) {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+            this.written = 0;
+        }
+
+        public void writeInt(int value) throws IOException {
+            this.out.writeInt(value);
+            this.written += 4;
+        }
+
+        public void writeInts(int[] values) throws IOException {
+            for (int value : values) {
+                this.out.writeInt(value);
+            }
+            this.written += 4L * values.length;
+            this.pad();
+        }
+
+        public void writeLongs(long[] values) throws IOException {
+            for (long value : values) {
+                this.out.writeLong(value);
+            }
+            this.written += 8L * values.length;
+        }
+
+        public void pad() throws IOException {
+            long aligned = MazeFileFormat.align(this.written);
+            while (this.written < aligned) {
+                this.out.writeByte(0);
+                this.written++;
+            }
+        }
+
+        public void flush() throws IOException {
+            this.out.flush();
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package mazes.io;
+
+import datastructures.concrete.DoubleLinkedList;
+import datastructures.interfaces.IList;
+import datastructures.interfaces.ISet;
+import mazes.entities.LineSegment;
+import mazes.entities.Maze;
+import mazes.entities.Wall;
+import mazes.gui.ImageDrawer;
+import misc.Searcher;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a maze (and optionally a path through it) as a PNG image.
+ *
+ * Rather then rendering the whole image at once, we render one horizontal
+ * strip at a time and immediately compress it into the output stream. This
+ * means the amount of pixel memory we need is proportional to the width of
+ * the image times the strip height, no matter how tall the output is.
+ *
+ * Before rendering, the walls are sorted by the first strip they overlap and
+ * then swept from top to bottom, so each wall is only drawn into the strips it
+ * can actually affect and is never copied once per strip.
+ */
+public class PngMazeExporter {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int COLOR_TYPE_RGB = 2;
+    private static final int IDAT_CHUNK_SIZE = 1 << 16;
+
+    // How far (in canvas pixels) a wall or path may bleed past its own
+    // coordinates: half of the 4px wall stroke, or the radius of a path point.
+    private static final int WALL_BLEED = 3;
+    private static final int PATH_BLEED = 5;
+
+    private int canvasWidth;
+    private int canvasHeight;
+    private int padding;
+    private double scale;
+    private int stripHeight;
+
+    /**
+     * @param canvasWidth  the width of the canvas the maze was generated on
+     * @param canvasHeight  the height of the canvas the maze was generated on
+     * @param padding  the padding between the canvas and the maze's bounding box
+     * @param scale  how much bigger the rendered image should be then the canvas
+     * @param stripHeight  how many rows of pixels to render at a time
+     * @throws IllegalArgumentException  if the scale or strip height is not positive
+     */
+    public PngMazeExporter(int canvasWidth, int canvasHeight, int padding, double scale, int stripHeight) {
+        if (scale <= 0 || stripHeight <= 0) {
+            throw new IllegalArgumentException("Scale and strip height must be positive");
+        }
+        this.canvasWidth = canvasWidth;
+        this.canvasHeight = canvasHeight;
+        this.padding = padding;
+        this.scale = scale;
+        this.stripHeight = stripHeight;
+    }
+
+    /**
+     * Returns the width of the output image, in pixels.
+     */
+    public int getImageWidth() {
+        return (int) Math.ceil(this.canvasWidth * this.scale);
+    }
+
+    /**
+     * Returns the height of the output image, in pixels.
+     */
+    public int getImageHeight() {
+        return (int) Math.ceil(this.canvasHeight * this.scale);
+    }
+
+    /**
+     * Writes the maze and path to the stream. The stream is flushed, but not closed.
+     *
+     * Pass in an empty list if there is no path to draw.
+     */
+    public void export(Maze maze, IList<Wall> path, OutputStream rawOut) throws IOException {
+        int width = this.getImageWidth();
+        int height = this.getImageHeight();
+        int numStrips = (height + this.stripHeight - 1) / this.stripHeight;
+
+        StripSweep wallSweep = this.makeWallSweep(maze, numStrips);
+        StripSweep pathSweep = this.makePathSweep(path, numStrips);
+
+        DataOutputStream out = new DataOutputStream(rawOut);
+        out.write(SIGNATURE);
+        this.writeHeader(out, width, height);
+
+        BufferedImage strip = new BufferedImage(width, this.stripHeight, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = ((DataBufferInt) strip.getRaster().getDataBuffer()).getData();
+        byte[] row = new byte[1 + 3 * width];
+        Rectangle boundingBox = new Rectangle(
+                this.padding,
+                this.padding,
+                this.canvasWidth - 2 * this.padding,
+                this.canvasHeight - 2 * this.padding);
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        DeflaterOutputStream compressed = new DeflaterOutputStream(new IdatOutputStream(out), deflater, 1 << 16);
+        for (int i = 0; i < numStrips; i++) {
+            int top = i * this.stripHeight;
+            int rows = Math.min(this.stripHeight, height - top);
+            this.renderStrip(strip, top, boundingBox, wallSweep.advanceTo(i), pathSweep.advanceTo(i));
+
+            for (int y = 0; y < rows; y++) {
+                // Filter type 0 (none), followed by the raw RGB bytes
+                row[0] = 0;
+                int base = y * width;
+                for (int x = 0; x < width; x++) {
+                    int rgb = pixels[base + x];
+                    row[1 + 3 * x] = (byte) (rgb >>> 16);
+                    row[2 + 3 * x] = (byte) (rgb >>> 8);
+                    row[3 + 3 * x] = (byte) rgb;
+                }
+                compressed.write(row);
+            }
+        }
+        compressed.close();
+        deflater.end();
+
+        this.writeChunk(out, "IEND", new byte[0], 0);
+        out.flush();
+    }
+
+    private void renderStrip(BufferedImage strip, int top, Rectangle boundingBox,
+                             IList<Wall> walls, IList<Wall> pathWalls) {
+        Graphics2D graphics = strip.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, strip.getWidth(), strip.getHeight());
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.translate(0, -top);
+        graphics.scale(this.scale, this.scale);
+
+        ImageDrawer drawer = new ImageDrawer(graphics, this.canvasWidth, this.canvasHeight);
+        graphics.setColor(Color.BLACK);
+        graphics.setStroke(new BasicStroke(4));
+        graphics.draw(boundingBox);
+        for (Wall wall : walls) {
+            drawer.drawLineSegment(wall.getDividingLine());
+        }
+        if (!pathWalls.isEmpty()) {
+            drawer.drawPath(pathWalls);
+        }
+        graphics.dispose();
+    }
+
+    private StripSweep makeWallSweep(Maze maze, int numStrips) {
+        ISet<Wall> walls = maze.getWalls();
+        ISet<Wall> untouchable = maze.getUntouchableWalls();
+        StripSweep sweep = new StripSweep(walls.size() + untouchable.size());
+        for (Wall wall : walls) {
+            this.addToSweep(sweep, wall, this.wallBounds(wall), numStrips);
+        }
+        for (Wall wall : untouchable) {
+            this.addToSweep(sweep, wall, this.wallBounds(wall), numStrips);
+        }
+        sweep.start();
+        return sweep;
+    }
+
+    private StripSweep makePathSweep(IList<Wall> path, int numStrips) {
+        StripSweep sweep = new StripSweep(path.size());
+        for (Wall wall : path) {
+            this.addToSweep(sweep, wall, this.pathBounds(wall), numStrips);
+        }
+        sweep.start();
+        return sweep;
+    }
+
+    /**
+     * Returns the range of canvas y coordinates the given wall may draw into, as {min, max}.
+     */
+    private int[] wallBounds(Wall wall) {
+        LineSegment line = wall.getDividingLine();
+        return new int[] {
+            Math.min(line.start.y, line.end.y) - WALL_BLEED,
+            Math.max(line.start.y, line.end.y) + WALL_BLEED
+        };
+    }
+
+    /**
+     * Returns the range of canvas y coordinates the given path segment may draw into, as {min, max}.
+     */
+    private int[] pathBounds(Wall wall) {
+        int y1 = wall.getRoom1().getCenter().y;
+        int y2 = wall.getRoom2().getCenter().y;
+        int mid = wall.getDividingLine().midpoint().y;
+        return new int[] {
+            Math.min(mid, Math.min(y1, y2)) - PATH_BLEED,
+            Math.max(mid, Math.max(y1, y2)) + PATH_BLEED
+        };
+    }
+
+    private void addToSweep(StripSweep sweep, Wall wall, int[] bounds, int numStrips) {
+        int first = Math.max(0, (int) Math.floor(bounds[0] * this.scale) / this.stripHeight);
+        int last = Math.min(numStrips - 1, (int) Math.ceil(bounds[1] * this.scale) / this.stripHeight);
+        if (first <= last) {
+            sweep.add(wall, first, last);
+        }
+    }
+
+    private void writeHeader(DataOutputStream out, int width, int height) throws IOException {
+        byte[] header = new byte[13];
+        writeInt(header, 0, width);
+        writeInt(header, 4, height);
+        header[8] = 8;                      // bit depth
+        header[9] = COLOR_TYPE_RGB;
+        header[10] = 0;                     // compression method: deflate
+        header[11] = 0;                     // filter method: adaptive
+        header[12] = 0;                     // interlace method: none
+        this.writeChunk(out, "IHDR", header, header.length);
+    }
+
+    private void writeChunk(DataOutputStream out, String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        out.writeInt(length);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private static void writeInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    /**
+     * Hands out the walls overlapping each strip, as long as the strips are
+     * visited from top to bottom.
+     *
+     * Every wall is stored once, along with the first and last strip it touches.
+     * The walls are sorted by their first strip, and each call to 'advanceTo'
+     * picks up the walls starting in that strip and drops the ones that ended
+     * above it, so only the walls crossing the current strip are held onto.
+     *
+     * Walls are always handed out in the order they were added, which keeps
+     * consecutive path segments next to each other.
+     */
+    private static class StripSweep {
+        private Wall[] walls;
+        private int[] firstStrip;
+        private int[] lastStrip;
+        private int size;
+
+        private int[] order;
+        private int next;
+        private int[] active;
+        private int numActive;
+
+        public StripSweep(int capacity) {
+            this.walls = new Wall[capacity];
+            this.firstStrip = new int[capacity];
+            this.lastStrip = new int[capacity];
+            this.size = 0;
+        }
+
+        public void add(Wall wall, int first, int last) {
+            this.walls[this.size] = wall;
+            this.firstStrip[this.size] = first;
+            this.lastStrip[this.size] = last;
+            this.size++;
+        }
+
+        /**
+         * Sorts the walls added so far; call this once, before the first 'advanceTo'.
+         */
+        public void start() {
+            double[] keys = new double[this.size];
+            for (int i = 0; i < this.size; i++) {
+                keys[i] = this.firstStrip[i];
+            }
+            this.order = Searcher.sortIdsByKey(keys);
+            this.next = 0;
+            this.active = new int[this.size];
+            this.numActive = 0;
+        }
+
+        /**
+         * Returns the walls overlapping the given strip. Strips must be visited in
+         * increasing order.
+         */
+        public IList<Wall> advanceTo(int strip) {
+            int kept = 0;
+            for (int i = 0; i < this.numActive; i++) {
+                int id = this.active[i];
+                if (this.lastStrip[id] >= strip) {
+                    this.active[kept++] = id;
+                } else {
+                    // Let walls we're done with be garbage collected as we go
+                    this.walls[id] = null;
+                }
+            }
+            this.numActive = kept;
+
+            while (this.next < this.size && this.firstStrip[this.order[this.next]] <= strip) {
+                this.active[this.numActive++] = this.order[this.next++];
+            }
+            Arrays.sort(this.active, 0, this.numActive);
+
+            IList<Wall> output = new DoubleLinkedList<>();
+            for (int i = 0; i < this.numActive; i++) {
+                output.add(this.walls[this.active[i]]);
+            }
+            return output;
+        }
+    }
+
+    /**
+     * Buffers compressed image data and writes it out as a series of IDAT chunks.
+     *
+     * Closing this stream writes the final chunk but does not close the underlying stream.
+     */
+    private class IdatOutputStream extends OutputStream {
+        private DataOutputStream out;
+        private byte[] buffer;
+        private int length;
+
+        public IdatOutputStream(DataOutputStream out) {
+            this.out = out;
+            this.buffer = new byte[IDAT_CHUNK_SIZE];
+            this.length = 0;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (this.length == this.buffer.length) {
+                this.flushChunk();
+            }
+            this.buffer[this.length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int count) throws IOException {
+            while (count > 0) {
+                if (this.length == this.buffer.length) {
+                    this.flushChunk();
+                }
+                int toCopy = Math.min(count, this.buffer.length - this.length);
+                System.arraycopy(bytes, offset, this.buffer, this.length, toCopy);
+                this.length += toCopy;
+                offset += toCopy;
+                count -= toCopy;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.flushChunk();
+        }
+
+        private void flushChunk() throws IOException {
+            if (this.length > 0) {
+                PngMazeExporter.this.writeChunk(this.out, "IDAT", this.buffer, this.length);
+                this.length = 0;
+            }
+        }
+    }
+}
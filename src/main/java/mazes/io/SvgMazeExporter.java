@@ -0,0 +1,141 @@
+package mazes.io;
+
+import datastructures.interfaces.IList;
+import mazes.entities.LineSegment;
+import mazes.entities.Maze;
+import mazes.entities.Wall;
+
+import java.awt.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a maze (and optionally a path through it) as an SVG document.
+ *
+ * Walls are streamed straight to the output as they are visited, so the
+ * exporter never holds more then a few kilobytes regardless of how large the
+ * maze or the requested output size is. The drawing matches ImageDrawer:
+ * black walls with a border around the bounding box, and the path as red
+ * curves passing through the midpoint of each wall it crosses.
+ */
+public class SvgMazeExporter {
+    // Long 'd' attributes are slow for some viewers to parse, so we start a
+    // new path element every so often.
+    private static final int SEGMENTS_PER_ELEMENT = 1000;
+
+    private int canvasWidth;
+    private int canvasHeight;
+    private int padding;
+    private double scale;
+
+    /**
+     * @param canvasWidth  the width of the canvas the maze was generated on
+     * @param canvasHeight  the height of the canvas the maze was generated on
+     * @param padding  the padding between the canvas and the maze's bounding box
+     * @param scale  how much bigger the rendered document should be then the canvas
+     * @throws IllegalArgumentException  if the scale is not positive
+     */
+    public SvgMazeExporter(int canvasWidth, int canvasHeight, int padding, double scale) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("Scale must be positive");
+        }
+        this.canvasWidth = canvasWidth;
+        this.canvasHeight = canvasHeight;
+        this.padding = padding;
+        this.scale = scale;
+    }
+
+    /**
+     * Writes the maze and path to the stream. The stream is flushed, but not closed.
+     *
+     * Pass in an empty list if there is no path to draw.
+     */
+    public void export(Maze maze, IList<Wall> path, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write(String.format(
+                "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" viewBox=\"0 0 %d %d\">\n",
+                (int) Math.ceil(this.canvasWidth * this.scale),
+                (int) Math.ceil(this.canvasHeight * this.scale),
+                this.canvasWidth,
+                this.canvasHeight));
+        writer.write(String.format(
+                "<rect width=\"%d\" height=\"%d\" fill=\"white\"/>\n",
+                this.canvasWidth,
+                this.canvasHeight));
+
+        writer.write("<g stroke=\"black\" stroke-width=\"4\" fill=\"none\">\n");
+        writer.write(String.format(
+                "<rect x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\"/>\n",
+                this.padding,
+                this.padding,
+                this.canvasWidth - 2 * this.padding,
+                this.canvasHeight - 2 * this.padding));
+        this.writeWalls(writer, maze.getWalls());
+        this.writeWalls(writer, maze.getUntouchableWalls());
+        writer.write("</g>\n");
+
+        if (!path.isEmpty()) {
+            this.writePath(writer, path);
+        }
+
+        writer.write("</svg>\n");
+        writer.flush();
+    }
+
+    private void writeWalls(Writer writer, Iterable<Wall> walls) throws IOException {
+        int count = 0;
+        for (Wall wall : walls) {
+            if (count % SEGMENTS_PER_ELEMENT == 0) {
+                if (count != 0) {
+                    writer.write("\"/>\n");
+                }
+                writer.write("<path d=\"");
+            }
+            LineSegment line = wall.getDividingLine();
+            writer.write('M');
+            this.writePoint(writer, line.start);
+            writer.write('L');
+            this.writePoint(writer, line.end);
+            count++;
+        }
+        if (count != 0) {
+            writer.write("\"/>\n");
+        }
+    }
+
+    private void writePath(Writer writer, IList<Wall> path) throws IOException {
+        writer.write("<g stroke=\"red\" stroke-width=\"2\" fill=\"none\">\n<path d=\"");
+        for (Wall wall : path) {
+            Point midpoint = wall.getDividingLine().midpoint();
+            writer.write('M');
+            this.writePoint(writer, wall.getRoom1().getCenter());
+            writer.write('C');
+            this.writePoint(writer, midpoint);
+            this.writePoint(writer, midpoint);
+            this.writePoint(writer, wall.getRoom2().getCenter());
+        }
+        writer.write("\"/>\n</g>\n<g fill=\"red\">\n");
+        for (Wall wall : path) {
+            this.writeCircle(writer, wall.getRoom1().getCenter());
+            this.writeCircle(writer, wall.getRoom2().getCenter());
+        }
+        writer.write("</g>\n");
+    }
+
+    private void writePoint(Writer writer, Point point) throws IOException {
+        writer.write(Integer.toString(point.x));
+        writer.write(' ');
+        writer.write(Integer.toString(point.y));
+        writer.write(' ');
+    }
+
+    private void writeCircle(Writer writer, Point point) throws IOException {
+        writer.write(String.format("<circle cx=\"%d\" cy=\"%d\" r=\"4\"/>\n", point.x, point.y));
+    }
+}
@@ -1,14 +1,53 @@
 package misc;
 
 
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
 
+import datastructures.concrete.ArrayBackedList;
 import datastructures.concrete.ArrayHeap;
-import datastructures.concrete.DoubleLinkedList;
 import datastructures.interfaces.IList;
 import datastructures.interfaces.IPriorityQueue;
 
 public class Searcher {
+    // How topKSort picks a strategy, for n items:
+    //
+    // - k <= n / HEAP_THRESHOLD: keep a k-sized heap, O(n log k)
+    // - k >= n * FULL_SORT_FRACTION: sort everything, O(n log n)
+    // - otherwise: quickselect the top k, then sort them, O(n + k log k)
+    //
+    // benchmarks.TopKSortBenchmark measures all of these; rerun it when tuning them.
+
+    // Measured on a million random Integers: the heap is ahead up to at least k = n/128
+    // and quickselect is clearly ahead from k = n/16 on; in between it varies by run.
+    private static final int HEAP_THRESHOLD = 128;
+
+    // Measured the same way: sorting everything and select-then-sort are within a
+    // few percent of each other from about k = 0.8n on.
+    private static final double FULL_SORT_FRACTION = 0.9;
+
+    // Ranges this small are faster to sort outright then to keep partitioning.
+    private static final int SMALL_RANGE = 16;
+
+    // topKSort only goes parallel for at least this many items; below that, handing
+    // out the work costs more then it saves. Parallel tasks stop splitting once
+    // they reach CHUNK_SIZE items.
+
+    // Measured with the second table of TopKSortBenchmark, but only on a single core,
+    // where the parallel full sort stops losing at about 2^17 items. With more cores
+    // the break-even point should come earlier.
+    private static final int PARALLEL_THRESHOLD = 1 << 17;
+
+    // Not measured on its own: 2^13 items is enough work per leaf that forking a
+    // task is cheap next to it. Try other values against TopKSortBenchmark.
+    private static final int CHUNK_SIZE = 1 << 13;
+
+    // sortIdsByKey sorts this many bits of each key per pass. 2^11 counters fit
+    // comfortably in cache, and six passes cover all 64 bits.
+    private static final int RADIX_BITS = 11;
+
     /**
      * This method takes the input list and returns the top k elements
      * in sorted order.
@@ -40,31 +79,387 @@ public class Searcher {
             throw new IllegalArgumentException("IllegalArgumentException: k < 0");
         }
         
-        IList<T> result = new DoubleLinkedList<T>();
+        T[] items = toArray(input);
+        ForkJoinPool pool = null;
+        if (items.length >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            pool = ForkJoinPool.commonPool();
+        }
+        return topK(k, items, pool);
+    }
+    
+    /**
+     * Does the same thing as 'topKSort', but splits the work across the threads of
+     * the given pool no matter how big the input is.
+     *
+     * @throws IllegalArgumentException  if k < 0
+     */
+    public static <T extends Comparable<T>> IList<T> parallelTopKSort(int k, IList<T> input, ForkJoinPool pool) {
+        if (k < 0) {
+            throw new IllegalArgumentException("IllegalArgumentException: k < 0");
+        }
+        return topK(k, toArray(input), pool);
+    }
+    
+    /**
+     * Copies the input into an array, so we never modify it and can jump around freely.
+     */
+    private static <T extends Comparable<T>> T[] toArray(IList<T> input) {
+        T[] items = makeArrayOfT(input.size());
+        int index = 0;
+        for (T item : input) {
+            items[index] = item;
+            index++;
+        }
+        return items;
+    }
+    
+    /**
+     * Returns the k biggest of 'items' in sorted order, rearranging 'items' as it
+     * goes. Runs in the given pool, or on this thread if the pool is null.
+     */
+    private static <T extends Comparable<T>> IList<T> topK(int k, T[] items, ForkJoinPool pool) {
+        int n = items.length;
+        if (k > n) {
+            k = n;
+        }
+        
+        IList<T> result = new ArrayBackedList<T>(k);
+        if (k == 0) {
+            return result;
+        }
         
-        if (k != 0) {
-            if (k > input.size()) {
-                k = input.size();
+        if ((long) k * HEAP_THRESHOLD <= n) {
+            // Every chunk keeps only its own top k, so the chunks' answers are small
+            // and cheap to merge.
+            T[] top = pool == null ? heapTopK(k, items, 0, n) : pool.invoke(new TopKTask<>(k, items, 0, n));
+            for (T item : top) {
+                result.add(item);
             }
+            return result;
+        }
+        
+        if (k >= n * FULL_SORT_FRACTION) {
+            if (pool == null) {
+                Arrays.sort(items);
+            } else {
+                pool.invoke(new MergeSortTask<>(items, makeArrayOfT(n), 0, n));
+            }
+        } else {
+            // Move the k biggest items to the end (in no particular order), then sort just those.
+            select(items, n - k);
+            Arrays.sort(items, n - k, n);
+        }
+        for (int i = n - k; i < n; i++) {
+            result.add(items[i]);
+        }
+        return result;
+    }
+    
+    /**
+     * Returns the k biggest of items[low] through items[high - 1] in sorted order,
+     * by keeping the best k seen so far in a min-heap. This takes O(n log k) time
+     * and O(k) extra space, which is the best option when k is much smaller then n.
+     */
+    private static <T extends Comparable<T>> T[] heapTopK(int k, T[] items, int low, int high) {
+        k = Math.min(k, high - low);
+        IPriorityQueue<T> sorter = new ArrayHeap<T>(k);
+        for (int i = low; i < low + k; i++) {
+            sorter.insert(items[i]);
+        }
+        for (int i = low + k; i < high; i++) {
+            T item = items[i];
+            if (item.compareTo(sorter.peekMin()) >= 0) {
+                sorter.removeMin();
+                sorter.insert(item);
+            }
+        }
+        
+        T[] result = makeArrayOfT(k);
+        for (int i = 0; i < k; i++) {
+            result[i] = sorter.removeMin();
+        }
+        return result;
+    }
+    
+    /**
+     * Given two sorted arrays, returns the biggest k items of both, in sorted order.
+     */
+    private static <T extends Comparable<T>> T[] mergeTopK(int k, T[] first, T[] second) {
+        T[] result = makeArrayOfT(Math.min(k, first.length + second.length));
+        int i = first.length - 1;
+        int j = second.length - 1;
+        for (int out = result.length - 1; out >= 0; out--) {
+            if (j < 0 || (i >= 0 && first[i].compareTo(second[j]) >= 0)) {
+                result[out] = first[i];
+                i--;
+            } else {
+                result[out] = second[j];
+                j--;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Finds the top k of a range by splitting it in half until the pieces are
+     * CHUNK_SIZE or smaller, finding the top k of each piece with a heap, and
+     * merging the answers back together pairwise.
+     */
+    private static class TopKTask<T extends Comparable<T>> extends RecursiveTask<T[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int k;
+        private final T[] items;
+        private final int low;
+        private final int high;
+        
+        public TopKTask(int k, T[] items, int low, int high) {
+            this.k = k;
+            this.items = items;
+            this.low = low;
+            this.high = high;
+        }
+        
+        @Override
+        protected T[] compute() {
+            if (this.high - this.low <= CHUNK_SIZE) {
+                return heapTopK(this.k, this.items, this.low, this.high);
+            }
+            int middle = (this.low + this.high) >>> 1;
+            TopKTask<T> left = new TopKTask<>(this.k, this.items, this.low, middle);
+            left.fork();
+            T[] right = new TopKTask<>(this.k, this.items, middle, this.high).compute();
+            return mergeTopK(this.k, left.join(), right);
+        }
+    }
+    
+    /**
+     * Sorts a range with merge sort, sorting the two halves in parallel. Pieces of
+     * CHUNK_SIZE or smaller are sorted directly. 'buffer' must be at least as long
+     * as 'items'; the halves only ever touch their own part of it.
+     */
+    private static class MergeSortTask<T extends Comparable<T>> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] items;
+        private final T[] buffer;
+        private final int low;
+        private final int high;
+        
+        public MergeSortTask(T[] items, T[] buffer, int low, int high) {
+            this.items = items;
+            this.buffer = buffer;
+            this.low = low;
+            this.high = high;
+        }
+        
+        @Override
+        protected void compute() {
+            if (this.high - this.low <= CHUNK_SIZE) {
+                Arrays.sort(this.items, this.low, this.high);
+                return;
+            }
+            int middle = (this.low + this.high) >>> 1;
+            invokeAll(new MergeSortTask<>(this.items, this.buffer, this.low, middle),
+                    new MergeSortTask<>(this.items, this.buffer, middle, this.high));
+            this.merge(middle);
+        }
+        
+        private void merge(int middle) {
+            if (this.items[middle - 1].compareTo(this.items[middle]) <= 0) {
+                // Already in order
+                return;
+            }
+            // Copy out the left half, then merge it with the right half back into place.
+            // Taking from the left on ties keeps the sort stable.
+            System.arraycopy(this.items, this.low, this.buffer, this.low, middle - this.low);
+            int i = this.low;
+            int j = middle;
+            int out = this.low;
+            while (i < middle && j < this.high) {
+                if (this.items[j].compareTo(this.buffer[i]) < 0) {
+                    this.items[out] = this.items[j];
+                    j++;
+                } else {
+                    this.items[out] = this.buffer[i];
+                    i++;
+                }
+                out++;
+            }
+            System.arraycopy(this.buffer, i, this.items, out, middle - i);
+        }
+    }
+    
+    /**
+     * Rearranges 'items' so items[target] holds the item that would be there if the
+     * array were sorted, every item before it is no bigger, and every item after it
+     * is no smaller.
+     *
+     * This is quickselect, using the median of three items as the pivot. If it
+     * partitions many more times then a good run would, the input is probably
+     * adversarial, so it sorts what's left instead; this keeps the worst case
+     * at O(n log n).
+     */
+    private static <T extends Comparable<T>> void select(T[] items, int target) {
+        int low = 0;
+        int high = items.length - 1;
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(items.length));
+        while (high - low > SMALL_RANGE) {
+            if (depthLimit == 0) {
+                Arrays.sort(items, low, high + 1);
+                return;
+            }
+            depthLimit--;
             
-            IPriorityQueue<T> sorter = new ArrayHeap<T>();
-            Iterator<T> itr = input.iterator();
-            for (int i = 0; i < k; i++) {
-                sorter.insert(itr.next());
-            }
-            for (int i = k; i < input.size(); i++) {
-                T item = itr.next();
-                if (item.compareTo(sorter.peekMin()) >= 0) {
-                    sorter.removeMin();
-                    sorter.insert(item);
+            int middle = (low + high) >>> 1;
+            sortThree(items, low, middle, high);
+            T pivot = items[middle];
+            
+            // Hoare partition: afterwards items[low..j] <= pivot <= items[i..high].
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (items[i].compareTo(pivot) < 0) {
+                    i++;
+                }
+                while (items[j].compareTo(pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(items, i, j);
+                    i++;
+                    j--;
                 }
             }
             
-            while (!sorter.isEmpty()) {
-                result.add(sorter.removeMin());
+            if (target <= j) {
+                high = j;
+            } else if (target >= i) {
+                low = i;
+            } else {
+                // Everything strictly between j and i equals the pivot.
+                return;
+            }
+        }
+        Arrays.sort(items, low, high + 1);
+    }
+    
+    private static <T extends Comparable<T>> void sortThree(T[] items, int a, int b, int c) {
+        if (items[b].compareTo(items[a]) < 0) {
+            swap(items, a, b);
+        }
+        if (items[c].compareTo(items[b]) < 0) {
+            swap(items, b, c);
+            if (items[b].compareTo(items[a]) < 0) {
+                swap(items, a, b);
+            }
+        }
+    }
+    
+    private static <T> void swap(T[] items, int a, int b) {
+        T temp = items[a];
+        items[a] = items[b];
+        items[b] = temp;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> T[] makeArrayOfT(int size) {
+        return (T[]) (new Comparable[size]);
+    }
+    
+    /**
+     * Returns the ids 0 through keys.length - 1, ordered so their keys go from
+     * smallest to biggest. Ids with equal keys stay in increasing order.
+     *
+     * This is meant for things like sorting a graph's edges by weight: rather then
+     * comparing the edges themselves, pull their weights out into an array and sort
+     * the edge ids by those. It's a radix sort, so it takes O(n) time and never
+     * compares two keys directly. -0.0 comes before 0.0, and NaN comes last.
+     *
+     * This method does not modify 'keys'.
+     */
+    public static int[] sortIdsByKey(double[] keys) {
+        int n = keys.length;
+        long[] bits = new long[n];
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            bits[i] = sortableBits(keys[i]);
+            ids[i] = i;
+        }
+        if (n <= SMALL_RANGE) {
+            insertionSortByBits(bits, ids);
+            return ids;
+        }
+        
+        // Count every digit up front, in a single pass over the keys.
+        int passes = (Long.SIZE + RADIX_BITS - 1) / RADIX_BITS;
+        int[][] counts = new int[passes][1 << RADIX_BITS];
+        for (long key : bits) {
+            for (int pass = 0; pass < passes; pass++) {
+                counts[pass][digit(key, pass)]++;
             }
         }
         
-        return result;
+        long[] otherBits = new long[n];
+        int[] otherIds = new int[n];
+        for (int pass = 0; pass < passes; pass++) {
+            int[] count = counts[pass];
+            if (count[digit(bits[0], pass)] == n) {
+                // Every key has the same digit here (the top bits of similar weights
+                // usually do), so this pass wouldn't move anything.
+                continue;
+            }
+            
+            // Turn the counts into the index where each digit's run starts.
+            int start = 0;
+            for (int d = 0; d < count.length; d++) {
+                int size = count[d];
+                count[d] = start;
+                start += size;
+            }
+            for (int i = 0; i < n; i++) {
+                int target = count[digit(bits[i], pass)]++;
+                otherBits[target] = bits[i];
+                otherIds[target] = ids[i];
+            }
+            
+            long[] tempBits = bits;
+            bits = otherBits;
+            otherBits = tempBits;
+            int[] tempIds = ids;
+            ids = otherIds;
+            otherIds = tempIds;
+        }
+        return ids;
+    }
+    
+    /**
+     * Returns the bits of the given double, rearranged so that comparing them as
+     * unsigned longs gives the same order as comparing the doubles.
+     */
+    private static long sortableBits(double key) {
+        long bits = Double.doubleToLongBits(key);
+        // Negative numbers get every bit flipped, so bigger magnitudes come first;
+        // positive numbers just get the sign bit set, so they come after.
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+    
+    private static int digit(long bits, int pass) {
+        return (int) (bits >>> (pass * RADIX_BITS)) & ((1 << RADIX_BITS) - 1);
+    }
+    
+    private static void insertionSortByBits(long[] bits, int[] ids) {
+        for (int i = 1; i < bits.length; i++) {
+            long key = bits[i];
+            int id = ids[i];
+            int j = i - 1;
+            while (j >= 0 && Long.compareUnsigned(bits[j], key) > 0) {
+                bits[j + 1] = bits[j];
+                ids[j + 1] = ids[j];
+                j--;
+            }
+            bits[j + 1] = key;
+            ids[j + 1] = id;
+        }
     }
 }
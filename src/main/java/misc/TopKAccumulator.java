@@ -0,0 +1,147 @@
+package misc;
+
+import datastructures.concrete.ArrayBackedList;
+import datastructures.concrete.ArrayHeap;
+import datastructures.interfaces.IList;
+import datastructures.interfaces.IPriorityQueue;
+
+import java.util.Iterator;
+import java.util.stream.Collector;
+
+/**
+ * Keeps track of the k biggest items out of everything it has been given.
+ *
+ * Unlike Searcher.topKSort, this never needs all the items at once: feed it one
+ * item at a time (from a file, a generator, or anything else) and it holds on to
+ * at most k of them. Several threads can each fill their own accumulator and
+ * then merge them together at the end.
+ *
+ * This class is not thread-safe; give each thread its own accumulator.
+ */
+public class TopKAccumulator<T extends Comparable<T>> {
+    private int k;
+    private IPriorityQueue<T> best;
+    private long seen;
+
+    /**
+     * @throws IllegalArgumentException  if k < 0
+     */
+    public TopKAccumulator(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+        this.k = k;
+        this.best = new ArrayHeap<>(Math.min(k, 1024));
+        this.seen = 0;
+    }
+
+    /**
+     * Considers the given item. Takes O(log k) time.
+     *
+     * @throws IllegalArgumentException  if the item is null
+     */
+    public void add(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        this.seen++;
+        if (this.best.size() < this.k) {
+            this.best.insert(item);
+        } else if (this.k > 0 && item.compareTo(this.best.peekMin()) > 0) {
+            this.best.removeMin();
+            this.best.insert(item);
+        }
+    }
+
+    /**
+     * Considers every item the given iterator has left.
+     *
+     * @throws IllegalArgumentException  if any of the items are null
+     */
+    public void addAll(Iterator<? extends T> items) {
+        while (items.hasNext()) {
+            this.add(items.next());
+        }
+    }
+
+    /**
+     * Considers every item in the given iterable.
+     *
+     * @throws IllegalArgumentException  if any of the items are null
+     */
+    public void addAll(Iterable<? extends T> items) {
+        this.addAll(items.iterator());
+    }
+
+    /**
+     * Considers every item the other accumulator is holding on to, as if they had
+     * been added to this one directly. The other accumulator is left unchanged.
+     *
+     * Anything the other one already threw away couldn't have been in its top k,
+     * so it couldn't be in the combined top k either.
+     */
+    public void merge(TopKAccumulator<? extends T> other) {
+        long otherSeen = other.seen;
+        for (T item : other.toSortedList()) {
+            this.add(item);
+        }
+        // Count everything the other accumulator saw, not just what it kept.
+        this.seen += otherSeen - other.best.size();
+    }
+
+    /**
+     * Returns the k biggest items seen so far (or all of them, if there were fewer
+     * then k) in sorted order, smallest first. Takes O(k log k) time.
+     */
+    public IList<T> toSortedList() {
+        IList<T> result = new ArrayBackedList<>(this.best.size());
+        while (!this.best.isEmpty()) {
+            result.add(this.best.removeMin());
+        }
+        for (T item : result) {
+            this.best.insert(item);
+        }
+        return result;
+    }
+
+    /**
+     * Returns how many items this accumulator is holding on to: k, or fewer if it
+     * has not seen k items yet.
+     */
+    public int size() {
+        return this.best.size();
+    }
+
+    /**
+     * Returns how many items have been added in total, including through 'merge'.
+     */
+    public long getItemsSeen() {
+        return this.seen;
+    }
+
+    public int getK() {
+        return this.k;
+    }
+
+    /**
+     * Returns a Collector that finds the k biggest items of a stream, in sorted
+     * order. It works with parallel streams: each thread fills its own
+     * accumulator, and they are merged at the end.
+     *
+     * @throws IllegalArgumentException  if k < 0
+     */
+    public static <T extends Comparable<T>> Collector<T, ?, IList<T>> collector(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+        return Collector.of(
+                () -> new TopKAccumulator<T>(k),
+                TopKAccumulator::add,
+                (first, second) -> {
+                    first.merge(second);
+                    return first;
+                },
+                TopKAccumulator::toSortedList,
+                Collector.Characteristics.UNORDERED);
+    }
+}
@@ -16,4 +16,15 @@ public class NoPathExistsException extends RuntimeException {
     public NoPathExistsException(Throwable cause) {
         super(cause);
     }
+
+    /**
+     * Passing in false for 'writableStackTrace' skips recording the stack trace,
+     * which is most of the cost of creating an exception. That's worth doing when
+     * the exception is an expected outcome callers routinely catch, rather then a
+     * sign of a bug.
+     */
+    public NoPathExistsException(String message, Throwable cause,
+                                 boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
 }
@@ -1,19 +1,19 @@
 package misc.graphs;
 
-import datastructures.concrete.ArrayDisjointSet;
-import datastructures.concrete.ArrayHeap;
+import datastructures.concrete.ArrayBackedList;
 import datastructures.concrete.ChainedHashSet;
-import datastructures.concrete.DoubleLinkedList;
-import datastructures.concrete.KVPair;
-import datastructures.concrete.dictionaries.ChainedHashDictionary;
-import datastructures.interfaces.IDictionary;
-import datastructures.interfaces.IDisjointSet;
+import datastructures.concrete.IntBitSet;
+import datastructures.concrete.IntDisjointSet;
+import datastructures.concrete.IntHeap;
+import datastructures.concrete.IntList;
+import datastructures.concrete.dictionaries.ObjectIntMap;
 import datastructures.interfaces.IList;
-import datastructures.interfaces.IPriorityQueue;
 import datastructures.interfaces.ISet;
 import misc.Searcher;
 import misc.exceptions.NoPathExistsException;
 
+import java.util.Arrays;
+
 /**
  * Represents an undirected, weighted graph, possibly containing self-loops, parallel edges,
  * and unconnected components.
@@ -31,10 +31,11 @@ public class Graph<V, E extends Edge<V> & Comparable<E>> {
     // And of course, as always, you may also use any of the data structures
     // and algorithms we've implemented so far.
     //
-    // Note: If you plan on adding a new class, please be sure to make it a private
-    // static inner class contained within this file. Our testing infrastructure
-    // works by copying specific files from your project to ours, and if you
-    // add new files, they won't be copied and your code will not compile.
+    // Note: Helper classes that only Graph uses should be private static inner
+    // classes contained within this file. Types that are part of Graph's public
+    // API (GraphProgressListener, Path, SpanningForest), and ProgressBatch, which
+    // the maze carvers share, live in their own files in this package instead.
+    // Anything that copies Graph.java into another project must copy those too.
     //
     //
     // NOTE 2:
@@ -60,10 +61,47 @@ public class Graph<V, E extends Edge<V> & Comparable<E>> {
     // Working with generics is really not the focus of this class, so if you
     // get stuck, let us know we'll try and help you get unstuck as best as we can.
     
-    private IDictionary<V, ISet<E>> graph;
-    private int totalEdges;
-    private IList<E> graphEdges;
-    private IList<V> graphVertices;
+    // filterKruskal stops splitting a range of edges and just sorts it once it has
+    // this few edges left. Each radix sort has a fixed cost, so smaller cutoffs
+    // were slower: with this one, on random graphs, filter-Kruskal kept up with
+    // plain Kruskal at E = 2V and was two to three times faster from E = 20V on.
+    private static final int FILTER_KRUSKAL_CUTOFF = 16384;
+
+    // MstAlgorithm.AUTOMATIC picks Prim once there are at least this many edges
+    // per vertex, and filter-Kruskal below that. On random graphs, and on graphs
+    // whose edges only join nearby vertices, the two were even at about 40 to 50
+    // edges per vertex; Prim was twice as fast by 100, and filter-Kruskal by 20.
+    // benchmarks.MstAlgorithmBenchmark reruns this comparison.
+    private static final int PRIM_MIN_DENSITY = 64;
+
+    // Vertices and edges are numbered 0, 1, 2, ... in the order they were given,
+    // so the algorithms below can keep their bookkeeping in plain arrays instead
+    // of dictionaries keyed by vertex.
+    private ObjectIntMap<V> vertexIds;
+    private IList<V> vertices;
+    private IList<E> edges;
+    private int[] edgeVertex1;
+    private int[] edgeVertex2;
+    private double[] edgeWeights;
+
+    // The edges touching vertex 'v' are adjacentEdges[adjacencyStart[v]]
+    // through adjacentEdges[adjacencyStart[v + 1] - 1]. The vertex at the other
+    // end of each, and its weight, sit at the same index of 'adjacentVertices'
+    // and 'adjacentWeights', so a traversal can read all three in order.
+    private int[] adjacencyStart;
+    private int[] adjacentEdges;
+    private int[] adjacentVertices;
+    private double[] adjacentWeights;
+
+    private MstAlgorithm mstAlgorithm = MstAlgorithm.AUTOMATIC;
+
+    // Found the first time somebody asks about connectivity. The graph never
+    // changes, so these never go stale. Since Components is immutable, threads
+    // racing to fill this in just do the work twice.
+    private Components components;
+
+    private GraphProgressListener<V, E> listener;
+    private int progressBatchSize = ProgressBatch.DEFAULT_SIZE;
 
     /**
      * Constructs a new graph based on the given vertices and edges.
@@ -73,36 +111,79 @@ public class Graph<V, E extends Edge<V> & Comparable<E>> {
      *                                   present in the 'vertices' list
      */
     public Graph(IList<V> vertices, IList<E> edges) {
-        this.graph = new ChainedHashDictionary<V, ISet<E>>();
-        this.totalEdges = edges.size();
-        this.graphVertices = vertices;
+        this.vertexIds = new ObjectIntMap<V>(vertices.size());
+        this.vertices = new ArrayBackedList<V>(vertices.size());
+        for (V vertex : vertices) {
+            if (!this.vertexIds.containsKey(vertex)) {
+                this.vertexIds.put(vertex, this.vertices.size());
+                this.vertices.add(vertex);
+            }
+        }
         
+        int numEdges = edges.size();
+        this.edges = new ArrayBackedList<E>(numEdges);
+        this.edgeVertex1 = new int[numEdges];
+        this.edgeVertex2 = new int[numEdges];
+        this.edgeWeights = new double[numEdges];
+        int[] degrees = new int[this.vertices.size()];
         for (E edge : edges) {
             if (edge.getWeight() < 0) {
                 throw new IllegalArgumentException();
             }
             
-            if (!vertices.contains(edge.getVertex1()) || !vertices.contains(edge.getVertex2())) {
+            int vertex1 = this.vertexIds.getOrDefault(edge.getVertex1(), -1);
+            int vertex2 = this.vertexIds.getOrDefault(edge.getVertex2(), -1);
+            if (vertex1 == -1 || vertex2 == -1) {
                 throw new IllegalArgumentException();
             }
             
-            updateGraph(edge.getVertex1(), edge);
-            updateGraph(edge.getVertex2(), edge);
+            int id = this.edges.size();
+            this.edges.add(edge);
+            this.edgeVertex1[id] = vertex1;
+            this.edgeVertex2[id] = vertex2;
+            this.edgeWeights[id] = edge.getWeight();
+            degrees[vertex1]++;
+            if (vertex1 != vertex2) {
+                degrees[vertex2]++;
+            }
         }
         
-        this.graphEdges = edges;
+        this.buildAdjacency(degrees);
     }
     
-    private void updateGraph(V vertex, E edge) {
-        if (!this.graph.containsKey(vertex)) {
-            ISet<E> vertexEdges = new ChainedHashSet<E>();
-            vertexEdges.add(edge);
-            this.graph.put(vertex, vertexEdges);
-        } else {
-            this.graph.get(vertex).add(edge);
+    /**
+     * Lays out every vertex's edges back to back in 'adjacentEdges', given how
+     * many edges touch each vertex.
+     */
+    private void buildAdjacency(int[] degrees) {
+        int numVertices = degrees.length;
+        this.adjacencyStart = new int[numVertices + 1];
+        for (int v = 0; v < numVertices; v++) {
+            this.adjacencyStart[v + 1] = this.adjacencyStart[v] + degrees[v];
+        }
+        
+        int numSlots = this.adjacencyStart[numVertices];
+        this.adjacentEdges = new int[numSlots];
+        this.adjacentVertices = new int[numSlots];
+        this.adjacentWeights = new double[numSlots];
+        int[] next = new int[numVertices];
+        System.arraycopy(this.adjacencyStart, 0, next, 0, numVertices);
+        for (int id = 0; id < this.edgeWeights.length; id++) {
+            int vertex1 = this.edgeVertex1[id];
+            int vertex2 = this.edgeVertex2[id];
+            this.addAdjacency(next[vertex1]++, id, vertex2);
+            if (vertex1 != vertex2) {
+                this.addAdjacency(next[vertex2]++, id, vertex1);
+            }
         }
     }
 
+    private void addAdjacency(int slot, int edge, int otherVertex) {
+        this.adjacentEdges[slot] = edge;
+        this.adjacentVertices[slot] = otherVertex;
+        this.adjacentWeights[slot] = this.edgeWeights[edge];
+    }
+
     /**
      * Sometimes, we store vertices and edges as sets instead of lists, so we
      * provide this extra constructor to make converting between the two more
@@ -116,25 +197,64 @@ public class Graph<V, E extends Edge<V> & Comparable<E>> {
     // You shouldn't need to call this helper method -- it only needs to be used
     // in the constructor above.
     private static <T> IList<T> setToList(ISet<T> set) {
-        IList<T> output = new DoubleLinkedList<>();
+        IList<T> output = new ArrayBackedList<>(set.size());
         for (T item : set) {
             output.add(item);
         }
         return output;
     }
 
+    /**
+     * Reports the progress of 'findMinimumSpanningTree' and 'findShortestPathBetween'
+     * to the given listener, in batches. Pass in null to stop reporting.
+     */
+    public void setProgressListener(GraphProgressListener<V, E> listener) {
+        this.setProgressListener(listener, ProgressBatch.DEFAULT_SIZE);
+    }
+
+    /**
+     * Reports the progress of 'findMinimumSpanningTree' and 'findShortestPathBetween'
+     * to the given listener, in batches of the given size. Pass in null to stop reporting.
+     *
+     * @throws IllegalArgumentException  if batchSize is not positive
+     */
+    public void setProgressListener(GraphProgressListener<V, E> listener, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.listener = listener;
+        this.progressBatchSize = batchSize;
+    }
+
     /**
      * Returns the number of vertices contained within this graph.
      */
     public int numVertices() {
-        return this.graph.size();
+        return this.vertices.size();
     }
 
     /**
      * Returns the number of edges contained within this graph.
      */
     public int numEdges() {
-        return this.totalEdges;
+        return this.edges.size();
+    }
+
+    /**
+     * Chooses which algorithm 'findMinimumSpanningTree' uses. They all find a
+     * minimum spanning tree, but if several exist they may not find the same one.
+     *
+     * @throws IllegalArgumentException  if the algorithm is null
+     */
+    public void setMstAlgorithm(MstAlgorithm algorithm) {
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Algorithm cannot be null");
+        }
+        this.mstAlgorithm = algorithm;
+    }
+
+    public MstAlgorithm getMstAlgorithm() {
+        return this.mstAlgorithm;
     }
 
     /**
@@ -144,25 +264,297 @@ public class Graph<V, E extends Edge<V> & Comparable<E>> {
      * If there exists multiple valid MSTs, return any one of them.
      *
      * Precondition: the graph does not contain any unconnected components.
+     * (Use 'findMinimumSpanningForest' if it might.)
      */
     public ISet<E> findMinimumSpanningTree() {
-        IDisjointSet<V> mst = new ArrayDisjointSet<V>();
-        ISet<E> result = new ChainedHashSet<E>();
-        
-        for (KVPair<V, ISet<E>> pair : this.graph) {
-            mst.makeSet(pair.getKey());
+        return this.growSpanningTree().finish();
+    }
+
+    /**
+     * Returns a minimum spanning tree for each connected component of this graph,
+     * and which component each vertex belongs to.
+     *
+     * Unlike 'findMinimumSpanningTree', this works on graphs with unconnected
+     * components. Finding the components costs one extra pass over the vertices,
+     * reusing the work the spanning tree algorithm already did.
+     */
+    public SpanningForest<V, E> findMinimumSpanningForest() {
+        SpanningTreeBuilder tree = this.growSpanningTree();
+        ISet<E> allEdges = tree.finish();
+
+        // The tree's union-find already knows the components, so label them from
+        // that and keep the labels for 'isConnected' and friends while we're at it.
+        Components components = this.labelComponents(tree.getComponents());
+        if (this.components == null) {
+            this.components = components;
         }
-        
-        IList<E> sortedEdges = Searcher.topKSort(this.totalEdges, this.graphEdges);
-        for (E edge : sortedEdges) {
-            V vertex1 = edge.getVertex1();
-            V vertex2 = edge.getVertex2();
-            if (mst.findSet(vertex1) != mst.findSet(vertex2)) {
-                mst.union(vertex1, vertex2);
-                result.add(edge);
+
+        IList<ISet<E>> trees = new ArrayBackedList<ISet<E>>(components.count());
+        for (int i = 0; i < components.count(); i++) {
+            trees.add(new ChainedHashSet<E>(components.sizes.get(i) - 1));
+        }
+        IntList acceptedEdges = tree.getAcceptedEdges();
+        for (int i = 0; i < acceptedEdges.size(); i++) {
+            int edge = acceptedEdges.get(i);
+            trees.get(components.labels[this.edgeVertex1[edge]]).add(this.edges.get(edge));
+        }
+        return new SpanningForest<>(this.vertexIds, components.labels, trees, allEdges);
+    }
+
+    /**
+     * Returns the number of connected components in this graph. A vertex with no
+     * edges is a component of its own.
+     *
+     * The first call to this, 'getComponent', 'isConnected', or a shortest path
+     * search finds every component in O(E) time; after that, all three take O(1) time.
+     */
+    public int numComponents() {
+        return this.getComponents().count();
+    }
+
+    /**
+     * Returns the number of the connected component containing the given vertex.
+     * Components are numbered 0 through numComponents() - 1, in the order their
+     * first vertex was given to the graph.
+     *
+     * @throws IllegalArgumentException  if the vertex is not in the graph
+     */
+    public int getComponent(V vertex) {
+        return this.getComponents().labels[this.idOf(vertex)];
+    }
+
+    /**
+     * Returns 'true' if there is a path between the two given vertices. This is far
+     * cheaper then trying to find a shortest path and seeing if that fails.
+     *
+     * @throws IllegalArgumentException  if either vertex is not in the graph
+     */
+    public boolean isConnected(V vertex1, V vertex2) {
+        int[] labels = this.getComponents().labels;
+        return labels[this.idOf(vertex1)] == labels[this.idOf(vertex2)];
+    }
+
+    /**
+     * Returns 'true' if there is a path between every pair of vertices, which is
+     * what 'findMinimumSpanningTree' requires.
+     */
+    public boolean isConnected() {
+        return this.getComponents().count() <= 1;
+    }
+
+    private int idOf(V vertex) {
+        int id = this.vertexIds.getOrDefault(vertex, -1);
+        if (id == -1) {
+            throw new IllegalArgumentException("Vertex is not in the graph: " + vertex);
+        }
+        return id;
+    }
+
+    private Components getComponents() {
+        Components components = this.components;
+        if (components == null) {
+            IntDisjointSet sets = new IntDisjointSet(this.vertices.size());
+            for (int edge = 0; edge < this.edgeWeights.length; edge++) {
+                int root1 = sets.findSet(this.edgeVertex1[edge]);
+                int root2 = sets.findSet(this.edgeVertex2[edge]);
+                if (root1 != root2) {
+                    sets.union(root1, root2);
+                }
+            }
+            components = this.labelComponents(sets);
+            this.components = components;
+        }
+        return components;
+    }
+
+    /**
+     * Numbers the sets in the given disjoint set in order of their first vertex, and
+     * counts how many vertices each one has.
+     */
+    private Components labelComponents(IntDisjointSet sets) {
+        int numVertices = this.vertices.size();
+        int[] labels = new int[numVertices];
+        int[] rootLabels = new int[numVertices];
+        Arrays.fill(rootLabels, -1);
+        IntList sizes = new IntList();
+        for (int vertex = 0; vertex < numVertices; vertex++) {
+            int root = sets.findSet(vertex);
+            if (rootLabels[root] == -1) {
+                rootLabels[root] = sizes.size();
+                sizes.add(0);
+            }
+            int label = rootLabels[root];
+            labels[vertex] = label;
+            sizes.set(label, sizes.get(label) + 1);
+        }
+        return new Components(labels, sizes);
+    }
+
+    /**
+     * Runs the chosen MST algorithm. If the graph isn't connected, the result is
+     * a spanning forest.
+     */
+    private SpanningTreeBuilder growSpanningTree() {
+        SpanningTreeBuilder tree = new SpanningTreeBuilder();
+        MstAlgorithm algorithm = this.mstAlgorithm;
+        if (algorithm == MstAlgorithm.AUTOMATIC) {
+            boolean dense = this.edges.size() >= (long) PRIM_MIN_DENSITY * this.vertices.size();
+            algorithm = dense ? MstAlgorithm.PRIM : MstAlgorithm.FILTER_KRUSKAL;
+        }
+        switch (algorithm) {
+            case KRUSKAL:
+                this.kruskal(Searcher.sortIdsByKey(this.edgeWeights), tree);
+                break;
+            case FILTER_KRUSKAL:
+                int[] ids = new int[this.edgeWeights.length];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = i;
+                }
+                this.filterKruskal(ids, 0, ids.length, tree);
+                break;
+            case LAZY_KRUSKAL:
+                this.lazyKruskal(tree);
+                break;
+            case PRIM:
+                this.prim(tree);
+                break;
+            default:
+                throw new AssertionError("Unknown algorithm: " + algorithm);
+        }
+        return tree;
+    }
+
+    /**
+     * Offers the given edges to the tree, in order, until the tree is complete.
+     */
+    private void kruskal(int[] sortedEdges, SpanningTreeBuilder tree) {
+        for (int edge : sortedEdges) {
+            if (tree.isComplete()) {
+                return;
+            }
+            tree.offer(edge);
+        }
+    }
+
+    /**
+     * Offers the edges in ids[low..high) to the tree, lightest first.
+     *
+     * Rather then sorting them all, this splits them around a pivot weight and
+     * handles the light half first. By then many of the heavy edges join vertices
+     * the light ones already connected, so they are thrown away before anyone
+     * spends time sorting them. This rearranges and overwrites 'ids'.
+     */
+    private void filterKruskal(int[] ids, int low, int high, SpanningTreeBuilder tree) {
+        if (high - low <= FILTER_KRUSKAL_CUTOFF) {
+            this.kruskal(this.sortByWeight(ids, low, high), tree);
+            return;
+        }
+
+        double[] weights = this.edgeWeights;
+        double pivot = medianOfThree(weights[ids[low]], weights[ids[(low + high) >>> 1]], weights[ids[high - 1]]);
+        int split = low;
+        for (int i = low; i < high; i++) {
+            if (weights[ids[i]] <= pivot) {
+                int temp = ids[i];
+                ids[i] = ids[split];
+                ids[split] = temp;
+                split++;
+            }
+        }
+        if (split == high) {
+            // The pivot was the heaviest weight, so nothing got split off; this only
+            // happens when most of the weights are equal.
+            this.kruskal(this.sortByWeight(ids, low, high), tree);
+            return;
+        }
+
+        this.filterKruskal(ids, low, split, tree);
+        if (tree.isComplete()) {
+            return;
+        }
+        int end = split;
+        for (int i = split; i < high; i++) {
+            if (tree.wouldJoin(ids[i])) {
+                ids[end] = ids[i];
+                end++;
+            }
+        }
+        this.filterKruskal(ids, split, end, tree);
+    }
+
+    /**
+     * Returns the edges in ids[low..high), sorted by weight.
+     */
+    private int[] sortByWeight(int[] ids, int low, int high) {
+        double[] weights = new double[high - low];
+        for (int i = low; i < high; i++) {
+            weights[i - low] = this.edgeWeights[ids[i]];
+        }
+        int[] order = Searcher.sortIdsByKey(weights);
+        for (int i = 0; i < order.length; i++) {
+            order[i] = ids[low + order[i]];
+        }
+        return order;
+    }
+
+    private static double medianOfThree(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    /**
+     * Heapifies every edge in O(E) time, then removes them lightest first until the
+     * tree is complete. Edges heavier then the tree's heaviest are never sorted.
+     */
+    private void lazyKruskal(SpanningTreeBuilder tree) {
+        IntHeap heap = new IntHeap(this.edgeWeights);
+        while (!heap.isEmpty() && !tree.isComplete()) {
+            tree.offer(heap.removeMin());
+        }
+    }
+
+    /**
+     * Grows the tree outwards from one vertex at a time, always adding the lightest
+     * edge leading out of it. This only ever looks at the edges next to the tree,
+     * and stops as soon as the tree reaches every vertex.
+     */
+    private void prim(SpanningTreeBuilder tree) {
+        int numVertices = this.vertices.size();
+        double[] costs = new double[numVertices];
+        int[] parentEdges = new int[numVertices];
+        IntBitSet reached = new IntBitSet(numVertices);
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        Arrays.fill(parentEdges, -1);
+        IntHeap heap = new IntHeap(numVertices);
+
+        // Usually the first vertex reaches everything, but if the graph isn't
+        // connected, start again from the first vertex that wasn't reached.
+        for (int start = 0; start < numVertices && !tree.isComplete(); start++) {
+            if (reached.contains(start)) {
+                continue;
+            }
+            costs[start] = 0.0;
+            heap.insert(start, 0.0);
+            while (!heap.isEmpty()) {
+                int current = heap.removeMin();
+                reached.add(current);
+                if (parentEdges[current] != -1) {
+                    tree.offer(parentEdges[current]);
+                    if (tree.isComplete()) {
+                        return;
+                    }
+                }
+
+                for (int i = this.adjacencyStart[current]; i < this.adjacencyStart[current + 1]; i++) {
+                    int neighbor = this.adjacentVertices[i];
+                    double weight = this.adjacentWeights[i];
+                    if (weight < costs[neighbor] && !reached.contains(neighbor)) {
+                        costs[neighbor] = weight;
+                        parentEdges[neighbor] = this.adjacentEdges[i];
+                        heap.insertOrDecrease(neighbor, weight);
+                    }
+                }
             }
         }
-        return result;
     }
 
     /**
@@ -175,105 +567,252 @@ public class Graph<V, E extends Edge<V> & Comparable<E>> {
      *
      * Return an empty list if the start and end vertices are the same.
      *
+     * A start and end in different components are rejected right away, instead of
+     * after searching everything reachable from the start; the first call finds
+     * the graph's components to make that possible. The search itself stops as
+     * soon as it reaches the end.
+     *
      * @throws NoPathExistsException  if there does not exist a path from the start to the end
      */
     public IList<E> findShortestPathBetween(V start, V end) {
-        IList<E> result = new DoubleLinkedList<E>();
-        IList<E> resultReversed = new DoubleLinkedList<E>();
-        IDictionary<V, E> allPaths = new ChainedHashDictionary<V, E>();
-        ISet<V> visited = new ChainedHashSet<V>();
-        IDictionary<V, Double> vertexCosts = new ChainedHashDictionary<V, Double>();
-        IPriorityQueue<VertexNode<V>> heap = new ArrayHeap<VertexNode<V>>();
-        
         if (start == end) {
-            return result;
+            return new ArrayBackedList<E>(0);
         }
-        
-        if (this.graph.isEmpty() || !this.graph.containsKey(start) || !this.graph.containsKey(end)) {
-            throw new NoPathExistsException();
+        return this.findShortestPath(start, end).getEdges();
+    }
+
+    /**
+     * Does the same thing as 'findShortestPathBetween', but returns the whole path:
+     * the vertices along it as well as the edges, and its total cost.
+     *
+     * @throws NoPathExistsException  if there does not exist a path from the start to the end
+     */
+    public Path<V, E> findShortestPath(V start, V end) {
+        if (start == end) {
+            IList<V> justStart = new ArrayBackedList<V>(1);
+            justStart.add(start);
+            return new Path<>(justStart, new ArrayBackedList<E>(0), 0.0);
         }
         
-        for (V vertex : this.graphVertices) {
-            vertexCosts.put(vertex, Double.POSITIVE_INFINITY);
+        int startId = this.vertexIds.getOrDefault(start, -1);
+        int endId = this.vertexIds.getOrDefault(end, -1);
+        if (startId == -1 || endId == -1) {
+            throw noPathExists();
+        }
+        // One pass over the edges, done once per graph, is much cheaper then a failed
+        // search, which would settle every vertex reachable from the start.
+        Components components = this.getComponents();
+        if (components.labels[startId] != components.labels[endId]) {
+            throw noPathExists();
         }
-        vertexCosts.put(start, 0.0);
         
-        findShortestPathHelper(start, 0.0, heap, visited, vertexCosts, allPaths);
-
-        visited.add(start);
+        int numVertices = this.vertices.size();
+        double[] costs = new double[numVertices];
+        int[] parentEdges = new int[numVertices];
+        IntBitSet settled = new IntBitSet(numVertices);
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        Arrays.fill(parentEdges, -1);
         
+        ProgressBatch<V> settledBatch = null;
+        if (this.listener != null) {
+            settledBatch = new ProgressBatch<>(this.listener::verticesSettled, this.progressBatchSize);
+        }
+        
+        IntHeap heap = new IntHeap(numVertices);
+        costs[startId] = 0.0;
+        heap.insert(startId, 0.0);
         while (!heap.isEmpty()) {
-            VertexNode<V> currVertexNode = heap.removeMin();
-            V currVertex = currVertexNode.getVertex();
-            double cost = currVertexNode.getCost();
+            int current = heap.removeMin();
+            settled.add(current);
+            if (settledBatch != null) {
+                settledBatch.add(this.vertices.get(current));
+            }
+            if (current == endId) {
+                // Its cost is final, so nothing left in the heap can improve the path.
+                break;
+            }
             
-            if (!visited.contains(currVertex)) {
-                visited.add(currVertex);
-                findShortestPathHelper(currVertex, cost, heap, visited, vertexCosts, allPaths);
+            double cost = costs[current];
+            for (int i = this.adjacencyStart[current]; i < this.adjacencyStart[current + 1]; i++) {
+                int neighbor = this.adjacentVertices[i];
+                double newCost = cost + this.adjacentWeights[i];
+                if (newCost < costs[neighbor] && !settled.contains(neighbor)) {
+                    costs[neighbor] = newCost;
+                    parentEdges[neighbor] = this.adjacentEdges[i];
+                    heap.insertOrDecrease(neighbor, newCost);
+                }
             }
         }
-        
-        if (vertexCosts.get(end) == Double.POSITIVE_INFINITY) {
-            throw new NoPathExistsException();
+        if (settledBatch != null) {
+            settledBatch.flush();
         }
         
-        V find = end;
-        while (allPaths.get(find).getOtherVertex(find) != start) {
-            E addEdge = allPaths.get(find);
-            resultReversed.add(addEdge);
-            find = addEdge.getOtherVertex(find);
+        // Count the steps back to the start first, so the vertex ids can be written
+        // straight into place from the end backwards, and the lists below can be
+        // sized exactly and filled from the start forwards.
+        int length = 0;
+        for (int vertex = endId; vertex != startId; vertex = this.otherVertex(parentEdges[vertex], vertex)) {
+            length++;
         }
-        
-        resultReversed.add(allPaths.get(find));
-        
-        while (!resultReversed.isEmpty()) {
-            result.add(resultReversed.remove());
+        int[] pathVertices = new int[length + 1];
+        pathVertices[length] = endId;
+        for (int i = length; i > 0; i--) {
+            pathVertices[i - 1] = this.otherVertex(parentEdges[pathVertices[i]], pathVertices[i]);
         }
         
-        return result;
+        IList<V> vertexList = new ArrayBackedList<V>(length + 1);
+        IList<E> edgeList = new ArrayBackedList<E>(length);
+        vertexList.add(this.vertices.get(startId));
+        for (int i = 1; i <= length; i++) {
+            edgeList.add(this.edges.get(parentEdges[pathVertices[i]]));
+            vertexList.add(this.vertices.get(pathVertices[i]));
+        }
+        return new Path<>(vertexList, edgeList, costs[endId]);
     }
     
-    private void findShortestPathHelper(V vertex, double cost, IPriorityQueue<VertexNode<V>> heap, 
-            ISet<V> visited, IDictionary<V, Double> vertexCosts, IDictionary<V, E> allPaths) {
-        
-        for (E edge : this.graph.get(vertex)) {
-            double newCost = cost + edge.getWeight();
-            V newVertex = edge.getOtherVertex(vertex);
-            
-            heap.insert(new VertexNode<V>(newVertex, newCost));
-            
-            if (vertexCosts.get(newVertex) == Double.POSITIVE_INFINITY
-                    || (!visited.contains(newVertex) && newCost < vertexCosts.get(newVertex))) {
-                vertexCosts.put(newVertex, newCost);
-                allPaths.put(edge.getOtherVertex(vertex), edge);
-            }
+    /**
+     * Callers like the maze solver expect to see this regularly, and only ever
+     * catch it, so it's created without the cost of recording a stack trace.
+     */
+    private static NoPathExistsException noPathExists() {
+        return new NoPathExistsException("No path exists between the given vertices", null, false, false);
+    }
+
+    private int otherVertex(int edge, int vertex) {
+        int vertex1 = this.edgeVertex1[edge];
+        return vertex1 == vertex ? this.edgeVertex2[edge] : vertex1;
+    }
+
+    /**
+     * The ways 'findMinimumSpanningTree' can find a minimum spanning tree.
+     */
+    public enum MstAlgorithm {
+        /**
+         * Uses PRIM on graphs with many edges per vertex, and FILTER_KRUSKAL on the
+         * rest. This is the default.
+         */
+        AUTOMATIC,
+
+        /**
+         * Radix sorts every edge by weight, then adds them lightest first.
+         */
+        KRUSKAL,
+
+        /**
+         * Like KRUSKAL, but splits the edges around a pivot weight and handles the
+         * light ones first, so heavy edges that can no longer join anything are
+         * discarded without being sorted. Never slower then KRUSKAL by much, and
+         * much faster once the graph has many more edges then vertices.
+         */
+        FILTER_KRUSKAL,
+
+        /**
+         * Heapifies the edges instead of sorting them, and stops removing them as
+         * soon as the tree is complete. This never sorts the heaviest edges, but
+         * each removal jumps around memory, so it is usually slower then the others
+         * unless the tree is complete after only a few edges.
+         */
+        LAZY_KRUSKAL,
+
+        /**
+         * Grows the tree out from a single vertex using an indexed heap of the
+         * vertices next to it, so the edges are never sorted at all. Best on very
+         * dense graphs.
+         */
+        PRIM
+    }
+
+    /**
+     * The connected components of a graph: labels[v] is the component of vertex v,
+     * and sizes holds how many vertices each component has.
+     */
+    private static class Components {
+        public final int[] labels;
+        public final IntList sizes;
+
+        public Components(int[] labels, IntList sizes) {
+            this.labels = labels;
+            this.sizes = sizes;
+        }
+
+        public int count() {
+            return this.sizes.size();
         }
     }
-    
-    private static class VertexNode<V> implements Comparable<VertexNode<V>> {
-        private V vertex;
-        private double cost;
-        
-        public VertexNode(V vertex, double cost) {
-            this.vertex = vertex;
-            this.cost = cost;
+
+    /**
+     * Collects the edges of a spanning tree as they are chosen, keeping track of
+     * which vertices they have connected so far, and reports them to the listener.
+     */
+    private class SpanningTreeBuilder {
+        private IntDisjointSet components;
+        private ISet<E> result;
+        private IntList acceptedEdges;
+        private ProgressBatch<E> accepted;
+
+        public SpanningTreeBuilder() {
+            int numVertices = Graph.this.vertices.size();
+            this.components = new IntDisjointSet(numVertices);
+            this.result = new ChainedHashSet<E>(Math.max(numVertices - 1, 0));
+            this.acceptedEdges = new IntList(Math.max(numVertices - 1, 0));
+            if (Graph.this.listener != null) {
+                this.accepted = new ProgressBatch<>(Graph.this.listener::edgesAccepted,
+                                                    Graph.this.progressBatchSize);
+            }
         }
-        
-        public V getVertex() {
-            return this.vertex;
+
+        /**
+         * Returns 'true' if the given edge connects two vertices the tree hasn't
+         * connected yet.
+         */
+        public boolean wouldJoin(int edge) {
+            return this.components.findSet(Graph.this.edgeVertex1[edge])
+                    != this.components.findSet(Graph.this.edgeVertex2[edge]);
         }
-        
-        public double getCost() {
-            return this.cost;
+
+        /**
+         * Adds the given edge to the tree, unless it would make a cycle.
+         */
+        public void offer(int edge) {
+            if (this.wouldJoin(edge)) {
+                this.components.union(Graph.this.edgeVertex1[edge], Graph.this.edgeVertex2[edge]);
+                E chosen = Graph.this.edges.get(edge);
+                this.result.add(chosen);
+                this.acceptedEdges.add(edge);
+                if (this.accepted != null) {
+                    this.accepted.add(chosen);
+                }
+            }
         }
-        
-        public String toString() {
-            return "" + this.vertex + " " + this.cost;
+
+        /**
+         * Returns 'true' once every vertex is connected, at which point no further
+         * edge could be added.
+         */
+        public boolean isComplete() {
+            return this.components.numSets() <= 1;
         }
-        
-        @Override
-        public int compareTo(VertexNode<V> other) {
-            return Double.compare(this.cost, other.cost);
+
+        /**
+         * Returns which vertices the tree has connected so far.
+         */
+        public IntDisjointSet getComponents() {
+            return this.components;
+        }
+
+        /**
+         * Returns the ids of the edges added to the tree so far, in the order they
+         * were added.
+         */
+        public IntList getAcceptedEdges() {
+            return this.acceptedEdges;
+        }
+
+        public ISet<E> finish() {
+            if (this.accepted != null) {
+                this.accepted.flush();
+            }
+            return this.result;
         }
     }
 }
@@ -0,0 +1,28 @@
+package misc.graphs;
+
+import datastructures.interfaces.IList;
+
+/**
+ * Receives progress reports from the graph algorithms as they run, so a client
+ * can (for example) animate them.
+ *
+ * Reports arrive in batches rather then one at a time, and are delivered on
+ * whatever thread is running the algorithm. Both methods do nothing by default,
+ * so a listener only needs to override the ones it cares about.
+ */
+public interface GraphProgressListener<V, E> {
+    /**
+     * Called with edges the algorithm has just committed to: edges added to the
+     * minimum spanning tree, or walls a maze carver decided to remove.
+     */
+    public default void edgesAccepted(IList<E> edges) {
+        // Do nothing
+    }
+
+    /**
+     * Called with vertices whose shortest distance from the start is now final.
+     */
+    public default void verticesSettled(IList<V> vertices) {
+        // Do nothing
+    }
+}
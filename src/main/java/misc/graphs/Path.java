@@ -0,0 +1,55 @@
+package misc.graphs;
+
+import datastructures.interfaces.IList;
+
+/**
+ * A path through a graph: the vertices it visits in order, the edges between
+ * them, and the total weight of those edges.
+ *
+ * A path from a vertex to itself has that one vertex and no edges.
+ */
+public class Path<V, E> {
+    private IList<V> vertices;
+    private IList<E> edges;
+    private double cost;
+
+    /**
+     * Only Graph creates these. 'vertices' must have exactly one more item then
+     * 'edges', and edges.get(i) must join vertices.get(i) and vertices.get(i + 1).
+     */
+    Path(IList<V> vertices, IList<E> edges, double cost) {
+        this.vertices = vertices;
+        this.edges = edges;
+        this.cost = cost;
+    }
+
+    /**
+     * Returns the vertices along the path, from the start to the end.
+     */
+    public IList<V> getVertices() {
+        return this.vertices;
+    }
+
+    /**
+     * Returns the edges along the path, from the one leaving the start to the one
+     * reaching the end.
+     */
+    public IList<E> getEdges() {
+        return this.edges;
+    }
+
+    /**
+     * Returns the sum of the weights of every edge along the path.
+     */
+    public double getCost() {
+        return this.cost;
+    }
+
+    public V getStart() {
+        return this.vertices.get(0);
+    }
+
+    public V getEnd() {
+        return this.vertices.get(this.vertices.size() - 1);
+    }
+}
@@ -0,0 +1,52 @@
+package misc.graphs;
+
+import datastructures.concrete.DoubleLinkedList;
+import datastructures.interfaces.IList;
+
+import java.util.function.Consumer;
+
+/**
+ * Collects progress reports into batches of a fixed size, handing each full
+ * batch to some sink.
+ *
+ * Algorithms should only create one of these when somebody is actually
+ * listening, so that reporting costs nothing more then a null check otherwise.
+ * Remember to call 'flush' once the algorithm finishes.
+ */
+public class ProgressBatch<T> {
+    public static final int DEFAULT_SIZE = 64;
+
+    private Consumer<IList<T>> sink;
+    private int size;
+    private IList<T> pending;
+
+    /**
+     * @throws IllegalArgumentException  if size is not positive
+     */
+    public ProgressBatch(Consumer<IList<T>> sink, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.sink = sink;
+        this.size = size;
+        this.pending = new DoubleLinkedList<>();
+    }
+
+    public void add(T item) {
+        this.pending.add(item);
+        if (this.pending.size() >= this.size) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Hands whatever is still pending to the sink, if anything.
+     */
+    public void flush() {
+        if (!this.pending.isEmpty()) {
+            IList<T> batch = this.pending;
+            this.pending = new DoubleLinkedList<>();
+            this.sink.accept(batch);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package misc.graphs;
+
+import datastructures.concrete.dictionaries.ObjectIntMap;
+import datastructures.interfaces.IList;
+import datastructures.interfaces.ISet;
+
+/**
+ * A minimum spanning forest: one minimum spanning tree for each connected
+ * component of a graph, along with which component every vertex is in.
+ *
+ * Components are numbered 0 through numComponents() - 1, in the order their
+ * first vertex was given to the graph.
+ */
+public class SpanningForest<V, E> {
+    private ObjectIntMap<V> vertexIds;
+    private int[] components;
+    private IList<ISet<E>> trees;
+    private ISet<E> edges;
+
+    /**
+     * Only Graph creates these. 'components' holds the component of each vertex, by
+     * the vertex's id in 'vertexIds'; 'trees' holds the tree of each component.
+     */
+    SpanningForest(ObjectIntMap<V> vertexIds, int[] components, IList<ISet<E>> trees, ISet<E> edges) {
+        this.vertexIds = vertexIds;
+        this.components = components;
+        this.trees = trees;
+        this.edges = edges;
+    }
+
+    /**
+     * Returns the number of connected components, which is also the number of trees.
+     */
+    public int numComponents() {
+        return this.trees.size();
+    }
+
+    /**
+     * Returns the number of the component containing the given vertex.
+     *
+     * @throws IllegalArgumentException  if the vertex is not in the graph
+     */
+    public int getComponent(V vertex) {
+        int id = this.vertexIds.getOrDefault(vertex, -1);
+        if (id == -1) {
+            throw new IllegalArgumentException("Vertex is not in the graph: " + vertex);
+        }
+        return this.components[id];
+    }
+
+    /**
+     * Returns the edges of the minimum spanning tree of the given component. A
+     * component with a single vertex has an empty tree.
+     *
+     * @throws IndexOutOfBoundsException  if component < 0 or component >= numComponents()
+     */
+    public ISet<E> getTree(int component) {
+        if (component < 0 || component >= this.trees.size()) {
+            throw new IndexOutOfBoundsException("No such component: " + component);
+        }
+        return this.trees.get(component);
+    }
+
+    /**
+     * Returns every edge in the forest, across all of the trees.
+     */
+    public ISet<E> getEdges() {
+        return this.edges;
+    }
+}
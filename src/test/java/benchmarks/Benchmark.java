@@ -0,0 +1,43 @@
+package benchmarks;
+
+/**
+ * Timing helpers for the benchmarks in this package.
+ *
+ * The benchmarks are not unit tests, and don't assert anything about how fast
+ * the code is: timings on a shared or single-core machine are far too noisy for
+ * that. Instead, each one has a 'main' method that prints its measurements, and
+ * is meant to be run by hand when tuning the code it covers. For example:
+ *
+ *     java -cp build/classes/java/main:build/classes/java/test benchmarks.MstAlgorithmBenchmark
+ */
+public class Benchmark {
+    private static final int WARMUP_RUNS = 3;
+    private static final int TIMED_RUNS = 5;
+
+    /**
+     * Runs the task a few times to give the JIT a chance to compile it, then
+     * returns how long the fastest of several more runs took, in milliseconds.
+     */
+    public static double bestMillis(Runnable task) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            task.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+
+    /**
+     * Times each of the given tasks and prints one line comparing them.
+     */
+    public static void compare(String label, String name1, Runnable task1, String name2, Runnable task2) {
+        double millis1 = bestMillis(task1);
+        double millis2 = bestMillis(task2);
+        System.out.printf("%s: %s=%.1fms %s=%.1fms (%.2fx)%n",
+                label, name1, millis1, name2, millis2, millis2 / millis1);
+    }
+}
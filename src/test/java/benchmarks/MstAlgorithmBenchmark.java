@@ -0,0 +1,55 @@
+package benchmarks;
+
+import datastructures.TestGraph.SimpleEdge;
+import datastructures.concrete.ArrayBackedList;
+import datastructures.interfaces.IList;
+import misc.graphs.Graph;
+
+import java.util.Random;
+
+/**
+ * Times every MST algorithm on random graphs of increasing density, to check
+ * where AUTOMATIC switches from filter-Kruskal to Prim (Graph.PRIM_MIN_DENSITY).
+ *
+ * Every graph has about the same number of edges, so the rows differ only in
+ * how many edges there are per vertex. AUTOMATIC should be close to the fastest
+ * algorithm in every row.
+ */
+public class MstAlgorithmBenchmark {
+    private static final int NUM_EDGES = 400000;
+
+    public static void main(String[] args) {
+        for (int density : new int[] {2, 8, 20, 40, 64, 100, 200}) {
+            Graph<Integer, SimpleEdge<Integer>> graph = buildRandomGraph(NUM_EDGES / density, NUM_EDGES);
+            StringBuilder line = new StringBuilder(String.format(
+                    "V=%d E=%d (%d per vertex):", graph.numVertices(), graph.numEdges(), density));
+            for (Graph.MstAlgorithm algorithm : Graph.MstAlgorithm.values()) {
+                graph.setMstAlgorithm(algorithm);
+                double millis = Benchmark.bestMillis(graph::findMinimumSpanningTree);
+                line.append(String.format(" %s=%.1fms", algorithm, millis));
+            }
+            System.out.println(line);
+        }
+    }
+
+    /**
+     * Builds a connected graph on the given number of vertices, with random weights.
+     */
+    private static Graph<Integer, SimpleEdge<Integer>> buildRandomGraph(int numVertices, int numEdges) {
+        Random random = new Random(numVertices + numEdges);
+        IList<Integer> vertices = new ArrayBackedList<>(numVertices);
+        for (int i = 0; i < numVertices; i++) {
+            vertices.add(i);
+        }
+
+        IList<SimpleEdge<Integer>> edges = new ArrayBackedList<>(numEdges);
+        for (int i = 1; i < numVertices; i++) {
+            // Link each vertex to an earlier one, so the whole graph is connected.
+            edges.add(new SimpleEdge<>(random.nextInt(i), i, random.nextDouble()));
+        }
+        while (edges.size() < numEdges) {
+            edges.add(new SimpleEdge<>(random.nextInt(numVertices), random.nextInt(numVertices), random.nextDouble()));
+        }
+        return new Graph<>(vertices, edges);
+    }
+}
@@ -0,0 +1,125 @@
+package benchmarks;
+
+import datastructures.concrete.ArrayHeap;
+import datastructures.concrete.IntHeap;
+import datastructures.concrete.dictionaries.ChainedHashDictionary;
+import datastructures.concrete.dictionaries.ObjectIntMap;
+import datastructures.interfaces.IDictionary;
+import datastructures.interfaces.IPriorityQueue;
+
+import java.util.Random;
+
+/**
+ * Compares the primitive collections against the boxed ones they replaced in Graph:
+ *
+ * - IntHeap's decrease-key against an ArrayHeap of boxed (item, priority) entries,
+ *   where lowering a priority inserts a duplicate entry and stale entries are
+ *   skipped when they come out.
+ * - ObjectIntMap against a ChainedHashDictionary with boxed Integer values.
+ *
+ * The workloads are the same ones the stress tests in TestPrimitiveCollections run.
+ */
+public class PrimitiveCollectionsBenchmark {
+    private static final int HEAP_ITEMS = 200000;
+    private static final int MAP_ENTRIES = 500000;
+
+    public static void main(String[] args) {
+        Benchmark.compare("heap with " + HEAP_ITEMS + " items and " + 4 * HEAP_ITEMS + " decreases",
+                "IntHeap", PrimitiveCollectionsBenchmark::intHeap,
+                "ArrayHeap", PrimitiveCollectionsBenchmark::arrayHeap);
+        Benchmark.compare("map with " + MAP_ENTRIES + " entries",
+                "ObjectIntMap", PrimitiveCollectionsBenchmark::objectIntMap,
+                "ChainedHashDictionary", PrimitiveCollectionsBenchmark::chainedHashDictionary);
+    }
+
+    private static void intHeap() {
+        Random random = new Random(373);
+        IntHeap heap = new IntHeap(HEAP_ITEMS);
+        for (int i = 0; i < HEAP_ITEMS; i++) {
+            heap.insert(i, 1000 + random.nextDouble());
+        }
+        for (int i = 0; i < 4 * HEAP_ITEMS; i++) {
+            int item = random.nextInt(HEAP_ITEMS);
+            heap.insertOrDecrease(item, heap.getPriority(item) - random.nextDouble());
+        }
+        int removed = 0;
+        while (!heap.isEmpty()) {
+            heap.removeMin();
+            removed++;
+        }
+        check(removed == HEAP_ITEMS);
+    }
+
+    private static void arrayHeap() {
+        Random random = new Random(373);
+        double[] priorities = new double[HEAP_ITEMS];
+        IPriorityQueue<Entry> heap = new ArrayHeap<>();
+        for (int i = 0; i < HEAP_ITEMS; i++) {
+            priorities[i] = 1000 + random.nextDouble();
+            heap.insert(new Entry(i, priorities[i]));
+        }
+        for (int i = 0; i < 4 * HEAP_ITEMS; i++) {
+            int item = random.nextInt(HEAP_ITEMS);
+            priorities[item] -= random.nextDouble();
+            heap.insert(new Entry(item, priorities[item]));
+        }
+        int removed = 0;
+        while (!heap.isEmpty()) {
+            Entry entry = heap.removeMin();
+            if (entry.priority == priorities[entry.item]) {
+                removed++;
+            }
+        }
+        check(removed == HEAP_ITEMS);
+    }
+
+    private static void objectIntMap() {
+        ObjectIntMap<Integer> map = new ObjectIntMap<>();
+        for (int i = 0; i < MAP_ENTRIES; i++) {
+            map.put(i, -i);
+        }
+        long sum = 0;
+        for (int repeat = 0; repeat < 4; repeat++) {
+            for (int i = 0; i < MAP_ENTRIES; i++) {
+                sum += map.get(i);
+            }
+        }
+        check(sum == -4L * MAP_ENTRIES * (MAP_ENTRIES - 1) / 2);
+    }
+
+    private static void chainedHashDictionary() {
+        IDictionary<Integer, Integer> map = new ChainedHashDictionary<>();
+        for (int i = 0; i < MAP_ENTRIES; i++) {
+            map.put(i, -i);
+        }
+        long sum = 0;
+        for (int repeat = 0; repeat < 4; repeat++) {
+            for (int i = 0; i < MAP_ENTRIES; i++) {
+                sum += map.get(i);
+            }
+        }
+        check(sum == -4L * MAP_ENTRIES * (MAP_ENTRIES - 1) / 2);
+    }
+
+    // Using every result keeps the JIT from optimizing the work away.
+    private static void check(boolean condition) {
+        if (!condition) {
+            throw new AssertionError("Benchmark produced the wrong result");
+        }
+    }
+
+    private static class Entry implements Comparable<Entry> {
+        public final int item;
+        public final double priority;
+
+        public Entry(int item, double priority) {
+            this.item = item;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Double.compare(this.priority, other.priority);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package benchmarks;
+
+import mazes.entities.Maze;
+import mazes.generators.base.GridGenerator;
+import mazes.gui.ImageDrawer;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Measures how many frames per second ImageDrawer manages on a maze with over
+ * 100,000 walls: redrawing the whole image, and drawing zoomed-in tiles the way
+ * the GUI's viewport does.
+ */
+public class RenderingBenchmark {
+    private static final int SIZE = 1200;
+    private static final int FRAMES = 50;
+    private static final int TILE_SIZE = 256;
+    private static final double ZOOM = 4.0;
+
+    public static void main(String[] args) {
+        Maze maze = new GridGenerator(225, 225).generateBaseMaze(new Rectangle(5, 5, SIZE - 10, SIZE - 10));
+        BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        ImageDrawer drawer = new ImageDrawer(image, 5);
+        drawer.drawMaze(maze);
+        System.out.println("walls: " + maze.getWalls().size());
+
+        double redrawMillis = Benchmark.bestMillis(() -> {
+            for (int i = 0; i < FRAMES; i++) {
+                drawer.redraw();
+            }
+        });
+        System.out.printf("full redraw: %.1f frames per second%n", FRAMES * 1000 / redrawMillis);
+
+        // Each zoomed tile covers TILE_SIZE / ZOOM pixels of the image
+        BufferedImage tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+        int regionSize = (int) (TILE_SIZE / ZOOM);
+        double tileMillis = Benchmark.bestMillis(() -> {
+            for (int i = 0; i < FRAMES; i++) {
+                int x = (i * regionSize) % (SIZE - regionSize);
+                Graphics2D graphics = tile.createGraphics();
+                graphics.scale(ZOOM, ZOOM);
+                graphics.translate(-x, -x);
+                drawer.drawRegion(graphics, new Rectangle(x, x, regionSize, regionSize), ZOOM);
+                graphics.dispose();
+            }
+        });
+        System.out.printf("zoomed %dx%d tiles at %.0fx: %.1f tiles per second%n",
+                TILE_SIZE, TILE_SIZE, ZOOM, FRAMES * 1000 / tileMillis);
+    }
+}
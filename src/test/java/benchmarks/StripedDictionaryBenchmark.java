@@ -0,0 +1,97 @@
+package benchmarks;
+
+import datastructures.concrete.dictionaries.ChainedHashDictionary;
+import datastructures.concrete.dictionaries.StripedHashDictionary;
+import datastructures.interfaces.IDictionary;
+
+/**
+ * Compares the throughput of StripedHashDictionary against a ChainedHashDictionary
+ * behind one big lock, with several threads doing the same mix of reads and writes.
+ *
+ * How much striping helps depends on how many cores the machine has: with a single
+ * core the threads just take turns, so there is nothing for striping to win back.
+ * Pass the thread counts to try as arguments; by default this tries 1, 2, 4 and 8.
+ */
+public class StripedDictionaryBenchmark {
+    private static final int OPERATIONS_PER_THREAD = 100000;
+
+    public static void main(String[] args) {
+        System.out.println("cores: " + Runtime.getRuntime().availableProcessors());
+        int[] threadCounts = {1, 2, 4, 8};
+        if (args.length > 0) {
+            threadCounts = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                threadCounts[i] = Integer.parseInt(args[i]);
+            }
+        }
+
+        for (int threads : threadCounts) {
+            double stripedMillis = Benchmark.bestMillis(() -> fill(new StripedHashDictionary<>(), threads));
+            double lockedMillis = Benchmark.bestMillis(() -> fill(new SynchronizedDictionary<>(), threads));
+            // Each step of the loop in fill does one put and one lookup
+            double operations = 2.0 * threads * OPERATIONS_PER_THREAD;
+            System.out.printf("threads=%d: striped=%.0f ops/ms synchronized=%.0f ops/ms (%.2fx)%n",
+                    threads,
+                    operations / stripedMillis,
+                    operations / lockedMillis,
+                    lockedMillis / stripedMillis);
+        }
+    }
+
+    private static void fill(IDictionary<Integer, Integer> dict, int numThreads) {
+        Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            int base = i * OPERATIONS_PER_THREAD;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                    dict.put(base + j, j);
+                    if (!dict.containsKey(base + j / 2)) {
+                        throw new AssertionError("Lost key " + (base + j / 2));
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        }
+        if (dict.size() != numThreads * OPERATIONS_PER_THREAD) {
+            throw new AssertionError("Expected " + numThreads * OPERATIONS_PER_THREAD + " keys");
+        }
+    }
+
+    /**
+     * A ChainedHashDictionary where every method holds the same lock.
+     */
+    private static class SynchronizedDictionary<K, V> extends ChainedHashDictionary<K, V> {
+        @Override
+        public synchronized V get(K key) {
+            return super.get(key);
+        }
+
+        @Override
+        public synchronized void put(K key, V value) {
+            super.put(key, value);
+        }
+
+        @Override
+        public synchronized V remove(K key) {
+            return super.remove(key);
+        }
+
+        @Override
+        public synchronized boolean containsKey(K key) {
+            return super.containsKey(key);
+        }
+
+        @Override
+        public synchronized int size() {
+            return super.size();
+        }
+    }
+}
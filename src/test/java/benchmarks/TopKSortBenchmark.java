@@ -0,0 +1,101 @@
+package benchmarks;
+
+import datastructures.concrete.ArrayBackedList;
+import datastructures.concrete.ArrayHeap;
+import datastructures.interfaces.IList;
+import datastructures.interfaces.IPriorityQueue;
+import misc.Searcher;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures the thresholds Searcher uses to pick a topKSort strategy.
+ *
+ * The first table times topKSort on a million random Integers for a range of k,
+ * next to a plain k-sized heap and a plain full sort. HEAP_THRESHOLD and
+ * FULL_SORT_FRACTION are tuned right if topKSort is never much slower then the
+ * better of the two.
+ *
+ * The second table times the sequential topKSort against parallelTopKSort on a
+ * pool with one thread per core, for growing n. PARALLEL_THRESHOLD should sit
+ * around the smallest n where the parallel version starts winning. This table
+ * only means something on a machine with several cores.
+ */
+public class TopKSortBenchmark {
+    private static final int STRATEGY_N = 1000000;
+
+    public static void main(String[] args) {
+        // Keep topKSort itself sequential, so it can serve as the baseline. This has
+        // to happen before anything touches the common pool.
+        System.setProperty("java.util.concurrent.ForkJoinPool.common.parallelism", "1");
+
+        IList<Integer> input = randomIntegers(STRATEGY_N, 373);
+        int[] divisors = {1024, 512, 256, 128, 64, 16, 4, 2};
+        for (int divisor : divisors) {
+            compareStrategies(input, STRATEGY_N / divisor);
+        }
+        for (double fraction : new double[] {0.7, 0.8, 0.9, 1.0}) {
+            compareStrategies(input, (int) (STRATEGY_N * fraction));
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("cores: " + cores);
+        ForkJoinPool pool = new ForkJoinPool(cores);
+        for (int n = 1 << 13; n <= 1 << 20; n *= 2) {
+            IList<Integer> items = randomIntegers(n, n);
+            for (int k : new int[] {n / 1024, n}) {
+                double sequential = Benchmark.bestMillis(() -> Searcher.topKSort(k, items));
+                double parallel = Benchmark.bestMillis(() -> Searcher.parallelTopKSort(k, items, pool));
+                System.out.printf("n=%d k=%d: sequential=%.2fms parallel=%.2fms (%.2fx)%n",
+                        n, k, sequential, parallel, sequential / parallel);
+            }
+        }
+        pool.shutdown();
+    }
+
+    private static void compareStrategies(IList<Integer> input, int k) {
+        double topK = Benchmark.bestMillis(() -> Searcher.topKSort(k, input));
+        double heap = Benchmark.bestMillis(() -> heapTopK(k, input));
+        double sort = Benchmark.bestMillis(() -> sortTopK(k, input));
+        System.out.printf("n=%d k=%d: topKSort=%.1fms heap=%.1fms sort=%.1fms%n",
+                input.size(), k, topK, heap, sort);
+    }
+
+    private static IList<Integer> randomIntegers(int n, long seed) {
+        Random random = new Random(seed);
+        IList<Integer> items = new ArrayBackedList<>(n);
+        for (int i = 0; i < n; i++) {
+            items.add(random.nextInt());
+        }
+        return items;
+    }
+
+    private static Integer[] heapTopK(int k, IList<Integer> input) {
+        IPriorityQueue<Integer> heap = new ArrayHeap<>(k);
+        for (Integer item : input) {
+            if (heap.size() < k) {
+                heap.insert(item);
+            } else if (item.compareTo(heap.peekMin()) > 0) {
+                heap.removeMin();
+                heap.insert(item);
+            }
+        }
+        Integer[] result = new Integer[heap.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = heap.removeMin();
+        }
+        return result;
+    }
+
+    private static Integer[] sortTopK(int k, IList<Integer> input) {
+        Integer[] items = new Integer[input.size()];
+        int index = 0;
+        for (Integer item : input) {
+            items[index++] = item;
+        }
+        Arrays.sort(items);
+        return Arrays.copyOfRange(items, items.length - k, items.length);
+    }
+}
@@ -0,0 +1,117 @@
+package datastructures;
+
+import datastructures.concrete.ArrayBackedList;
+import datastructures.concrete.DoubleLinkedList;
+import datastructures.interfaces.IList;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs every DoubleLinkedList test against ArrayBackedList too, plus a few
+ * tests for the methods only ArrayBackedList has.
+ */
+public class TestArrayBackedList extends TestDoubleLinkedList {
+    @Override
+    protected <T> IList<T> newList() {
+        return new ArrayBackedList<>();
+    }
+
+    @Override
+    protected IList<String> makeBasicList() {
+        IList<String> list = new ArrayBackedList<>();
+
+        list.add("a");
+        list.add("b");
+        list.add("c");
+
+        return list;
+    }
+
+    /**
+     * Inserting at the front of an array-backed list has to shift every element,
+     * so we only check that it works, on a list small enough for O(n^2) to be fine.
+     */
+    @Override
+    @Test(timeout=15 * SECOND)
+    public void testInsertAtFrontIsEfficient() {
+        IList<Integer> list = this.newList();
+        int cap = 20000;
+        for (int i = 0; i < cap; i++) {
+            list.insert(0, i * 2);
+        }
+        assertEquals(cap, list.size());
+        assertEquals((cap - 1) * 2, list.get(0));
+        assertEquals(0, list.get(cap - 1));
+    }
+
+    @Test(timeout=SECOND)
+    public void testAddAllFromEitherKindOfList() {
+        ArrayBackedList<String> list = new ArrayBackedList<>(0);
+        list.addAll(this.makeBasicList());
+
+        IList<String> linked = new DoubleLinkedList<>();
+        linked.add("d");
+        linked.add("e");
+        list.addAll(linked);
+        this.assertListMatches(new String[] {"a", "b", "c", "d", "e"}, list);
+
+        list.addAll(list);
+        this.assertListMatches(new String[] {"a", "b", "c", "d", "e", "a", "b", "c", "d", "e"}, list);
+    }
+
+    @Test(timeout=SECOND)
+    public void testTrimToSizeKeepsContents() {
+        ArrayBackedList<Integer> list = new ArrayBackedList<>(100);
+        for (int i = 0; i < 5; i++) {
+            list.add(i);
+        }
+        list.trimToSize();
+        this.assertListMatches(new Integer[] {0, 1, 2, 3, 4}, list);
+
+        // The list should still be able to grow afterwards
+        list.add(5);
+        list.insert(0, -1);
+        this.assertListMatches(new Integer[] {-1, 0, 1, 2, 3, 4, 5}, list);
+
+        list = new ArrayBackedList<>();
+        list.trimToSize();
+        list.add(1);
+        this.assertListMatches(new Integer[] {1}, list);
+    }
+
+    @Test(timeout=SECOND)
+    public void testNegativeCapacityNotPermitted() {
+        try {
+            new ArrayBackedList<String>(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testContainsNull() {
+        IList<String> list = this.makeBasicList();
+        assertFalse(list.contains(null));
+        list.add(null);
+        assertTrue(list.contains(null));
+        assertEquals(3, list.indexOf(null));
+    }
+
+    @Test(timeout=2 * SECOND)
+    public void testGetIsFastForManyNumbers() {
+        IList<Integer> list = new ArrayBackedList<>();
+        int cap = 1000000;
+        for (int i = 0; i < cap; i++) {
+            list.add(i);
+        }
+        long total = 0;
+        for (int i = 0; i < cap; i++) {
+            total += list.get(i);
+        }
+        assertEquals((long) cap * (cap - 1) / 2, total);
+    }
+}
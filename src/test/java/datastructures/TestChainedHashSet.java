@@ -11,6 +11,7 @@ import org.junit.Test;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 
 public class TestChainedHashSet extends BaseTest {
     protected ISet<String> makeBasicSet() {
@@ -385,4 +386,116 @@ public class TestChainedHashSet extends BaseTest {
             assertFalse(set.contains(i));
         }
     }
+
+    @Test(timeout=SECOND)
+    public void testParallelStreamSeesEveryItemOnce() {
+        ISet<Integer> set = new ChainedHashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            set.add(i);
+        }
+
+        assertEquals(10000L, set.parallelStream().count());
+        assertEquals(10000L, set.parallelStream().distinct().count());
+        assertEquals(9999L * 10000 / 2, set.parallelStream().mapToLong(Integer::longValue).sum());
+
+        ISet<Integer> evens = set.parallelStream()
+                .filter(item -> item % 2 == 0)
+                .collect(ChainedHashSet.toSet());
+        assertEquals(5000, evens.size());
+        for (int i = 0; i < 10000; i += 2) {
+            assertTrue(evens.contains(i));
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testSpliteratorSplitsIntoDisjointHalves() {
+        ISet<Integer> set = new ChainedHashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            set.add(i);
+        }
+
+        Spliterator<Integer> first = set.spliterator();
+        assertEquals(1000L, first.getExactSizeIfKnown());
+        Spliterator<Integer> second = first.trySplit();
+        assertTrue(second != null);
+
+        ISet<Integer> seen = new ChainedHashSet<>();
+        first.forEachRemaining(seen::add);
+        int firstCount = seen.size();
+        second.forEachRemaining(seen::add);
+        assertTrue(firstCount > 0);
+        assertTrue(firstCount < 1000);
+        assertEquals(1000, seen.size());
+    }
+
+    private ISet<Integer> makeRange(int from, int to) {
+        ISet<Integer> set = new ChainedHashSet<>();
+        for (int i = from; i < to; i++) {
+            set.add(i);
+        }
+        return set;
+    }
+
+    @Test(timeout=SECOND)
+    public void testDifferenceAndUnion() {
+        ISet<Integer> first = this.makeRange(0, 100);
+        ISet<Integer> second = this.makeRange(50, 150);
+
+        ISet<Integer> difference = first.difference(second);
+        assertEquals(50, difference.size());
+        for (int i = 0; i < 50; i++) {
+            assertTrue(difference.contains(i));
+        }
+
+        ISet<Integer> union = first.union(second);
+        assertEquals(150, union.size());
+        for (int i = 0; i < 150; i++) {
+            assertTrue(union.contains(i));
+        }
+
+        // Neither input should have changed
+        assertEquals(100, first.size());
+        assertEquals(100, second.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testAddRemoveRetainAll() {
+        ISet<Integer> set = this.makeRange(0, 100);
+        set.addAll(this.makeRange(90, 110));
+        assertEquals(110, set.size());
+
+        // Removing a small set and a large one take different paths
+        set.removeAll(this.makeRange(0, 10));
+        assertEquals(100, set.size());
+        set.removeAll(this.makeRange(100, 1000));
+        assertEquals(90, set.size());
+        assertFalse(set.contains(5));
+        assertFalse(set.contains(105));
+
+        set.retainAll(this.makeRange(50, 60));
+        assertEquals(10, set.size());
+        for (int i = 50; i < 60; i++) {
+            assertTrue(set.contains(i));
+        }
+
+        ISet<Integer> copy = new ChainedHashSet<>(set);
+        assertEquals(10, copy.size());
+        copy.add(-1);
+        assertFalse(set.contains(-1));
+    }
+
+    @Test(timeout=2 * SECOND)
+    public void testDifferenceOfLargeSetsIsEfficient() {
+        int cap = 1000000;
+        ISet<Integer> all = this.makeRange(0, cap);
+        ISet<Integer> evens = new ChainedHashSet<>(cap / 2);
+        for (int i = 0; i < cap; i += 2) {
+            evens.add(i);
+        }
+
+        ISet<Integer> odds = all.difference(evens);
+        assertEquals(cap / 2, odds.size());
+        assertTrue(odds.contains(cap - 1));
+        assertFalse(odds.contains(0));
+    }
 }
@@ -15,6 +15,14 @@ import java.util.NoSuchElementException;
 import java.util.Random;
 
 public class TestDoubleLinkedList extends BaseTest {
+    /**
+     * Returns a new, empty list. Subclasses override this to run every test in
+     * this class against a different IList implementation.
+     */
+    protected <T> IList<T> newList() {
+        return new DoubleLinkedList<>();
+    }
+
     /**
      * This method creates a simple list containing three elements to help minimize
      * redundancy later in our tests.
@@ -72,7 +80,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=2 * SECOND)
     public void testAddAndGetWorksForManyNumbers() {
-        IList<Integer> list = new DoubleLinkedList<>();
+        IList<Integer> list = this.newList();
         int cap = 1000;
         for (int i = 0; i < cap; i++) {
             list.add(i * 2);
@@ -87,7 +95,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=15 * SECOND)
     public void testAddIsEfficient() {
-        IList<Integer> list = new DoubleLinkedList<>();
+        IList<Integer> list = this.newList();
         int cap = 5000000;
         for (int i = 0; i < cap; i++) {
             list.add(i * 2);
@@ -110,7 +118,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=SECOND)
     public void testAddAndRemoveFromEnd() {
-        IList<Integer> list = new DoubleLinkedList<>();
+        IList<Integer> list = this.newList();
         int cap = 1000;
 
         for (int i = 0; i < cap; i++) {
@@ -131,7 +139,7 @@ public class TestDoubleLinkedList extends BaseTest {
     public void testAlternatingAddAndRemove() {
         int iterators = 1000;
 
-        IList<String> list = new DoubleLinkedList<>();
+        IList<String> list = this.newList();
 
         for (int i = 0; i < iterators; i++) {
             String entry = "" + i;
@@ -146,7 +154,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=5 * SECOND)
     public void testAddAndRemoveFromEndIsEfficient() {
-        IList<Integer> list = new DoubleLinkedList<>();
+        IList<Integer> list = this.newList();
         for (int i = 0; i < 10000; i++) {
             list.add(i);
         }
@@ -217,7 +225,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=SECOND)
     public void testSetWithOneElement() {
-        IList<String> list = new DoubleLinkedList<>();
+        IList<String> list = this.newList();
         list.add("foo");
 
         list.set(0, "bar");
@@ -248,7 +256,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=5 * SECOND)
     public void testSetManyItems() {
-        IList<String> list = new DoubleLinkedList<>();
+        IList<String> list = this.newList();
         int cap = 10000;
 
         for (int i = 0; i < cap; i++) {
@@ -288,8 +296,8 @@ public class TestDoubleLinkedList extends BaseTest {
     @Test(timeout=SECOND)
     public void testInsertEmptyAndSingleElement() {
         // Lists 1 and 2: insert into empty
-        IList<String> list1 = new DoubleLinkedList<>();
-        IList<String> list2 = new DoubleLinkedList<>();
+        IList<String> list1 = this.newList();
+        IList<String> list2 = this.newList();
         list1.insert(0, "a");
         list2.insert(0, "a");
 
@@ -326,7 +334,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=15 * SECOND)
     public void testInsertAtEndIsEfficient() {
-        IList<Integer> list = new DoubleLinkedList<>();
+        IList<Integer> list = this.newList();
         int cap = 5000000;
         for (int i = 0; i < cap; i++) {
             list.insert(list.size(), i * 2);
@@ -336,7 +344,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=15 * SECOND)
     public void testInsertNearEndIsEfficient() {
-        IList<Integer> list = new DoubleLinkedList<>();
+        IList<Integer> list = this.newList();
         list.add(-1);
         list.add(-2);
 
@@ -349,7 +357,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=15 * SECOND)
     public void testInsertAtFrontIsEfficient() {
-        IList<Integer> list = new DoubleLinkedList<>();
+        IList<Integer> list = this.newList();
         int cap = 5000000;
         for (int i = 0; i < cap; i++) {
             list.insert(0, i * 2);
@@ -359,7 +367,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=SECOND)
     public void testIndexOfAndContainsBasic() {
-        IList<String> list = new DoubleLinkedList<>();
+        IList<String> list = this.newList();
 
         list.add("a");
         list.add("b");
@@ -384,7 +392,7 @@ public class TestDoubleLinkedList extends BaseTest {
         String item1 = "abcdefghijklmnopqrstuvwxyz";
         String item2 = item1 + "";
 
-        IList<String> list = new DoubleLinkedList<>();
+        IList<String> list = this.newList();
         list.add("foo");
         list.add(item1);
 
@@ -405,8 +413,8 @@ public class TestDoubleLinkedList extends BaseTest {
         Random rand = new Random();
         rand.setSeed(12345);
 
-        IList<String> list = new DoubleLinkedList<>();
-        IList<String> refList = new DoubleLinkedList<>();
+        IList<String> list = this.newList();
+        IList<String> refList = this.newList();
 
         for (int i = 0; i < cap; i++) {
             String entry = "";
@@ -430,7 +438,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=SECOND)
     public void testNullEntry() {
-        IList<Integer> list = new DoubleLinkedList<>();
+        IList<Integer> list = this.newList();
         list.add(1);
         list.add(2);
         list.add(3);
@@ -486,7 +494,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=SECOND)
     public void testIteratorOnEmptyList() {
-        IList<String> list = new DoubleLinkedList<>();
+        IList<String> list = this.newList();
 
         for (int i = 0; i < 5; i++) {
             Iterator<String> iter = list.iterator();
@@ -506,7 +514,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=SECOND)
     public void testIteratorOnSingleElementList() {
-        IList<String> list = new DoubleLinkedList<>();
+        IList<String> list = this.newList();
         list.add("foo");
 
         for (int i = 0; i < 5; i++) {
@@ -555,7 +563,7 @@ public class TestDoubleLinkedList extends BaseTest {
 
     @Test(timeout=15 * SECOND)
     public void testAddAndIteratorIsEfficient() {
-        IList<Integer> list = new DoubleLinkedList<>();
+        IList<Integer> list = this.newList();
         int cap = 5000000;
         for (int i = 0; i < cap; i++) {
             list.add(i * 2);
@@ -567,4 +575,23 @@ public class TestDoubleLinkedList extends BaseTest {
             count += 2;
         }
     }
+
+    @Test(timeout=SECOND)
+    public void testStreamMatchesIteration() {
+        IList<Integer> list = this.newList();
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+
+        Object[] streamed = list.stream().toArray();
+        assertEquals(list.size(), streamed.length);
+        int index = 0;
+        for (int item : list) {
+            assertEquals(item, streamed[index]);
+            index++;
+        }
+
+        assertEquals(999 * 1000 / 2, list.parallelStream().mapToInt(Integer::intValue).sum());
+        assertEquals(500L, list.parallelStream().filter(item -> item % 2 == 0).count());
+    }
 }
@@ -1,5 +1,7 @@
 package datastructures;
 
+import datastructures.concrete.ArrayBackedList;
+import datastructures.concrete.ChainedHashSet;
 import datastructures.concrete.DoubleLinkedList;
 import datastructures.interfaces.IList;
 import datastructures.interfaces.ISet;
@@ -7,7 +9,15 @@ import misc.BaseTest;
 import misc.exceptions.NoPathExistsException;
 import misc.graphs.Edge;
 import misc.graphs.Graph;
+import misc.graphs.GraphProgressListener;
+import misc.graphs.Path;
+import misc.graphs.SpanningForest;
 import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -305,6 +315,32 @@ public class TestGraph extends BaseTest {
         assertEquals(0, path.size());
     }
 
+    @Test(timeout=SECOND)
+    public void testFindingWholeShortestPath() {
+        Graph<String, SimpleEdge<String>> graph = this.buildComplexGraph();
+        Path<String, SimpleEdge<String>> path = graph.findShortestPath("a", "g");
+
+        String[] expected = {"a", "b", "c", "f", "e", "g"};
+        assertEquals(6.0, path.getCost(), 0.0001);
+        assertEquals(expected.length, path.getVertices().size());
+        assertEquals(expected.length - 1, path.getEdges().size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], path.getVertices().get(i));
+        }
+        for (int i = 0; i < path.getEdges().size(); i++) {
+            SimpleEdge<String> edge = path.getEdges().get(i);
+            assertEquals(expected[i + 1], edge.getOtherVertex(expected[i]));
+        }
+        assertEquals("a", path.getStart());
+        assertEquals("g", path.getEnd());
+
+        Path<String, SimpleEdge<String>> empty = graph.findShortestPath("c", "c");
+        assertEquals(0.0, empty.getCost(), 0.0);
+        assertEquals(0, empty.getEdges().size());
+        assertEquals("c", empty.getStart());
+        assertEquals("c", empty.getEnd());
+    }
+
     @Test(timeout=SECOND)
     public void testFindingShortestPathDisconnectedComponents() {
         Graph<String, SimpleEdge<String>> graph = this.buildDisconnectedGraph();
@@ -326,4 +362,311 @@ public class TestGraph extends BaseTest {
             // All ok -- expected result
         }
     }
+
+    @Test(timeout=SECOND)
+    public void testMstReportsAcceptedEdgesInBatches() {
+        Graph<String, SimpleEdge<String>> graph = this.buildSimpleGraph();
+        IList<IList<SimpleEdge<String>>> batches = new DoubleLinkedList<>();
+        graph.setProgressListener(new GraphProgressListener<String, SimpleEdge<String>>() {
+            @Override
+            public void edgesAccepted(IList<SimpleEdge<String>> edges) {
+                batches.add(edges);
+            }
+        }, 2);
+
+        ISet<SimpleEdge<String>> mst = graph.findMinimumSpanningTree();
+
+        int total = 0;
+        for (IList<SimpleEdge<String>> batch : batches) {
+            assertTrue(batch.size() <= 2);
+            for (SimpleEdge<String> edge : batch) {
+                assertTrue(mst.contains(edge));
+                total++;
+            }
+        }
+        assertEquals(mst.size(), total);
+        assertEquals(3, batches.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testShortestPathReportsSettledVertices() {
+        Graph<String, SimpleEdge<String>> graph = this.buildComplexGraph();
+        ISet<String> settled = new ChainedHashSet<>();
+        IList<String> order = new DoubleLinkedList<>();
+        graph.setProgressListener(new GraphProgressListener<String, SimpleEdge<String>>() {
+            @Override
+            public void verticesSettled(IList<String> vertices) {
+                for (String vertex : vertices) {
+                    assertFalse(settled.contains(vertex));
+                    settled.add(vertex);
+                    order.add(vertex);
+                }
+            }
+        }, 3);
+
+        checkPathMatches(graph, 6, new String[] {"a", "b", "c", "f", "e", "g"});
+        assertEquals("a", order.get(0));
+        assertEquals("g", order.get(order.size() - 1));
+        int reported = order.size();
+
+        // Without a listener, nothing should be reported
+        graph.setProgressListener(null);
+        checkPathMatches(graph, 1, new String[] {"a", "b"});
+        assertEquals(reported, order.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testShortestPathStopsAtEnd() {
+        IList<Integer> vertices = new ArrayBackedList<>(100);
+        IList<SimpleEdge<Integer>> edges = new ArrayBackedList<>(99);
+        for (int i = 0; i < 100; i++) {
+            vertices.add(i);
+            if (i > 0) {
+                edges.add(edge(i - 1, i, 1));
+            }
+        }
+        Graph<Integer, SimpleEdge<Integer>> graph = new Graph<>(vertices, edges);
+        IList<Integer> settled = new DoubleLinkedList<>();
+        graph.setProgressListener(new GraphProgressListener<Integer, SimpleEdge<Integer>>() {
+            @Override
+            public void verticesSettled(IList<Integer> batch) {
+                for (int vertex : batch) {
+                    settled.add(vertex);
+                }
+            }
+        });
+
+        assertEquals(3.0, graph.findShortestPath(0, 3).getCost(), 0.0);
+        assertEquals(4, settled.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, (int) settled.get(i));
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testFindingMstWithEachAlgorithm() {
+        for (Graph.MstAlgorithm algorithm : Graph.MstAlgorithm.values()) {
+            Graph<String, SimpleEdge<String>> graph = this.buildSimpleGraph();
+            graph.setMstAlgorithm(algorithm);
+            assertEquals(algorithm, graph.getMstAlgorithm());
+            ISet<SimpleEdge<String>> mst = graph.findMinimumSpanningTree();
+
+            assertEquals(graph.numVertices() - 1, mst.size());
+            assertTrue(mst.contains(edge("a", "d", 1)));
+            assertTrue(mst.contains(edge("a", "b", 2)));
+            assertTrue(mst.contains(edge("b", "e", 3)));
+            assertTrue(mst.contains(edge("a", "c", 5)));
+            assertTrue(mst.contains(edge("d", "f", 6)));
+        }
+
+        try {
+            this.buildSimpleGraph().setMstAlgorithm(null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testMstAlgorithmsAgreeOnLargeGraphs() {
+        // Enough edges that filter-Kruskal has to split them up a few times, and
+        // one graph where every weight is the same.
+        Graph<Integer, SimpleEdge<Integer>> random = this.buildRandomGraph(5000, 100000, 10);
+        Graph<Integer, SimpleEdge<Integer>> uniform = this.buildRandomGraph(5000, 100000, 1);
+
+        for (Graph<Integer, SimpleEdge<Integer>> graph : Arrays.asList(random, uniform)) {
+            double expected = -1;
+            for (Graph.MstAlgorithm algorithm : Graph.MstAlgorithm.values()) {
+                graph.setMstAlgorithm(algorithm);
+                ISet<SimpleEdge<Integer>> mst = graph.findMinimumSpanningTree();
+                assertEquals(graph.numVertices() - 1, mst.size());
+
+                double total = totalWeight(mst);
+                if (expected < 0) {
+                    expected = total;
+                }
+                assertEquals(expected, total, 0.0001);
+            }
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testFindingMinimumSpanningForest() {
+        for (Graph.MstAlgorithm algorithm : Graph.MstAlgorithm.values()) {
+            Graph<String, SimpleEdge<String>> graph = this.buildDisconnectedGraph();
+            graph.setMstAlgorithm(algorithm);
+            SpanningForest<String, SimpleEdge<String>> forest = graph.findMinimumSpanningForest();
+
+            assertEquals(2, forest.numComponents());
+            assertEquals(0, forest.getComponent("a"));
+            assertEquals(1, forest.getComponent("h"));
+            for (String vertex : new String[] {"b", "c", "d", "e", "f", "g"}) {
+                assertEquals(0, forest.getComponent(vertex));
+            }
+            for (String vertex : new String[] {"i", "j", "k"}) {
+                assertEquals(1, forest.getComponent(vertex));
+            }
+
+            assertEquals(6, forest.getTree(0).size());
+            assertEquals(9.0, totalWeight(forest.getTree(0)), 0.0001);
+            assertEquals(3, forest.getTree(1).size());
+            assertEquals(4.0, totalWeight(forest.getTree(1)), 0.0001);
+            assertEquals(9, forest.getEdges().size());
+            for (SimpleEdge<String> edge : forest.getTree(1)) {
+                assertTrue(forest.getEdges().contains(edge));
+            }
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testMinimumSpanningForestWithIsolatedVertices() {
+        IList<String> vertices = new DoubleLinkedList<>();
+        vertices.add("lonely");
+        vertices.add("a");
+        vertices.add("b");
+        vertices.add("alone");
+        IList<SimpleEdge<String>> edges = new DoubleLinkedList<>();
+        edges.add(edge("a", "b", 3));
+        edges.add(edge("b", "a", 1));
+        SpanningForest<String, SimpleEdge<String>> forest = new Graph<>(vertices, edges).findMinimumSpanningForest();
+
+        assertEquals(3, forest.numComponents());
+        assertEquals(0, forest.getComponent("lonely"));
+        assertEquals(1, forest.getComponent("b"));
+        assertEquals(2, forest.getComponent("alone"));
+        assertEquals(0, forest.getTree(0).size());
+        assertTrue(forest.getTree(1).contains(edge("b", "a", 1)));
+        assertEquals(1, forest.getEdges().size());
+
+        try {
+            forest.getComponent("missing");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        try {
+            forest.getTree(3);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    private static <V> double totalWeight(ISet<SimpleEdge<V>> edges) {
+        double total = 0.0;
+        for (SimpleEdge<V> edge : edges) {
+            total += edge.getWeight();
+        }
+        return total;
+    }
+
+    @Test(timeout=SECOND)
+    public void testConnectivityQueries() {
+        Graph<String, SimpleEdge<String>> graph = this.buildDisconnectedGraph();
+        assertEquals(2, graph.numComponents());
+        assertFalse(graph.isConnected());
+        assertTrue(graph.isConnected("a", "g"));
+        assertTrue(graph.isConnected("k", "h"));
+        assertTrue(graph.isConnected("d", "d"));
+        assertFalse(graph.isConnected("a", "i"));
+        assertEquals(0, graph.getComponent("e"));
+        assertEquals(1, graph.getComponent("j"));
+
+        assertTrue(this.buildSimpleGraph().isConnected());
+        assertEquals(1, this.buildComplexGraph().numComponents());
+
+        try {
+            graph.isConnected("a", "missing");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        try {
+            graph.getComponent("missing");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testUnreachablePathRejectedWithoutSearching() {
+        Graph<String, SimpleEdge<String>> graph = this.buildDisconnectedGraph();
+        IList<String> settled = new DoubleLinkedList<>();
+        graph.setProgressListener(new GraphProgressListener<String, SimpleEdge<String>>() {
+            @Override
+            public void verticesSettled(IList<String> vertices) {
+                for (String vertex : vertices) {
+                    settled.add(vertex);
+                }
+            }
+        });
+
+        // The components are found on the first search, so no vertex is ever settled.
+        try {
+            graph.findShortestPathBetween("a", "i");
+            fail("Expected NoPathExistsException");
+        } catch (NoPathExistsException ex) {
+            assertEquals(0, ex.getStackTrace().length);
+        }
+        assertEquals(0, settled.size());
+
+        assertFalse(graph.isConnected("a", "i"));
+        try {
+            graph.findShortestPathBetween("i", "a");
+            fail("Expected NoPathExistsException");
+        } catch (NoPathExistsException ex) {
+            // All ok -- expected result
+        }
+        assertEquals(0, settled.size());
+        checkPathMatches(graph, 2, new String[] {"i", "k"});
+    }
+
+    @Test(timeout=4 * SECOND)
+    public void testConnectivityMatchesSpanningForest() {
+        // Lots of small components: 20000 vertices but only 15000 random edges.
+        Random random = new Random(373);
+        IList<Integer> vertices = new ArrayBackedList<>(20000);
+        for (int i = 0; i < 20000; i++) {
+            vertices.add(i);
+        }
+        IList<SimpleEdge<Integer>> edges = new ArrayBackedList<>(15000);
+        for (int i = 0; i < 15000; i++) {
+            edges.add(edge(random.nextInt(20000), random.nextInt(20000), random.nextDouble()));
+        }
+
+        Graph<Integer, SimpleEdge<Integer>> graph = new Graph<>(vertices, edges);
+        int numComponents = graph.numComponents();
+        SpanningForest<Integer, SimpleEdge<Integer>> forest = graph.findMinimumSpanningForest();
+        assertEquals(numComponents, forest.numComponents());
+        assertEquals(graph.numVertices() - numComponents, forest.getEdges().size());
+        for (int i = 0; i < 20000; i++) {
+            assertEquals(forest.getComponent(i), graph.getComponent(i));
+        }
+        for (SimpleEdge<Integer> edge : edges) {
+            assertTrue(graph.isConnected(edge.getVertex1(), edge.getVertex2()));
+        }
+    }
+
+    /**
+     * Builds a connected graph on the given number of vertices, with weights picked
+     * at random from 0 to maxWeight - 1.
+     */
+    public Graph<Integer, SimpleEdge<Integer>> buildRandomGraph(int numVertices, int numEdges, int maxWeight) {
+        Random random = new Random(numVertices + numEdges);
+        IList<Integer> vertices = new ArrayBackedList<>(numVertices);
+        for (int i = 0; i < numVertices; i++) {
+            vertices.add(i);
+        }
+
+        IList<SimpleEdge<Integer>> edges = new ArrayBackedList<>(numEdges);
+        for (int i = 1; i < numVertices; i++) {
+            // Link each vertex to an earlier one, so the whole graph is connected.
+            edges.add(edge(random.nextInt(i), i, random.nextInt(maxWeight)));
+        }
+        while (edges.size() < numEdges) {
+            edges.add(edge(random.nextInt(numVertices), random.nextInt(numVertices), random.nextInt(maxWeight)));
+        }
+        return new Graph<>(vertices, edges);
+    }
 }
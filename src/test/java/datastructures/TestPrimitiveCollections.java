@@ -0,0 +1,333 @@
+package datastructures;
+
+import datastructures.concrete.IntBitSet;
+import datastructures.concrete.IntDisjointSet;
+import datastructures.concrete.IntHeap;
+import datastructures.concrete.IntList;
+import datastructures.concrete.dictionaries.ObjectIntMap;
+import misc.BaseTest;
+import misc.exceptions.EmptyContainerException;
+import misc.exceptions.NoSuchKeyException;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestPrimitiveCollections extends BaseTest {
+    @Test(timeout=SECOND)
+    public void testIntListBasic() {
+        IntList list = new IntList(0);
+        for (int i = 0; i < 100; i++) {
+            list.add(i * 3);
+        }
+        assertEquals(100, list.size());
+        assertEquals(27, list.get(9));
+
+        list.set(9, -1);
+        assertEquals(-1, list.get(9));
+        assertEquals(297, list.remove());
+        assertEquals(99, list.toArray().length);
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        try {
+            list.remove();
+            fail("Expected EmptyContainerException");
+        } catch (EmptyContainerException ex) {
+            // All ok -- expected result
+        }
+        try {
+            list.get(0);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testObjectIntMapPutAndGet() {
+        ObjectIntMap<String> map = new ObjectIntMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, i);
+        }
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, map.get("key" + i));
+        }
+
+        map.put("key5", 50);
+        assertEquals(50, map.get("key5"));
+        assertEquals(1000, map.size());
+
+        assertFalse(map.containsKey("missing"));
+        assertEquals(-1, map.getOrDefault("missing", -1));
+        try {
+            map.get("missing");
+            fail("Expected NoSuchKeyException");
+        } catch (NoSuchKeyException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testObjectIntMapNullKey() {
+        ObjectIntMap<String> map = new ObjectIntMap<>();
+        assertFalse(map.containsKey(null));
+        map.put(null, 7);
+        assertTrue(map.containsKey(null));
+        assertEquals(7, map.get(null));
+        assertEquals(1, map.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testObjectIntMapBadHashCodes() {
+        ObjectIntMap<BadHash> map = new ObjectIntMap<>();
+        for (int i = 0; i < 500; i++) {
+            map.put(new BadHash(i), i);
+        }
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, map.get(new BadHash(i)));
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testIntHeapOrdersByPriority() {
+        IntHeap heap = new IntHeap(10);
+        double[] priorities = {5, 3, 8, 1, 9, 2, 7, 4, 6, 0};
+        for (int i = 0; i < priorities.length; i++) {
+            heap.insert(i, priorities[i]);
+        }
+        double previous = Double.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            int item = heap.removeMin();
+            assertTrue(heap.getPriority(item) >= previous);
+            previous = heap.getPriority(item);
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testIntHeapDecreasePriority() {
+        IntHeap heap = new IntHeap(5);
+        for (int i = 0; i < 5; i++) {
+            heap.insert(i, 10 + i);
+        }
+        assertFalse(heap.insertOrDecrease(2, 20));
+        assertTrue(heap.insertOrDecrease(4, 1));
+        assertEquals(4, heap.peekMin());
+        assertEquals(4, heap.removeMin());
+        assertFalse(heap.contains(4));
+        assertTrue(heap.insertOrDecrease(4, 30));
+
+        try {
+            heap.decreasePriority(0, 100);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        try {
+            heap.insert(0, 1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        try {
+            heap.insert(5, 1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testIntHeapFromPriorities() {
+        Random random = new Random(373);
+        double[] priorities = new double[1000];
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = random.nextInt(100);
+        }
+        IntHeap heap = new IntHeap(priorities);
+        assertEquals(priorities.length, heap.size());
+
+        // Changing the array afterwards shouldn't affect the heap
+        priorities[0] = -1;
+        heap.decreasePriority(5, -2);
+        assertEquals(5, heap.removeMin());
+        double previous = Double.NEGATIVE_INFINITY;
+        while (!heap.isEmpty()) {
+            int item = heap.removeMin();
+            assertTrue(heap.getPriority(item) >= previous);
+            previous = heap.getPriority(item);
+        }
+
+        assertTrue(new IntHeap(new double[0]).isEmpty());
+        assertEquals(0, new IntHeap(new double[] {4.0}).removeMin());
+    }
+
+    @Test(timeout=SECOND)
+    public void testIntHeapEmpty() {
+        IntHeap heap = new IntHeap(0);
+        try {
+            heap.removeMin();
+            fail("Expected EmptyContainerException");
+        } catch (EmptyContainerException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    // These only check that big workloads finish in reasonable time; to compare them
+    // against the boxed collections, run benchmarks.PrimitiveCollectionsBenchmark.
+    @Test(timeout=4 * SECOND)
+    public void testIntHeapManyDecreasesIsEfficient() {
+        int cap = 200000;
+        IntHeap heap = new IntHeap(cap);
+        Random random = new Random(373);
+        for (int i = 0; i < cap; i++) {
+            heap.insert(i, 1000 + random.nextDouble());
+        }
+        for (int i = 0; i < 4 * cap; i++) {
+            int item = random.nextInt(cap);
+            heap.insertOrDecrease(item, heap.getPriority(item) - random.nextDouble());
+        }
+        double previous = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < cap; i++) {
+            int item = heap.removeMin();
+            assertTrue(heap.getPriority(item) >= previous);
+            previous = heap.getPriority(item);
+        }
+    }
+
+    @Test(timeout=4 * SECOND)
+    public void testObjectIntMapManyEntriesIsEfficient() {
+        int cap = 500000;
+        ObjectIntMap<Integer> map = new ObjectIntMap<>();
+        for (int i = 0; i < cap; i++) {
+            map.put(i, -i);
+        }
+        for (int repeat = 0; repeat < 4; repeat++) {
+            for (int i = 0; i < cap; i++) {
+                assertEquals(-i, map.get(i));
+            }
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testIntBitSetBasic() {
+        IntBitSet set = new IntBitSet(10);
+        set.add(3);
+        set.add(3);
+        set.add(200);
+        assertEquals(2, set.size());
+        assertTrue(set.contains(200));
+        assertFalse(set.contains(4));
+        assertFalse(set.contains(-1));
+        assertFalse(set.contains(100000));
+
+        set.remove(3);
+        assertFalse(set.contains(3));
+        try {
+            set.remove(3);
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException ex) {
+            // All ok -- expected result
+        }
+        try {
+            set.add(-5);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testIntBitSetAlgebra() {
+        IntBitSet multiplesOf2 = new IntBitSet();
+        IntBitSet multiplesOf3 = new IntBitSet();
+        for (int i = 0; i < 300; i++) {
+            if (i % 2 == 0) {
+                multiplesOf2.add(i);
+            }
+            if (i % 3 == 0) {
+                multiplesOf3.add(i);
+            }
+        }
+
+        IntBitSet union = multiplesOf2.union(multiplesOf3);
+        IntBitSet difference = multiplesOf2.difference(multiplesOf3);
+        for (int i = 0; i < 300; i++) {
+            assertEquals(i % 2 == 0 || i % 3 == 0, union.contains(i));
+            assertEquals(i % 2 == 0 && i % 3 != 0, difference.contains(i));
+        }
+        assertEquals(200, union.size());
+        assertEquals(100, difference.size());
+
+        multiplesOf2.retainAll(multiplesOf3);
+        assertEquals(50, multiplesOf2.size());
+        IntList items = new IntList();
+        multiplesOf2.forEach(items::add);
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(6 * i, items.get(i));
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testIntDisjointSetBasic() {
+        IntDisjointSet set = new IntDisjointSet(6);
+        assertEquals(6, set.numSets());
+        set.union(0, 1);
+        set.union(2, 3);
+        set.union(1, 3);
+        assertEquals(3, set.numSets());
+        assertEquals(set.findSet(0), set.findSet(2));
+        assertTrue(set.findSet(4) != set.findSet(0));
+
+        try {
+            set.union(0, 3);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        try {
+            set.findSet(6);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=4 * SECOND)
+    public void testIntDisjointSetLongChain() {
+        int cap = 500000;
+        IntDisjointSet set = new IntDisjointSet(cap);
+        for (int i = 1; i < cap; i++) {
+            set.union(i - 1, i);
+        }
+        assertEquals(1, set.numSets());
+        int root = set.findSet(0);
+        for (int i = 0; i < cap; i++) {
+            assertEquals(root, set.findSet(i));
+        }
+    }
+
+    private static class BadHash {
+        private final int value;
+
+        public BadHash(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            // Only a handful of distinct hash codes, all differing in their high bits.
+            return (this.value % 4) << 28;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof BadHash && ((BadHash) other).value == this.value;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import misc.exceptions.NoSuchKeyException;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -207,6 +208,29 @@ public abstract class TestDictionary extends BaseTest {
 
     }
 
+    @Test(timeout=SECOND)
+    public void testRemoveLeavesNoStalePairs() {
+        IDictionary<String, String> dict = this.newDictionary();
+        for (int i = 0; i < 5; i++) {
+            dict.put("key" + i, "val" + i);
+        }
+
+        // Remove the last pair, then one from the middle
+        assertEquals("val4", dict.remove("key4"));
+        assertEquals("val1", dict.remove("key1"));
+        this.assertDictMatches(
+                new String[] {"key0", "key2", "key3"},
+                new String[] {"val0", "val2", "val3"},
+                dict);
+
+        int count = 0;
+        for (KVPair<String, String> pair : dict) {
+            assertTrue(dict.containsKey(pair.getKey()));
+            count++;
+        }
+        assertEquals(3, count);
+    }
+
     @Test(timeout=SECOND)
     public void testRemoveErrorHandling() {
         IDictionary<Integer, String> list = this.newDictionary();
@@ -506,4 +530,137 @@ public abstract class TestDictionary extends BaseTest {
             assertFalse(iter.hasNext());
         }
     }
+
+    @Test(timeout=SECOND)
+    public void testIteratorAfterRemove() {
+        IDictionary<String, String> dict = this.newDictionary();
+        for (int i = 0; i < 20; i++) {
+            dict.put("key" + i, "val" + i);
+        }
+        for (int i = 0; i < 20; i += 2) {
+            dict.remove("key" + i);
+        }
+
+        int count = 0;
+        for (KVPair<String, String> pair : dict) {
+            assertTrue(dict.containsKey(pair.getKey()));
+            count++;
+        }
+        assertEquals(10, count);
+    }
+
+    @Test(timeout=SECOND)
+    public void testIteratorFailsFastOnModification() {
+        IDictionary<String, String> dict = this.makeBasicDictionary();
+        Iterator<KVPair<String, String>> iter = dict.iterator();
+        iter.next();
+        dict.put("keyD", "valD");
+        try {
+            iter.next();
+            fail("Expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException ex) {
+            // All ok -- expected result
+        }
+
+        // Replacing a value doesn't change which keys are present, so it's allowed
+        Iterator<KVPair<String, String>> iter2 = dict.iterator();
+        iter2.next();
+        dict.put("keyA", "newValA");
+        iter2.next();
+
+        Iterator<String> keys = dict.keyIterator();
+        keys.next();
+        dict.remove("keyB");
+        try {
+            keys.next();
+            fail("Expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testKeyIteratorMatchesIterator() {
+        IDictionary<String, String> dict = this.newDictionary();
+        for (int i = 0; i < 100; i++) {
+            dict.put("key" + i, "val" + i);
+        }
+
+        Iterator<KVPair<String, String>> pairs = dict.iterator();
+        Iterator<String> keys = dict.keyIterator();
+        while (pairs.hasNext()) {
+            assertTrue(keys.hasNext());
+            assertEquals(pairs.next().getKey(), keys.next());
+        }
+        assertFalse(keys.hasNext());
+    }
+
+    @Test(timeout=SECOND)
+    public void testForEachVisitsEveryPair() {
+        IDictionary<String, String> dict = this.newDictionary();
+        for (int i = 0; i < 100; i++) {
+            dict.put("key" + i, "val" + i);
+        }
+        dict.put(null, "nullVal");
+
+        List<KVPair<String, String>> expected = new ArrayList<>();
+        for (KVPair<String, String> pair : dict) {
+            expected.add(pair);
+        }
+        List<KVPair<String, String>> actual = new ArrayList<>();
+        dict.forEach((key, value) -> actual.add(new KVPair<>(key, value)));
+        assertEquals(expected, actual);
+
+        try {
+            dict.forEach((key, value) -> dict.put(key + "!", value));
+            fail("Expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testStreamMatchesIterator() {
+        IDictionary<String, String> dict = this.newDictionary();
+        for (int i = 0; i < 200; i++) {
+            dict.put("key" + i, "val" + i);
+        }
+
+        assertEquals(200L, dict.stream().count());
+        assertEquals(200L, dict.parallelStream()
+                .filter(pair -> pair.getValue().equals("val" + pair.getKey().substring(3)))
+                .count());
+
+        List<String> keys = new ArrayList<>();
+        dict.keySpliterator().forEachRemaining(keys::add);
+        List<String> expected = new ArrayList<>();
+        for (KVPair<String, String> pair : dict) {
+            expected.add(pair.getKey());
+        }
+        assertEquals(expected, keys);
+    }
+
+    @Test(timeout=SECOND)
+    public void testPutIfAbsent() {
+        IDictionary<String, String> dict = this.makeBasicDictionary();
+        assertEquals("valA", dict.putIfAbsent("keyA", "other"));
+        assertEquals("valA", dict.get("keyA"));
+
+        assertEquals(null, dict.putIfAbsent("keyD", "valD"));
+        assertEquals("valD", dict.get("keyD"));
+        assertEquals(4, dict.size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testComputeIfAbsent() {
+        IDictionary<String, Integer> dict = this.newDictionary();
+        assertEquals(3, dict.computeIfAbsent("abc", String::length));
+        assertEquals(3, dict.computeIfAbsent("abc", key -> {
+            fail("Should not compute a value for a key that's present");
+            return -1;
+        }));
+        assertEquals(null, dict.computeIfAbsent("nothing", key -> null));
+        assertFalse(dict.containsKey("nothing"));
+        assertEquals(1, dict.size());
+    }
 }
@@ -0,0 +1,152 @@
+package datastructures.dictionaries;
+
+import datastructures.concrete.KVPair;
+import datastructures.concrete.dictionaries.StripedHashDictionary;
+import datastructures.interfaces.IDictionary;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Runs every ChainedHashDictionary test against StripedHashDictionary, plus a
+ * few tests that use it from several threads at once.
+ */
+public class TestStripedHashDictionary extends TestChainedHashDictionary {
+    private static final int NUM_THREADS = 4;
+
+    @Override
+    protected <K, V> IDictionary<K, V> newDictionary() {
+        return new StripedHashDictionary<>();
+    }
+
+    /**
+     * StripedHashDictionary's iterators are weakly consistent rather then fail-fast,
+     * so this checks that changing the dictionary mid-iteration is harmless instead.
+     */
+    @Override
+    @Test(timeout=SECOND)
+    public void testIteratorFailsFastOnModification() {
+        IDictionary<String, String> dict = this.makeBasicDictionary();
+        Iterator<KVPair<String, String>> iter = dict.iterator();
+        iter.next();
+        dict.put("keyD", "valD");
+        dict.remove("keyB");
+        while (iter.hasNext()) {
+            iter.next();
+        }
+    }
+
+    /**
+     * Like above, changing the dictionary inside forEach is allowed.
+     */
+    @Override
+    @Test(timeout=SECOND)
+    public void testForEachVisitsEveryPair() {
+        IDictionary<String, String> dict = this.newDictionary();
+        for (int i = 0; i < 100; i++) {
+            dict.put("key" + i, "val" + i);
+        }
+        AtomicInteger count = new AtomicInteger(0);
+        dict.forEach((key, value) -> {
+            assertEquals("val" + key.substring(3), value);
+            count.incrementAndGet();
+        });
+        assertEquals(100, count.get());
+    }
+
+    @Test(timeout=SECOND)
+    public void testBadStripeCountNotPermitted() {
+        try {
+            new StripedHashDictionary<String, String>(0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+
+        IDictionary<String, String> dict = new StripedHashDictionary<>(1);
+        dict.put("a", "b");
+        assertEquals("b", dict.get("a"));
+    }
+
+    @Test(timeout=4 * SECOND)
+    public void testConcurrentComputeIfAbsentRunsOncePerKey() throws InterruptedException {
+        IDictionary<Integer, Integer> dict = this.newDictionary();
+        AtomicInteger calls = new AtomicInteger(0);
+        int numKeys = 20000;
+
+        runInThreads(thread -> {
+            for (int i = 0; i < numKeys; i++) {
+                int key = (i * 7 + thread * 1013) % numKeys;
+                int value = dict.computeIfAbsent(key, k -> {
+                    calls.incrementAndGet();
+                    return -k;
+                });
+                assertEquals(-key, value);
+            }
+        });
+
+        assertEquals(numKeys, calls.get());
+        assertEquals(numKeys, dict.size());
+    }
+
+    @Test(timeout=4 * SECOND)
+    public void testConcurrentPutAndRemove() throws InterruptedException {
+        IDictionary<Integer, Integer> dict = this.newDictionary();
+        int perThread = 50000;
+
+        // Every thread works with its own keys, then removes every other one.
+        runInThreads(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                dict.put(thread * perThread + i, i);
+            }
+            for (int i = 0; i < perThread; i += 2) {
+                dict.remove(thread * perThread + i);
+            }
+        });
+
+        assertEquals(NUM_THREADS * perThread / 2, dict.size());
+        int count = 0;
+        for (KVPair<Integer, Integer> pair : dict) {
+            assertEquals(1, pair.getValue() % 2);
+            count++;
+        }
+        assertEquals(dict.size(), count);
+    }
+
+    /**
+     * Runs the given body on NUM_THREADS threads at once, and waits for all of them.
+     * If any of them fails, rethrows that failure on the calling thread.
+     */
+    private static void runInThreads(ThreadBody body) throws InterruptedException {
+        Thread[] threads = new Thread[NUM_THREADS];
+        Throwable[] failures = new Throwable[NUM_THREADS];
+        for (int i = 0; i < NUM_THREADS; i++) {
+            int thread = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    body.run(thread);
+                } catch (Throwable ex) {
+                    failures[thread] = ex;
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (Throwable failure : failures) {
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure != null) {
+                throw new RuntimeException(failure);
+            }
+        }
+    }
+
+    private interface ThreadBody {
+        void run(int thread);
+    }
+}
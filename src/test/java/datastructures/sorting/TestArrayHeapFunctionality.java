@@ -233,6 +233,25 @@ public class TestArrayHeapFunctionality extends BaseTest {
         assertFalse(heap.isEmpty());
     }
     
+    @Test(timeout=SECOND)
+    public void testCapacityGrows() {
+        IPriorityQueue<Integer> heap = new ArrayHeap<>(0);
+        for (int i = 100; i > 0; i--) {
+            heap.insert(i);
+        }
+        assertEquals(100, heap.size());
+        for (int i = 1; i <= 100; i++) {
+            assertEquals(i, heap.removeMin());
+        }
+
+        try {
+            new ArrayHeap<Integer>(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
     @Test(timeout=SECOND)
     public void testSimpleRemove() {
         IPriorityQueue<Integer> heap = this.makeBasic();
@@ -0,0 +1,125 @@
+package datastructures.sorting;
+
+import datastructures.concrete.ArrayBackedList;
+import datastructures.interfaces.IList;
+import misc.BaseTest;
+import misc.Searcher;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Checks Searcher.parallelTopKSort against a plain sort. This uses its own pool,
+ * so the parallel code runs even on machines where topKSort would stay sequential.
+ */
+public class TestParallelSortingStress extends BaseTest {
+    private static ForkJoinPool pool;
+
+    @BeforeClass
+    public static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void stopPool() {
+        pool.shutdown();
+    }
+
+    private static IList<Integer> makeRandomList(int size, int range, Integer[] sortedOut) {
+        Random random = new Random(size);
+        IList<Integer> list = new ArrayBackedList<>(size);
+        for (int i = 0; i < size; i++) {
+            int item = random.nextInt(range);
+            list.add(item);
+            sortedOut[i] = item;
+        }
+        Arrays.sort(sortedOut);
+        return list;
+    }
+
+    private static void checkTopK(int k, IList<Integer> top, Integer[] sorted) {
+        assertEquals(k, top.size());
+        for (int i = 0; i < k; i++) {
+            assertEquals(sorted[sorted.length - k + i], top.get(i));
+        }
+    }
+
+    @Test(timeout=10*SECOND)
+    public void testParallelFullSort() {
+        int limit = 300000;
+        Integer[] sorted = new Integer[limit];
+        IList<Integer> list = makeRandomList(limit, limit / 4, sorted);
+
+        checkTopK(limit, Searcher.parallelTopKSort(limit, list, pool), sorted);
+        checkTopK(limit - 10, Searcher.parallelTopKSort(limit - 10, list, pool), sorted);
+    }
+
+    @Test(timeout=10*SECOND)
+    public void testParallelPartialSort() {
+        int limit = 300000;
+        Integer[] sorted = new Integer[limit];
+        IList<Integer> list = makeRandomList(limit, limit / 4, sorted);
+
+        for (int k : new int[] {1, 7, 1000, limit / 128}) {
+            checkTopK(k, Searcher.parallelTopKSort(k, list, pool), sorted);
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testParallelSortOfSmallAndEmptyLists() {
+        Integer[] sorted = new Integer[10];
+        IList<Integer> list = makeRandomList(10, 5, sorted);
+        checkTopK(10, Searcher.parallelTopKSort(20, list, pool), sorted);
+        checkTopK(3, Searcher.parallelTopKSort(3, list, pool), sorted);
+
+        IList<Integer> empty = new ArrayBackedList<>();
+        assertEquals(0, Searcher.parallelTopKSort(5, empty, pool).size());
+
+        try {
+            Searcher.parallelTopKSort(-1, list, pool);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=10*SECOND)
+    public void testParallelSortIsStable() {
+        // Items that compare equal should come out in the order they went in.
+        int limit = 100000;
+        IList<Tagged> list = new ArrayBackedList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            list.add(new Tagged(i % 10, i));
+        }
+
+        IList<Tagged> sorted = Searcher.parallelTopKSort(limit, list, pool);
+        for (int i = 1; i < limit; i++) {
+            Tagged previous = sorted.get(i - 1);
+            Tagged current = sorted.get(i);
+            if (previous.key == current.key && previous.order > current.order) {
+                fail("Equal items were reordered at index " + i);
+            }
+        }
+    }
+
+    private static class Tagged implements Comparable<Tagged> {
+        public final int key;
+        public final int order;
+
+        public Tagged(int key, int order) {
+            this.key = key;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Tagged other) {
+            return Integer.compare(this.key, other.key);
+        }
+    }
+}
@@ -5,11 +5,15 @@ import misc.Searcher;
 
 import org.junit.Test;
 
+import datastructures.concrete.ArrayBackedList;
 import datastructures.concrete.ArrayHeap;
 import datastructures.concrete.DoubleLinkedList;
 import datastructures.interfaces.IList;
 import datastructures.interfaces.IPriorityQueue;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -54,4 +58,89 @@ public class TestSortingStress extends BaseTest {
             assertEquals(75000 + i, top.get(i));
         }
     }
+    
+    // Covers each of topKSort's strategies, on input with lots of duplicates
+    // (which is where partitioning tends to go wrong).
+    @Test(timeout=10*SECOND)
+    public void testTopKSortAcrossStrategies() {
+        int limit = 200000;
+        Random random = new Random(373);
+        IList<Integer> list = new ArrayBackedList<>(limit);
+        Integer[] sorted = new Integer[limit];
+        for (int i = 0; i < limit; i++) {
+            int item = random.nextInt(limit / 10);
+            list.add(item);
+            sorted[i] = item;
+        }
+        Arrays.sort(sorted);
+        
+        for (int k : new int[] {1, 100, limit / 128, limit / 16, limit / 2, limit - 1, limit}) {
+            IList<Integer> top = Searcher.topKSort(k, list);
+            assertEquals(k, top.size());
+            for (int i = 0; i < k; i++) {
+                assertEquals(sorted[limit - k + i], top.get(i));
+            }
+        }
+    }
+    
+    @Test(timeout=10*SECOND)
+    public void testTopKSortOnSortedAndReversedInput() {
+        int limit = 200000;
+        IList<Integer> ascending = new ArrayBackedList<>(limit);
+        IList<Integer> descending = new ArrayBackedList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            ascending.add(i);
+            descending.add(limit - 1 - i);
+        }
+        
+        for (IList<Integer> list : Arrays.asList(ascending, descending)) {
+            IList<Integer> top = Searcher.topKSort(limit / 3, list);
+            for (int i = 0; i < top.size(); i++) {
+                assertEquals(limit - limit / 3 + i, top.get(i));
+            }
+        }
+    }
+    
+    @Test(timeout=10*SECOND)
+    public void testSortIdsByKeyMatchesComparisonSort() {
+        int limit = 300000;
+        Random random = new Random(373);
+        double[] keys = new double[limit];
+        Integer[] expected = new Integer[limit];
+        double[] specials = {0.0, -0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                             Double.MIN_VALUE, -Double.MAX_VALUE, Double.NaN};
+        for (int i = 0; i < limit; i++) {
+            if (i % 1000 == 0) {
+                keys[i] = specials[(i / 1000) % specials.length];
+            } else if (i % 3 == 0) {
+                // Plenty of ties, to check equal keys keep their order
+                keys[i] = random.nextInt(50);
+            } else {
+                keys[i] = (random.nextDouble() - 0.5) * 1e6;
+            }
+            expected[i] = i;
+        }
+        Arrays.sort(expected, (a, b) -> Double.compare(keys[a], keys[b]));
+        
+        int[] ids = Searcher.sortIdsByKey(keys);
+        assertEquals(limit, ids.length);
+        for (int i = 0; i < limit; i++) {
+            assertEquals((int) expected[i], ids[i]);
+        }
+    }
+    
+    @Test(timeout=SECOND)
+    public void testSortIdsByKeySmallAndEmpty() {
+        assertEquals(0, Searcher.sortIdsByKey(new double[0]).length);
+        
+        int[] ids = Searcher.sortIdsByKey(new double[] {3.0, 1.0, 2.0, 1.0});
+        assertTrue(Arrays.equals(new int[] {1, 3, 2, 0}, ids));
+        
+        double[] same = new double[100];
+        Arrays.fill(same, 7.5);
+        int[] sameIds = Searcher.sortIdsByKey(same);
+        for (int i = 0; i < same.length; i++) {
+            assertEquals(i, sameIds[i]);
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package datastructures.sorting;
+
+import datastructures.concrete.ArrayBackedList;
+import datastructures.interfaces.IList;
+import misc.BaseTest;
+import misc.Searcher;
+import misc.TopKAccumulator;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.fail;
+
+public class TestTopKAccumulator extends BaseTest {
+    @Test(timeout=SECOND)
+    public void testMatchesTopKSort() {
+        Random random = new Random(373);
+        IList<Integer> list = new ArrayBackedList<>();
+        TopKAccumulator<Integer> accumulator = new TopKAccumulator<>(50);
+        for (int i = 0; i < 10000; i++) {
+            int item = random.nextInt(1000);
+            list.add(item);
+            accumulator.add(item);
+        }
+
+        IList<Integer> expected = Searcher.topKSort(50, list);
+        IList<Integer> actual = accumulator.toSortedList();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+        assertEquals(10000L, accumulator.getItemsSeen());
+
+        // Reading the result shouldn't change it
+        assertEquals(50, accumulator.size());
+        assertEquals(expected.get(0), accumulator.toSortedList().get(0));
+    }
+
+    @Test(timeout=SECOND)
+    public void testFewerItemsThenK() {
+        TopKAccumulator<String> accumulator = new TopKAccumulator<>(10);
+        IList<String> items = new ArrayBackedList<>();
+        items.add("c");
+        items.add("a");
+        items.add("b");
+        accumulator.addAll(items);
+
+        IList<String> top = accumulator.toSortedList();
+        assertEquals(3, top.size());
+        assertEquals("a", top.get(0));
+        assertEquals("c", top.get(2));
+    }
+
+    @Test(timeout=SECOND)
+    public void testZeroAndBadArguments() {
+        TopKAccumulator<Integer> accumulator = new TopKAccumulator<>(0);
+        accumulator.add(5);
+        assertEquals(0, accumulator.toSortedList().size());
+        assertEquals(1L, accumulator.getItemsSeen());
+
+        try {
+            new TopKAccumulator<Integer>(-1);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+        try {
+            accumulator.add(null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testMerge() {
+        TopKAccumulator<Integer> evens = new TopKAccumulator<>(5);
+        TopKAccumulator<Integer> odds = new TopKAccumulator<>(5);
+        for (int i = 0; i < 100; i++) {
+            if (i % 2 == 0) {
+                evens.add(i);
+            } else {
+                odds.add(i);
+            }
+        }
+
+        evens.merge(odds);
+        IList<Integer> top = evens.toSortedList();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(95 + i, top.get(i));
+        }
+        assertEquals(100L, evens.getItemsSeen());
+        assertEquals(5, odds.size());
+    }
+
+    @Test(timeout=4 * SECOND)
+    public void testParallelCollectorOverLargeStream() {
+        int limit = 2000000;
+        IList<Integer> top = IntStream.range(0, limit)
+                .parallel()
+                .map(i -> (int) ((i * 2654435761L) % limit))
+                .boxed()
+                .collect(TopKAccumulator.collector(100));
+
+        assertEquals(100, top.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(limit - 100 + i, top.get(i));
+        }
+    }
+}
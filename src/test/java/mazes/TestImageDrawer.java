@@ -0,0 +1,107 @@
+package mazes;
+
+import datastructures.interfaces.IList;
+import mazes.entities.Maze;
+import mazes.entities.Wall;
+import mazes.generators.base.GridGenerator;
+import mazes.gui.ImageDrawer;
+import misc.BaseTest;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertTrue;
+
+public class TestImageDrawer extends BaseTest {
+    private static final int SIZE = 200;
+
+    private BufferedImage blankImage() {
+        BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        new ImageDrawer(image, 5).clear();
+        return image;
+    }
+
+    private void assertSameImage(BufferedImage expected, BufferedImage actual) {
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                assertEquals("Pixel differs at " + x + ", " + y, expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testWallRemovedMatchesFullRedraw() {
+        Maze maze = new GridGenerator(6, 6).generateBaseMaze(new Rectangle(5, 5, SIZE - 10, SIZE - 10));
+
+        BufferedImage incremental = this.blankImage();
+        ImageDrawer drawer = new ImageDrawer(incremental, 5);
+        drawer.drawMaze(maze);
+        drawer.drainDirtyRegions();
+
+        Wall removed = null;
+        for (Wall wall : maze.getWalls()) {
+            removed = wall;
+            break;
+        }
+        maze.getWalls().remove(removed);
+        drawer.wallRemoved(removed);
+
+        IList<Rectangle> dirty = drawer.drainDirtyRegions();
+        assertEquals(1, dirty.size());
+        assertTrue(dirty.get(0).contains(removed.getDividingLine().midpoint()));
+        assertTrue(drawer.drainDirtyRegions().isEmpty());
+
+        BufferedImage full = this.blankImage();
+        new ImageDrawer(full, 5).drawMaze(maze);
+        this.assertSameImage(full, incremental);
+
+        maze.getWalls().add(removed);
+        drawer.wallAdded(removed);
+        BufferedImage original = this.blankImage();
+        new ImageDrawer(original, 5).drawMaze(maze);
+        this.assertSameImage(original, incremental);
+    }
+
+    @Test(timeout=SECOND)
+    public void testRedrawRegionKeepsPathsAndPoints() {
+        Maze maze = new GridGenerator(4, 4).generateBaseMaze(new Rectangle(5, 5, SIZE - 10, SIZE - 10));
+        Wall crossed = null;
+        for (Wall wall : maze.getWalls()) {
+            crossed = wall;
+            break;
+        }
+
+        BufferedImage image = this.blankImage();
+        ImageDrawer drawer = new ImageDrawer(image, 5);
+        drawer.drawMaze(maze);
+        drawer.drawPath(crossed);
+        drawer.drawPoint(new Point(20, 20));
+
+        BufferedImage before = this.blankImage();
+        before.getGraphics().drawImage(image, 0, 0, null);
+
+        drawer.redrawRegion(new Rectangle(0, 0, SIZE, SIZE));
+        this.assertSameImage(before, image);
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testRedrawHundredThousandWallsMatchesFirstDrawing() {
+        // Timings for this live in benchmarks.RenderingBenchmark.
+        int size = 1200;
+        Maze maze = new GridGenerator(225, 225).generateBaseMaze(new Rectangle(5, 5, size - 10, size - 10));
+        assertTrue(maze.getWalls().size() >= 100000);
+
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        ImageDrawer drawer = new ImageDrawer(image, 5);
+        drawer.clear();
+        drawer.drawMaze(maze);
+        int[] before = image.getRGB(0, 0, size, size, null, 0, size);
+
+        drawer.redraw();
+        int[] after = image.getRGB(0, 0, size, size, null, 0, size);
+        for (int i = 0; i < before.length; i++) {
+            assertEquals("Pixel differs at " + i % size + ", " + i / size, before[i], after[i]);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package mazes;
+
+import mazes.cli.MazeBatchRunner;
+import mazes.io.MappedMazeFile;
+import misc.BaseTest;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestMazeBatchRunner extends BaseTest {
+    /**
+     * Runs the batch runner with the given arguments, and returns its exit status
+     * followed by everything it printed to stdout.
+     */
+    private String[] execute(String... args) {
+        PrintStream originalOut = System.out;
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        try {
+            System.setOut(new PrintStream(out, true));
+            System.setErr(new PrintStream(err, true));
+            int status = MazeBatchRunner.execute(args);
+            return new String[] {Integer.toString(status), new String(out.toByteArray(), StandardCharsets.UTF_8)};
+        } finally {
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+        }
+    }
+
+    private void assertMalformed(String... args) {
+        try {
+            MazeBatchRunner.Options.parse(args);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException ex) {
+            // All ok -- expected result
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testParseDefaults() {
+        MazeBatchRunner.Options options = MazeBatchRunner.Options.parse(new String[0]);
+        assertEquals("grid:40x40", options.getGenerator());
+        assertEquals("kruskal", options.getCarver());
+        assertEquals(1, options.getCount());
+        assertEquals(Runtime.getRuntime().availableProcessors(), options.getThreads());
+        assertEquals("none", options.getFormat());
+        assertEquals(".", options.getOutputDir());
+        assertEquals(800, options.getWidth());
+        assertEquals(600, options.getHeight());
+        assertEquals(5, options.getPadding());
+        assertEquals(1.0, options.getScale(), 0.0);
+        assertTrue(options.shouldSolve());
+    }
+
+    @Test(timeout=SECOND)
+    public void testParseEveryOption() {
+        MazeBatchRunner.Options options = MazeBatchRunner.Options.parse(new String[] {
+            "--generator", "voronoi:50,5,10,5",
+            "--carver", "random:0.5",
+            "--seed", "42",
+            "--count", "7",
+            "--threads", "3",
+            "--format", "svg",
+            "--output", "out",
+            "--size", "300x200",
+            "--padding", "10",
+            "--scale", "2.5",
+            "--no-solve"
+        });
+        assertEquals("voronoi:50,5,10,5", options.getGenerator());
+        assertEquals("random:0.5", options.getCarver());
+        assertEquals(42L, options.getSeed());
+        assertEquals(7, options.getCount());
+        assertEquals(3, options.getThreads());
+        assertEquals("svg", options.getFormat());
+        assertEquals("out", options.getOutputDir());
+        assertEquals(300, options.getWidth());
+        assertEquals(200, options.getHeight());
+        assertEquals(10, options.getPadding());
+        assertEquals(2.5, options.getScale(), 0.0);
+        assertFalse(options.shouldSolve());
+    }
+
+    @Test(timeout=SECOND)
+    public void testParseRejectsMalformedArguments() {
+        this.assertMalformed("--count");
+        this.assertMalformed("--bogus", "1");
+        this.assertMalformed("--count", "many");
+        this.assertMalformed("--count", "-1");
+        this.assertMalformed("--threads", "0");
+        this.assertMalformed("--size", "300");
+        this.assertMalformed("--format", "gif");
+        this.assertMalformed("--generator", "grid:4");
+        this.assertMalformed("--generator", "hexagon:4x4");
+        this.assertMalformed("--carver", "random:often");
+    }
+
+    @Test(timeout=SECOND)
+    public void testUsageErrorsExitWithStatusTwo() {
+        assertEquals("2", this.execute("--count")[0]);
+        assertEquals("2", this.execute("--format", "gif")[0]);
+        assertEquals("2", this.execute("--generator", "grid:4")[0]);
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testBatchWritesEveryMaze() throws IOException {
+        File dir = Files.createTempDirectory("mazes").toFile();
+        try {
+            String[] result = this.execute(
+                    "--generator", "grid:6x8",
+                    "--seed", "1",
+                    "--count", "3",
+                    "--threads", "2",
+                    "--format", "maze",
+                    "--output", dir.getPath(),
+                    "--size", "200x200");
+            assertEquals("0", result[0]);
+            assertTrue(result[1].contains("total: mazes=3 failed=0 unsolvable=0"));
+
+            for (int i = 0; i < 3; i++) {
+                File file = new File(dir, String.format("maze-%05d.maze", i));
+                assertTrue(file.isFile());
+                MappedMazeFile maze = MappedMazeFile.open(file.toPath());
+                assertEquals(48, maze.numRooms());
+                // A fully carved grid is a spanning tree over its rooms
+                assertEquals(47, maze.getRemovedWalls().size());
+            }
+        } finally {
+            for (File file : dir.listFiles()) {
+                file.delete();
+            }
+            dir.delete();
+        }
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testFailedExportExitsWithStatusOne() throws IOException {
+        File dir = Files.createTempDirectory("mazes").toFile();
+        // A directory where the first maze's file should go makes its export fail
+        File blocker = new File(dir, "maze-00000.maze");
+        assertTrue(blocker.mkdir());
+        try {
+            String[] result = this.execute(
+                    "--generator", "grid:6x8",
+                    "--seed", "1",
+                    "--count", "3",
+                    "--threads", "1",
+                    "--format", "maze",
+                    "--output", dir.getPath(),
+                    "--size", "200x200");
+            assertEquals("1", result[0]);
+            assertTrue(result[1].contains("total: mazes=2 failed=1 "));
+        } finally {
+            for (File file : dir.listFiles()) {
+                file.delete();
+            }
+            dir.delete();
+        }
+    }
+}
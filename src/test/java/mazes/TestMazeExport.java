@@ -0,0 +1,88 @@
+package mazes;
+
+import datastructures.concrete.DoubleLinkedList;
+import datastructures.interfaces.IList;
+import mazes.entities.Maze;
+import mazes.entities.Wall;
+import mazes.generators.base.GridGenerator;
+import mazes.io.PngMazeExporter;
+import mazes.io.SvgMazeExporter;
+import misc.BaseTest;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertTrue;
+
+public class TestMazeExport extends BaseTest {
+    private Maze makeMaze() {
+        // A 4x4 grid on a 100x100 canvas with 10 pixels of padding, so the
+        // walls are 20 pixels apart.
+        return new GridGenerator(4, 4).generateBaseMaze(new Rectangle(10, 10, 80, 80));
+    }
+
+    @Test(timeout=SECOND)
+    public void testPngHasRequestedSizeAndWalls() throws IOException {
+        PngMazeExporter exporter = new PngMazeExporter(100, 100, 10, 2.0, 7);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(this.makeMaze(), new DoubleLinkedList<>(), out);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(200, image.getWidth());
+        assertEquals(200, image.getHeight());
+
+        // Corner of the canvas is empty; the vertical wall at x=30 is drawn
+        // in every strip it crosses.
+        assertEquals(Color.WHITE.getRGB(), image.getRGB(2, 2));
+        for (int y = 24; y < 176; y += 3) {
+            assertEquals("Wall missing at y=" + y, Color.BLACK.getRGB(), image.getRGB(60, y));
+        }
+        assertEquals(Color.WHITE.getRGB(), image.getRGB(50, 50));
+    }
+
+    @Test(timeout=SECOND)
+    public void testPngMatchesSingleStripRendering() throws IOException {
+        Maze maze = this.makeMaze();
+        IList<Wall> path = new DoubleLinkedList<>();
+        for (Wall wall : maze.getWalls()) {
+            path.add(wall);
+            break;
+        }
+
+        ByteArrayOutputStream tiled = new ByteArrayOutputStream();
+        new PngMazeExporter(100, 100, 10, 1.5, 3).export(maze, path, tiled);
+        ByteArrayOutputStream whole = new ByteArrayOutputStream();
+        new PngMazeExporter(100, 100, 10, 1.5, 1000).export(maze, path, whole);
+
+        BufferedImage tiledImage = ImageIO.read(new ByteArrayInputStream(tiled.toByteArray()));
+        BufferedImage wholeImage = ImageIO.read(new ByteArrayInputStream(whole.toByteArray()));
+        for (int y = 0; y < wholeImage.getHeight(); y++) {
+            for (int x = 0; x < wholeImage.getWidth(); x++) {
+                assertEquals(wholeImage.getRGB(x, y), tiledImage.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testSvgContainsEveryWall() throws IOException {
+        Maze maze = this.makeMaze();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SvgMazeExporter(100, 100, 10, 1.0).export(maze, new DoubleLinkedList<>(), out);
+
+        String svg = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(svg.startsWith("<?xml"));
+        assertTrue(svg.trim().endsWith("</svg>"));
+        for (Wall wall : maze.getWalls()) {
+            Point start = wall.getDividingLine().start;
+            Point end = wall.getDividingLine().end;
+            String segment = "M" + start.x + " " + start.y + " L" + end.x + " " + end.y + " ";
+            assertTrue("Missing " + segment, svg.contains(segment));
+        }
+    }
+}
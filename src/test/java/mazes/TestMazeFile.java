@@ -0,0 +1,93 @@
+package mazes;
+
+import datastructures.interfaces.ISet;
+import mazes.entities.Maze;
+import mazes.entities.Room;
+import mazes.entities.Wall;
+import mazes.generators.base.GridGenerator;
+import mazes.generators.maze.KruskalMazeCarver;
+import mazes.io.MappedMazeFile;
+import mazes.io.MazeFileWriter;
+import misc.BaseTest;
+import org.junit.Test;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestMazeFile extends BaseTest {
+    private Path writeTempFile(Maze base, ISet<Wall> removed) throws IOException {
+        File file = File.createTempFile("maze", ".bin");
+        file.deleteOnExit();
+        MazeFileWriter.write(file.toPath(), base, removed);
+        return file.toPath();
+    }
+
+    @Test(timeout=SECOND)
+    public void testRoundTripMatchesOriginal() throws IOException {
+        Maze base = new GridGenerator(10, 12).generateBaseMaze(new Rectangle(5, 5, 400, 300));
+        ISet<Wall> removed = new KruskalMazeCarver().returnWallsToRemove(base);
+        MappedMazeFile file = MappedMazeFile.open(this.writeTempFile(base, removed));
+
+        assertEquals(120, file.numRooms());
+        assertEquals(base.getWalls().size(), file.numWalls());
+
+        Maze view = file.asBaseMaze();
+        assertEquals(base.getRooms().size(), view.getRooms().size());
+        assertEquals(base.getWalls().size(), view.getWalls().size());
+        for (Room room : base.getRooms()) {
+            assertTrue(view.getRooms().contains(room));
+        }
+        for (Wall wall : view.getWalls()) {
+            assertTrue(base.getWalls().contains(wall));
+        }
+
+        ISet<Wall> removedView = file.getRemovedWalls();
+        assertEquals(removed.size(), removedView.size());
+        for (Wall wall : removed) {
+            assertTrue(removedView.contains(wall));
+            assertFalse(file.asCarvedMaze().getWalls().contains(wall));
+        }
+        assertEquals(base.getWalls().size() - removed.size(), file.asCarvedMaze().getWalls().size());
+    }
+
+    @Test(timeout=SECOND)
+    public void testAdjacencyMatchesWalls() throws IOException {
+        Maze base = new GridGenerator(3, 3).generateBaseMaze(new Rectangle(0, 0, 300, 300));
+        MappedMazeFile file = MappedMazeFile.open(this.writeTempFile(base, base.getWalls()));
+
+        int middle = file.findRoom(new Point(150, 150));
+        assertTrue(middle >= 0);
+        assertEquals(4, file.degree(middle));
+        for (int i = 0; i < file.degree(middle); i++) {
+            int neighbor = file.getNeighbor(middle, i);
+            int wall = file.getIncidentWall(middle, i);
+            assertTrue(file.isRemoved(wall));
+            assertFalse(file.isUntouchable(wall));
+            assertEquals(100.0, file.getRoom(neighbor).getCenter().distance(150, 150), 0.0001);
+        }
+
+        assertEquals(-1, file.findRoom(new Point(151, 150)));
+        assertEquals(-1, file.findRoom(new Point(-1, 150)));
+    }
+
+    @Test(timeout=SECOND)
+    public void testRejectsNonMazeFile() throws IOException {
+        File file = File.createTempFile("maze", ".bin");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20,
+                                               21, 22, 23, 24});
+        try {
+            MappedMazeFile.open(file.toPath());
+            fail("Expected IOException");
+        } catch (IOException ex) {
+            // All ok -- expected result
+        }
+    }
+}
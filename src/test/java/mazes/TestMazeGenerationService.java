@@ -0,0 +1,105 @@
+package mazes;
+
+import mazes.generators.base.GridGenerator;
+import mazes.generators.batch.GeneratedMaze;
+import mazes.generators.batch.GenerationMetrics;
+import mazes.generators.batch.MazeGenerationService;
+import mazes.generators.batch.MazeJob;
+import mazes.generators.batch.MazeSink;
+import mazes.generators.maze.KruskalMazeCarver;
+import misc.BaseTest;
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestMazeGenerationService extends BaseTest {
+    private MazeJob makeJob(long id) {
+        return new MazeJob(id, new GridGenerator(5, 5), new KruskalMazeCarver(), new Rectangle(0, 0, 100, 100));
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testEveryJobReachesSink() throws InterruptedException {
+        AtomicInteger received = new AtomicInteger(0);
+        MazeGenerationService service = new MazeGenerationService(3, 4, maze -> {
+            assertEquals(25, maze.getMaze().getRooms().size());
+            assertEquals(24, maze.getRemovedWalls().size());
+            received.incrementAndGet();
+        });
+        for (int i = 0; i < 50; i++) {
+            service.submit(this.makeJob(i));
+        }
+        service.shutdownAndWait();
+
+        GenerationMetrics metrics = service.getMetrics();
+        assertEquals(50, received.get());
+        assertEquals(50L, metrics.getCompleted());
+        assertEquals(0L, metrics.getFailed());
+        assertEquals(0, metrics.getQueueDepth());
+        assertTrue(metrics.getMaxLatencyMillis() >= metrics.getMeanLatencyMillis());
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testQueueIsBounded() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        MazeGenerationService service = new MazeGenerationService(1, 2, maze -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // One job occupies the worker and two wait in the queue; the fourth must be refused.
+        assertTrue(service.trySubmit(this.makeJob(0)));
+        assertTrue(service.trySubmit(this.makeJob(1)));
+        assertTrue(service.trySubmit(this.makeJob(2)));
+        assertFalse(service.trySubmit(this.makeJob(3)));
+
+        release.countDown();
+        service.shutdownAndWait();
+        assertEquals(3L, service.getMetrics().getCompleted());
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testFailuresAreReported() throws InterruptedException {
+        AtomicInteger failures = new AtomicInteger(0);
+        MazeGenerationService service = new MazeGenerationService(2, 2, new MazeSink() {
+            @Override
+            public void accept(GeneratedMaze maze) {
+                throw new IllegalStateException("boom");
+            }
+
+            @Override
+            public void failed(MazeJob job, Exception ex) {
+                failures.incrementAndGet();
+            }
+        });
+        for (int i = 0; i < 5; i++) {
+            service.submit(this.makeJob(i));
+        }
+        service.shutdownAndWait();
+
+        assertEquals(5, failures.get());
+        assertEquals(5L, service.getMetrics().getFailed());
+        assertEquals(0L, service.getMetrics().getCompleted());
+    }
+
+    @Test(timeout=10 * SECOND)
+    public void testErrorsAreCountedAsFailures() throws InterruptedException {
+        MazeGenerationService service = new MazeGenerationService(2, 2, maze -> {
+            throw new Error("Simulated error; this stack trace is expected");
+        });
+        for (int i = 0; i < 3; i++) {
+            service.submit(this.makeJob(i));
+        }
+        service.shutdownAndWait();
+
+        assertEquals(3L, service.getMetrics().getFailed());
+        assertEquals(0L, service.getMetrics().getCompleted());
+    }
+}
@@ -0,0 +1,85 @@
+package mazes;
+
+import datastructures.concrete.ChainedHashSet;
+import datastructures.concrete.dictionaries.ChainedHashDictionary;
+import datastructures.interfaces.IDictionary;
+import datastructures.interfaces.IList;
+import datastructures.interfaces.ISet;
+import mazes.entities.Maze;
+import mazes.entities.Room;
+import mazes.entities.Wall;
+import mazes.generators.base.GridGenerator;
+import mazes.generators.maze.RandomMazeCarver;
+import misc.BaseTest;
+import misc.graphs.GraphProgressListener;
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestRandomMazeCarver extends BaseTest {
+    private Maze makeMaze() {
+        // Rooms 8 pixels apart, where thousands of walls share a hash code
+        return new GridGenerator(100, 100).generateBaseMaze(new Rectangle(5, 5, 800, 800));
+    }
+
+    @Test(timeout=4 * SECOND)
+    public void testSameSeedCarvesSameMaze() {
+        Maze maze = this.makeMaze();
+        ISet<Wall> first = new RandomMazeCarver(0.5, new Random(373)).returnWallsToRemove(maze);
+        ISet<Wall> second = new RandomMazeCarver(0.5, new Random(373)).returnWallsToRemove(maze);
+        assertEquals(first.size(), second.size());
+        for (Wall wall : first) {
+            assertTrue(second.contains(wall));
+        }
+    }
+
+    @Test(timeout=4 * SECOND)
+    public void testWallsWithCollidingHashesAreDecidedIndependently() {
+        // Grid walls share hash codes a lot, so this catches any coin flip keyed on them.
+        Maze maze = this.makeMaze();
+        ISet<Wall> removed = new RandomMazeCarver(0.5, new Random(373)).returnWallsToRemove(maze);
+
+        IDictionary<Integer, Wall> firstWithHash = new ChainedHashDictionary<>();
+        int collisions = 0;
+        int disagreements = 0;
+        for (Wall wall : maze.getWalls()) {
+            Wall other = firstWithHash.getOrDefault(wall.hashCode(), null);
+            if (other == null) {
+                firstWithHash.put(wall.hashCode(), wall);
+            } else {
+                collisions++;
+                if (removed.contains(wall) != removed.contains(other)) {
+                    disagreements++;
+                }
+            }
+        }
+        assertTrue(collisions > 1000);
+        double fraction = (double) disagreements / collisions;
+        assertTrue("Only " + fraction + " of colliding walls were decided differently",
+                fraction > 0.4 && fraction < 0.6);
+    }
+
+    @Test(timeout=4 * SECOND)
+    public void testProgressReportsEveryRemovedWall() {
+        Maze maze = this.makeMaze();
+        ISet<Wall> reported = new ChainedHashSet<>();
+        ISet<Wall> removed = new RandomMazeCarver(0.5, new Random(373)).returnWallsToRemove(maze,
+                new GraphProgressListener<Room, Wall>() {
+                    @Override
+                    public void edgesAccepted(IList<Wall> walls) {
+                        for (Wall wall : walls) {
+                            assertFalse(reported.contains(wall));
+                            reported.add(wall);
+                        }
+                    }
+                });
+        assertEquals(removed.size(), reported.size());
+        for (Wall wall : removed) {
+            assertTrue(reported.contains(wall));
+        }
+    }
+}
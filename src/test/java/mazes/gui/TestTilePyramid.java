@@ -0,0 +1,85 @@
+package mazes.gui;
+
+import mazes.entities.Maze;
+import mazes.entities.Wall;
+import mazes.generators.base.GridGenerator;
+import misc.BaseTest;
+import org.junit.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestTilePyramid extends BaseTest {
+    private static final int SIZE = 400;
+
+    private ImageDrawer makeDrawer(Maze maze) {
+        BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        ImageDrawer drawer = new ImageDrawer(image, 5);
+        drawer.clear();
+        drawer.drawMaze(maze);
+        return drawer;
+    }
+
+    private Maze makeMaze() {
+        return new GridGenerator(10, 10).generateBaseMaze(new Rectangle(5, 5, SIZE - 10, SIZE - 10));
+    }
+
+    @Test(timeout=SECOND)
+    public void testLeastRecentlyUsedTileIsEvicted() {
+        TilePyramid tiles = new TilePyramid(this.makeDrawer(this.makeMaze()), 2);
+
+        BufferedImage first = tiles.getTile(1, 0, 0);
+        assertSame(first, tiles.getTile(1, 0, 0));
+        BufferedImage second = tiles.getTile(1, 1, 0);
+
+        // Touch the first tile so the second becomes the oldest
+        tiles.getTile(1, 0, 0);
+        tiles.getTile(1, 0, 1);
+
+        assertEquals(2, tiles.size());
+        assertSame(first, tiles.getTile(1, 0, 0));
+        assertNotSame(second, tiles.getTile(1, 1, 0));
+    }
+
+    @Test(timeout=SECOND)
+    public void testInvalidateDropsOnlyOverlappingTiles() {
+        TilePyramid tiles = new TilePyramid(this.makeDrawer(this.makeMaze()), 10);
+        BufferedImage left = tiles.getTile(1, 0, 0);
+        BufferedImage right = tiles.getTile(1, 1, 0);
+
+        tiles.invalidate(new Rectangle(10, 10, 5, 5));
+
+        assertEquals(1, tiles.size());
+        assertSame(right, tiles.getTile(1, 1, 0));
+        assertNotSame(left, tiles.getTile(1, 0, 0));
+    }
+
+    @Test(timeout=SECOND)
+    public void testZoomedTileShowsWalls() {
+        Maze maze = this.makeMaze();
+        TilePyramid tiles = new TilePyramid(this.makeDrawer(maze), 10);
+        int level = 2;
+        double scale = TilePyramid.scaleOf(level);
+
+        for (Wall wall : maze.getWalls()) {
+            Point midpoint = wall.getDividingLine().midpoint();
+            int x = (int) (midpoint.x * scale);
+            int y = (int) (midpoint.y * scale);
+            int size = TilePyramid.TILE_SIZE;
+            BufferedImage tile = tiles.getTile(level, x / size, y / size);
+            assertEquals(Color.BLACK.getRGB(), tile.getRGB(x % size, y % size));
+        }
+    }
+
+    @Test(timeout=SECOND)
+    public void testTileRegionsCoverImage() {
+        Rectangle region = TilePyramid.regionOf(3, 2, 1);
+        int size = TilePyramid.TILE_SIZE;
+        assertEquals(new Rectangle(2 * size / 8, size / 8, size / 8, size / 8), region);
+        assertTrue(TilePyramid.regionOf(0, 0, 0).contains(new Rectangle(0, 0, size, size)));
+    }
+}